@@ -1,9 +1,68 @@
 package com.hospital.Hospital.Management.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
+
+    // Named "taskExecutor" so @Async keeps using it once other executors are registered.
+    @Bean(name = "taskExecutor")
+    public ThreadPoolTaskExecutor taskExecutor(
+            @Value("${hospital.reminders.async.core-pool-size:2}") int corePoolSize,
+            @Value("${hospital.reminders.async.max-pool-size:5}") int maxPoolSize,
+            @Value("${hospital.reminders.async.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("hospital-async-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Small pool for the independent dashboard aggregate queries.
+    @Bean(name = "analyticsExecutor")
+    public ThreadPoolTaskExecutor analyticsExecutor(
+            @Value("${hospital.analytics.pool-size:3}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("hospital-analytics-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Rollup rebuild chunks; sized by backfill.parallelism so a rebuild cannot crowd out other work.
+    @Bean(name = "rollupBackfillExecutor")
+    public ThreadPoolTaskExecutor rollupBackfillExecutor(
+            @Value("${hospital.analytics.rollups.backfill.parallelism:3}") int parallelism) {
+        int threads = Math.max(1, parallelism);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("hospital-rollup-backfill-");
+        executor.initialize();
+        return executor;
+    }
+
+    // BCrypt only: sized to the CPU, with a short queue so overload is rejected (429) instead of queued.
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${app.security.bcrypt.pool-size:0}") int poolSize,
+            @Value("${app.security.bcrypt.queue-capacity:64}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("hospital-bcrypt-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -1,17 +1,25 @@
 package com.hospital.Hospital.Management.config;
 
+import java.sql.ResultSet;
 import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.hospital.Hospital.Management.model.Role;
 import com.hospital.Hospital.Management.model.User;
 import com.hospital.Hospital.Management.repository.UserRepository;
+import com.hospital.Hospital.Management.service.NoteStorageMigrationService;
 
 
 @Configuration
@@ -19,13 +27,53 @@ public class DataInitializer {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
 
+    private static final String LEGACY_ROLES_TABLE = "user_roles";
+
+    /**
+     * Copies roles from the old {@code user_roles} collection table into {@code users.role_mask}
+     * for users that have no mask yet, then renames the old table so this only happens once.
+     * Runs once every singleton (and so the schema update) is ready but before the web
+     * server starts, so no request ever sees a user without roles; a failure aborts startup.
+     */
+    @Bean
+    public SmartInitializingSingleton migrateLegacyRoles(JdbcTemplate jdbcTemplate) {
+        return () -> {
+            Boolean legacyTableExists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+                try (ResultSet tables = connection.getMetaData()
+                        .getTables(connection.getCatalog(), null, LEGACY_ROLES_TABLE, new String[]{"TABLE"})) {
+                    return tables.next();
+                }
+            });
+            if (!Boolean.TRUE.equals(legacyTableExists)) {
+                return;
+            }
+
+            String mask = Stream.of(Role.values())
+                    .map(role -> "(CASE WHEN EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = u.id AND r.roles = '"
+                            + role.name() + "') THEN " + role.bit() + " ELSE 0 END)")
+                    .collect(Collectors.joining(" + "));
+            int migrated = jdbcTemplate.update("UPDATE users u SET role_mask = " + mask + " WHERE u.role_mask = 0");
+            jdbcTemplate.execute("ALTER TABLE user_roles RENAME TO user_roles_migrated");
+            logger.info("Migrated roles of {} users from user_roles to users.role_mask.", migrated);
+        };
+    }
+
+    /**
+     * Makes the legacy consultation note text columns nullable before the web server
+     * starts, so no note is ever saved against the old NOT NULL schema. A failure aborts
+     * startup.
+     */
+    @Bean
+    public SmartInitializingSingleton relaxLegacyNoteColumns(NoteStorageMigrationService noteStorageMigrationService) {
+        return noteStorageMigrationService::relaxLegacyColumns;
+    }
+
     @Bean
+    @Order(1)
     public CommandLineRunner initializeAdminUser(UserRepository userRepository, PasswordEncoder passwordEncoder) {
         return args -> {
             // Check if any admin users exist
-            boolean adminExists = userRepository.findAll().stream()
-                    .flatMap(user -> user.getRoles().stream())
-                    .anyMatch(role -> role == Role.ROLE_ADMIN);
+            boolean adminExists = userRepository.existsByRole(Role.ROLE_ADMIN);
 
             if (!adminExists) {
                 logger.info("No admin users found. Creating default admin user...");
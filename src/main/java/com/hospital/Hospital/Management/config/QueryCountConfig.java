@@ -0,0 +1,47 @@
+package com.hospital.Hospital.Management.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+
+/**
+ * Per-request SQL statement counting: the data source is wrapped in a
+ * {@link QueryCountingDataSource}, which reports every statement to {@link QueryCounter}
+ * whether it comes from Hibernate or {@code JdbcTemplate}, and {@link QueryCountFilter}
+ * scopes the count to a request.
+ * Off unless enabled, as the {@code dev} profile does: the header tells any client how
+ * much SQL an endpoint runs.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hospital.query-count.enabled", havingValue = "true")
+public class QueryCountConfig {
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)
+                        ? new QueryCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    // Ahead of the security chain, so the token checks' lookups are counted too.
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(
+            @Value("${hospital.query-count.warn-threshold:50}") int warnThreshold) {
+        FilterRegistrationBean<QueryCountFilter> registration =
+                new FilterRegistrationBean<>(new QueryCountFilter(warnThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
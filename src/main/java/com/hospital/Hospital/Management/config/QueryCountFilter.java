@@ -0,0 +1,56 @@
+package com.hospital.Hospital.Management.config;
+
+import java.io.IOException;
+
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports how many SQL statements each request ran in the {@value #HEADER} response
+ * header, set just before the response is committed. Statements run afterwards, such as
+ * lazy loads during serialization, only show up in the debug log line.
+ */
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "X-Query-Count";
+
+    private final int warnThreshold;
+
+    public QueryCountFilter(int warnThreshold) {
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.start();
+        HttpServletResponse counted = new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                response.setHeader(HEADER, String.valueOf(QueryCounter.current()));
+            }
+        };
+        try {
+            filterChain.doFilter(request, counted);
+        } finally {
+            int queries = QueryCounter.stop();
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER, String.valueOf(queries));
+            }
+            if (queries > warnThreshold) {
+                log.warn("{} {} ran {} SQL statements.", request.getMethod(), request.getRequestURI(), queries);
+            } else {
+                log.debug("{} {} ran {} SQL statements.", request.getMethod(), request.getRequestURI(), queries);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hospital.Hospital.Management.config;
+
+/**
+ * Counts the SQL statements run on the current thread between {@link #start()} and
+ * {@link #stop()}. {@link QueryCountingDataSource} reports each statement.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Statements counted so far on this thread, or -1 if counting was not started.
+     */
+    public static int current() {
+        int[] count = COUNT.get();
+        return count != null ? count[0] : -1;
+    }
+
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+}
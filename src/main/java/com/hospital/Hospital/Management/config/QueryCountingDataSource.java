@@ -0,0 +1,81 @@
+package com.hospital.Hospital.Management.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Reports every SQL statement run through the wrapped data source to {@link QueryCounter},
+ * whoever issues it: Hibernate, {@code JdbcTemplate} or plain JDBC. A prepared statement
+ * counts once when it is prepared, however often it is then executed, so a JDBC batch
+ * counts as one; a plain statement counts once per execute call.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    public QueryCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection countingConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (isIdentityMethod(method)) {
+                        return identity(proxy, method, args);
+                    }
+                    Object result = invoke(target, method, args);
+                    switch (method.getName()) {
+                        case "prepareStatement", "prepareCall" -> QueryCounter.increment();
+                        case "createStatement" -> result = countingStatement((Statement) result);
+                        default -> { }
+                    }
+                    return result;
+                });
+    }
+
+    private static Statement countingStatement(Statement target) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {Statement.class},
+                (proxy, method, args) -> {
+                    if (isIdentityMethod(method)) {
+                        return identity(proxy, method, args);
+                    }
+                    if (method.getName().startsWith("execute")) {
+                        QueryCounter.increment();
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getName().equals("equals") || method.getName().equals("hashCode");
+    }
+
+    // Proxies are compared by identity, so connection holders keep recognizing them.
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.hospital.Hospital.Management.config;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,8 +15,8 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,20 +25,25 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.hospital.Hospital.Management.security.JwtAuthenticationFilter;
+import com.hospital.Hospital.Management.security.PooledBCryptPasswordEncoder;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
+@Slf4j
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   DaoAuthenticationProvider authenticationProvider) throws Exception {
         return http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -49,22 +57,33 @@ public class SecurityConfig {
                         .requestMatchers("/api/appointments/**").hasAnyRole("PATIENT", "DOCTOR")
                         .anyRequest().authenticated()
                 )
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Rehashes a password whose BCrypt cost is below the configured one on successful login.
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PooledBCryptPasswordEncoder passwordEncoder(
+            @Qualifier("passwordHashingExecutor") Executor passwordHashingExecutor,
+            @Value("${app.security.bcrypt.strength:0}") int fixedStrength,
+            @Value("${app.security.bcrypt.target-ms:250}") long targetMillis,
+            @Value("${app.security.bcrypt.min-strength:10}") int minStrength,
+            @Value("${app.security.bcrypt.max-strength:14}") int maxStrength) {
+        int strength = fixedStrength > 0
+                ? fixedStrength
+                : PooledBCryptPasswordEncoder.calibrate(targetMillis, minStrength, maxStrength);
+        log.info("Using BCrypt strength {} ({}).", strength, fixedStrength > 0 ? "configured" : "calibrated to " + targetMillis + " ms");
+        return new PooledBCryptPasswordEncoder(strength, passwordHashingExecutor);
     }
 //handle authentication logic
     @Bean
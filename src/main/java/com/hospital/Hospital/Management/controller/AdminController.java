@@ -1,18 +1,29 @@
 package com.hospital.Hospital.Management.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.hospital.Hospital.Management.dto.AdminUserCreationRequest;
+import com.hospital.Hospital.Management.dto.BulkImportReportDto;
 import com.hospital.Hospital.Management.dto.UserProfileResponse;
+import com.hospital.Hospital.Management.model.Role;
 import com.hospital.Hospital.Management.service.AdminService;
+import com.hospital.Hospital.Management.service.BulkImportFormat;
+import com.hospital.Hospital.Management.service.BulkUserImportService;
 
 import jakarta.validation.Valid;
 
@@ -22,9 +33,11 @@ import jakarta.validation.Valid;
 public class AdminController {
 
     private final AdminService adminService;
+    private final BulkUserImportService bulkUserImportService;
 
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, BulkUserImportService bulkUserImportService) {
         this.adminService = adminService;
+        this.bulkUserImportService = bulkUserImportService;
     }
 
     @GetMapping("/profile")
@@ -47,4 +60,25 @@ public class AdminController {
     public ResponseEntity<UserProfileResponse> addAdmin(@Valid @RequestBody AdminUserCreationRequest request) {
         return ResponseEntity.ok(adminService.createAdmin(request));
     }
+
+    /**
+     * Creates users from a CSV (header row first) or NDJSON upload sent as the raw request
+     * body. The format follows the Content-Type unless given explicitly.
+     */
+    @PostMapping("/users/import")
+    public ResponseEntity<BulkImportReportDto> importUsers(
+            InputStream body,
+            @RequestParam(defaultValue = "DOCTOR") String role,
+            @RequestParam(required = false) BulkImportFormat format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @AuthenticationPrincipal UserDetails admin) throws IOException {
+        Role importRole;
+        try {
+            importRole = Role.valueOf("ROLE_" + role.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown role: " + role);
+        }
+        BulkImportFormat importFormat = format != null ? format : BulkImportFormat.fromContentType(contentType);
+        return ResponseEntity.ok(bulkUserImportService.importUsers(body, importFormat, importRole, admin));
+    }
 }
@@ -1,9 +1,13 @@
 package com.hospital.Hospital.Management.controller;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,19 +16,36 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.hospital.Hospital.Management.dto.AdminUserSummaryDto;
 import com.hospital.Hospital.Management.dto.AnnouncementRequestDto;
+import com.hospital.Hospital.Management.dto.ApiResponse;
 import com.hospital.Hospital.Management.dto.DashboardAnalyticsDto;
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
 import com.hospital.Hospital.Management.dto.RegisterRequest;
+import com.hospital.Hospital.Management.dto.SystemLogDto;
+import com.hospital.Hospital.Management.dto.SystemLogFilter;
+import com.hospital.Hospital.Management.dto.TrendPointDto;
+import com.hospital.Hospital.Management.dto.UserListQuery;
 import com.hospital.Hospital.Management.model.DoctorAvailability;
+import com.hospital.Hospital.Management.model.NoteCompressionDictionary;
 import com.hospital.Hospital.Management.model.Role;
-import com.hospital.Hospital.Management.model.SystemLog;
+import com.hospital.Hospital.Management.model.RollupGranularity;
 import com.hospital.Hospital.Management.model.User;
 import com.hospital.Hospital.Management.repository.DoctorAvailabilityRepository;
-import com.hospital.Hospital.Management.repository.SystemLogRepository;
-import com.hospital.Hospital.Management.repository.UserRepository;
 import com.hospital.Hospital.Management.service.AdminDashboardService;
+import com.hospital.Hospital.Management.service.AnalyticsRollupService;
+import com.hospital.Hospital.Management.service.AuditArchiveService;
+import com.hospital.Hospital.Management.service.AuditLogSource;
+import com.hospital.Hospital.Management.service.AnalyticsStreamService;
+import com.hospital.Hospital.Management.service.ConsultationNoteSearchService;
+import com.hospital.Hospital.Management.service.NoteStorageMigrationService;
+import com.hospital.Hospital.Management.service.RollupBackfillService;
+import com.hospital.Hospital.Management.service.SystemLogQueryService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -34,16 +55,30 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AdminDashboardController {
 
-    private final UserRepository userRepository;
+    private static final int SYSTEM_LOG_ARCHIVE_MAX_ROWS = 1000;
+
     private final DoctorAvailabilityRepository doctorAvailabilityRepository;
-    private final SystemLogRepository systemLogRepository;
     
     private final AdminDashboardService adminDashboardService;
+    private final AnalyticsStreamService analyticsStreamService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final RollupBackfillService rollupBackfillService;
+    private final SystemLogQueryService systemLogQueryService;
+    private final AuditArchiveService auditArchiveService;
+    private final ConsultationNoteSearchService noteSearchService;
+    private final NoteStorageMigrationService noteStorageMigrationService;
 
    
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userRepository.findAll());
+    public ResponseEntity<KeysetPageDto<AdminUserSummaryDto>> getAllUsers(
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "ID") UserListQuery.SortField sort,
+            @RequestParam(defaultValue = "false") boolean descending,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(listUsers(role, enabled, search, sort, descending, size, cursor));
     }
 
     @PostMapping("/users")
@@ -65,20 +100,26 @@ public class AdminDashboardController {
     }
 
     @GetMapping("/patients")
-    public ResponseEntity<List<User>> getAllPatients() {
-        List<User> patients = userRepository.findAll().stream()
-                .filter(user -> user.getRoles().contains(Role.ROLE_PATIENT))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(patients);
+    public ResponseEntity<KeysetPageDto<AdminUserSummaryDto>> getAllPatients(
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "ID") UserListQuery.SortField sort,
+            @RequestParam(defaultValue = "false") boolean descending,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(listUsers(Role.ROLE_PATIENT, enabled, search, sort, descending, size, cursor));
     }
 
   
     @GetMapping("/doctors")
-    public ResponseEntity<List<User>> getAllDoctors() {
-        List<User> doctors = userRepository.findAll().stream()
-                .filter(user -> user.getRoles().contains(Role.ROLE_DOCTOR))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(doctors);
+    public ResponseEntity<KeysetPageDto<AdminUserSummaryDto>> getAllDoctors(
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "ID") UserListQuery.SortField sort,
+            @RequestParam(defaultValue = "false") boolean descending,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(listUsers(Role.ROLE_DOCTOR, enabled, search, sort, descending, size, cursor));
     }
 
     @GetMapping("/doctors/{doctorId}/schedule")
@@ -87,18 +128,120 @@ public class AdminDashboardController {
     }
 
     @GetMapping("/logs")
-    public ResponseEntity<List<SystemLog>> getSystemLogs() {
-        return ResponseEntity.ok(systemLogRepository.findAll(Sort.by(Sort.Direction.DESC, "timestamp")));
+    public ResponseEntity<KeysetPageDto<SystemLogDto>> getSystemLogs(
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "DATABASE") AuditLogSource source) {
+        SystemLogFilter filter = new SystemLogFilter(action, userId, from, to);
+        return ResponseEntity.ok(systemLogQueryService.findLogs(source, filter, size, cursor));
+    }
+
+    @GetMapping("/logs/export")
+    public ResponseEntity<StreamingResponseBody> exportSystemLogs(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "DATABASE") AuditLogSource source) {
+        SystemLogFilter filter = new SystemLogFilter(action, userId, from, to);
+        boolean csv = "csv".equalsIgnoreCase(format);
+        StreamingResponseBody body = csv
+                ? out -> systemLogQueryService.exportCsv(source, filter, out)
+                : out -> systemLogQueryService.exportNdjson(source, filter, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"system-logs." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
     }
 
 
 
+    @GetMapping("/logs/archive")
+    public ResponseEntity<List<SystemLogDto>> searchArchivedLogs(
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) throws IOException {
+        SystemLogFilter filter = new SystemLogFilter(action, userId, from, to);
+        return ResponseEntity.ok(auditArchiveService.search(filter, Math.min(limit, SYSTEM_LOG_ARCHIVE_MAX_ROWS)));
+    }
+
+    @PostMapping("/logs/archive/restore")
+    public ResponseEntity<ApiResponse<Long>> restoreArchivedLogs(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) throws IOException {
+        long restored = auditArchiveService.restore(from, to);
+        return ResponseEntity.ok(ApiResponse.success("Restored " + restored + " archived log entries.", restored));
+    }
+
     @GetMapping("/analytics")
     public ResponseEntity<DashboardAnalyticsDto> getDashboardAnalytics() {
         DashboardAnalyticsDto analytics = adminDashboardService.getDashboardAnalytics();
         return ResponseEntity.ok(analytics);
     }
 
+    @GetMapping(path = "/analytics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboardAnalytics() {
+        return analyticsStreamService.subscribe();
+    }
+
+    @GetMapping("/analytics/trends")
+    public ResponseEntity<List<TrendPointDto>> getAnalyticsTrends(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAILY") RollupGranularity granularity,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) String specialization) {
+        return ResponseEntity.ok(analyticsRollupService.getTrend(granularity, from, to, doctorId, specialization));
+    }
+
+    @PostMapping("/analytics/rollups/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuildAnalyticsRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("The end of the range must not be before its start."));
+        }
+        rollupBackfillService.rebuild(from, to);
+        return ResponseEntity.accepted()
+                .body(ApiResponse.success("Rollup rebuild started for " + from + " to " + to + "."));
+    }
+
+    @PostMapping("/notes/search/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuildNoteSearchIndex() {
+        noteSearchService.rebuild();
+        return ResponseEntity.accepted()
+                .body(ApiResponse.success("Consultation note index rebuild started."));
+    }
+
+    @PostMapping("/notes/compression/train")
+    public ResponseEntity<ApiResponse<Void>> trainNoteCompressionDictionary() {
+        NoteCompressionDictionary dictionary = noteStorageMigrationService.retrain();
+        return ResponseEntity.ok(ApiResponse.success("Note compression dictionary " + dictionary.getId()
+                + " trained from " + dictionary.getSampleSize() + " notes."));
+    }
+
+    private KeysetPageDto<AdminUserSummaryDto> listUsers(Role role, Boolean enabled, String search,
+                                                         UserListQuery.SortField sort, boolean descending,
+                                                         int size, String cursor) {
+        UserListQuery query = UserListQuery.builder()
+                .role(role)
+                .enabled(enabled)
+                .search(search)
+                .sort(sort)
+                .descending(descending)
+                .build();
+        return adminDashboardService.listUsers(query, size, cursor);
+    }
+
     @PostMapping("/announcements")
     public ResponseEntity<Void> sendAnnouncement(
             @Valid @RequestBody AnnouncementRequestDto announcement,
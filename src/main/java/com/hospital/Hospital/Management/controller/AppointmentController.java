@@ -2,8 +2,11 @@ package com.hospital.Hospital.Management.controller;
 
 import java.nio.file.AccessDeniedException;
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -13,13 +16,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.hospital.Hospital.Management.dto.ApiResponse;
 import com.hospital.Hospital.Management.dto.AppointmentRequestDto;
 import com.hospital.Hospital.Management.dto.AppointmentResponseDto;
 import com.hospital.Hospital.Management.dto.BookingResponseDto;
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
 import com.hospital.Hospital.Management.dto.RescheduleRequestDto;
+import com.hospital.Hospital.Management.model.AppointmentStatus;
 import com.hospital.Hospital.Management.service.AppointmentService;
 
 import jakarta.validation.Valid;
@@ -60,8 +66,14 @@ public class AppointmentController {
 
     @GetMapping("/my-appointments")
     @PreAuthorize("hasRole('PATIENT')")
-    public ResponseEntity<List<AppointmentResponseDto>> getMyPatientAppointments(Principal principal) {
-        return ResponseEntity.ok(appointmentService.getAppointmentsForPatient(principal.getName()));
+    public ResponseEntity<KeysetPageDto<AppointmentResponseDto>> getMyPatientAppointments(
+            Principal principal,
+            @RequestParam(required = false) Set<AppointmentStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(appointmentService.getAppointmentsForPatient(principal.getName(), status, from, to, size, cursor));
     }
 
     @GetMapping("/upcoming")
@@ -2,16 +2,19 @@ package com.hospital.Hospital.Management.controller;
 
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.hospital.Hospital.Management.dto.AuthenticationRequest;
 import com.hospital.Hospital.Management.dto.AuthenticationResponse;
+import com.hospital.Hospital.Management.dto.RefreshTokenRequest;
 import com.hospital.Hospital.Management.dto.RegisterRequest;
 import com.hospital.Hospital.Management.dto.ResetPasswordRequest;
 import com.hospital.Hospital.Management.service.AuthService;
@@ -44,6 +47,19 @@ public class AuthController {
         return ResponseEntity.ok(authService.authenticate(request));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, String>> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam(defaultValue = "false") boolean allDevices) {
+        authService.logout(authorization, allDevices);
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully."));
+    }
+
     @GetMapping("/verify-email")
     public ResponseEntity<String> verifyEmail(@RequestParam String token) {
         authService.verifyEmail(token);
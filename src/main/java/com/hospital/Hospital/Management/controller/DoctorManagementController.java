@@ -1,7 +1,10 @@
 package com.hospital.Hospital.Management.controller;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,11 +22,17 @@ import com.hospital.Hospital.Management.dto.AppointmentActionResponseDto;
 import com.hospital.Hospital.Management.dto.AppointmentHistoryDto;
 import com.hospital.Hospital.Management.dto.AppointmentResponseDto;
 import com.hospital.Hospital.Management.dto.ConsultationNoteDto;
+import com.hospital.Hospital.Management.dto.DoctorCalendarDto;
 import com.hospital.Hospital.Management.dto.DoctorProfileDto;
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
+import com.hospital.Hospital.Management.dto.NoteSearchHitDto;
 import com.hospital.Hospital.Management.dto.RescheduleRequestDto;
 import com.hospital.Hospital.Management.dto.SetAvailabilityResponseDto;
 import com.hospital.Hospital.Management.dto.WeeklyAvailabilityRequestDto;
 import com.hospital.Hospital.Management.model.AppointmentStatus;
+import com.hospital.Hospital.Management.security.IsSelf;
+import com.hospital.Hospital.Management.service.CalendarView;
+import com.hospital.Hospital.Management.service.ConsultationNoteSearchService;
 import com.hospital.Hospital.Management.service.DoctorManagementService;
 
 import jakarta.validation.Valid;
@@ -34,20 +43,23 @@ import jakarta.validation.Valid;
 public class DoctorManagementController {
 
     private final DoctorManagementService doctorService;
+    private final ConsultationNoteSearchService noteSearchService;
 
-    public DoctorManagementController(DoctorManagementService doctorService) {
+    public DoctorManagementController(DoctorManagementService doctorService,
+                                      ConsultationNoteSearchService noteSearchService) {
         this.doctorService = doctorService;
+        this.noteSearchService = noteSearchService;
     }
 
     @PutMapping("/{id}/profile")
-    @PreAuthorize("#id == @userRepository.findByEmail(principal.username).get().id")
+    @IsSelf
     public ResponseEntity<String> updateProfile(@PathVariable Long id, @Valid @RequestBody DoctorProfileDto profileDto) {
         doctorService.updateDoctorProfile(id, profileDto);
         return ResponseEntity.ok("Profile updated successfully for doctor ID: " + id);
     }
 
     @PutMapping("/{id}/availability")
-    @PreAuthorize("#id == @userRepository.findByEmail(principal.username).get().id")
+    @IsSelf
     public ResponseEntity<SetAvailabilityResponseDto> setWeeklyAvailability(@PathVariable Long id, @Valid @RequestBody WeeklyAvailabilityRequestDto request) {
         SetAvailabilityResponseDto responseDto = doctorService.setWeeklyAvailability(id, request);
         return ResponseEntity.ok(responseDto);
@@ -55,7 +67,7 @@ public class DoctorManagementController {
 
    
     @PutMapping("/{id}/appointments/{appointmentId}/reschedule")
-    @PreAuthorize("#id == @userRepository.findByEmail(principal.username).get().id")
+    @IsSelf
     public ResponseEntity<AppointmentResponseDto> rescheduleAppointment(
             @PathVariable Long id,
             @PathVariable Long appointmentId,
@@ -66,43 +78,69 @@ public class DoctorManagementController {
     }
 
     @GetMapping("/{id}/appointments/upcoming")
-    @PreAuthorize("#id == @userRepository.findByEmail(principal.username).get().id")
+    @IsSelf
     public ResponseEntity<?> getUpcomingAppointments(@PathVariable Long id) {
         return doctorService.getUpcomingAppointmentsForDoctor(id);
     }
 
+    @GetMapping("/{id}/calendar")
+    @IsSelf
+    public ResponseEntity<DoctorCalendarDto> getCalendar(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "WEEK") CalendarView view) {
+        return ResponseEntity.ok(doctorService.getCalendar(id, date != null ? date : LocalDate.now(), view));
+    }
+
     @PutMapping("/{id}/appointments/{appointmentId}/confirm")
-    @PreAuthorize("#id == @userRepository.findByEmail(principal.username).get().id")
+    @IsSelf
     public ResponseEntity<AppointmentActionResponseDto> confirmAppointment(@PathVariable Long id, @PathVariable Long appointmentId) {
         AppointmentActionResponseDto responseDto = doctorService.updateAppointmentStatus(id, appointmentId, AppointmentStatus.CONFIRMED_BY_DOCTOR);
         return ResponseEntity.ok(responseDto);
     }
 
     @PutMapping("/{id}/appointments/{appointmentId}/decline")
-    @PreAuthorize("#id == @userRepository.findByEmail(principal.username).get().id")
+    @IsSelf
     public ResponseEntity<AppointmentActionResponseDto> declineAppointment(@PathVariable Long id, @PathVariable Long appointmentId) {
         AppointmentActionResponseDto responseDto = doctorService.updateAppointmentStatus(id, appointmentId, AppointmentStatus.CANCELLED_BY_DOCTOR);
         return ResponseEntity.ok(responseDto);
     }
 
     @PutMapping("/{id}/appointments/{appointmentId}/complete")
-    @PreAuthorize("#id == @userRepository.findByEmail(principal.username).get().id")
+    @IsSelf
     public ResponseEntity<AppointmentActionResponseDto> completeAppointment(@PathVariable Long id, @PathVariable Long appointmentId) {
         AppointmentActionResponseDto responseDto = doctorService.updateAppointmentStatus(id, appointmentId, AppointmentStatus.COMPLETED);
         return ResponseEntity.ok(responseDto);
     }
 
     @GetMapping("/{id}/appointments/history")
-    @PreAuthorize("#id == @userRepository.findByEmail(principal.username).get().id")
-    public ResponseEntity<List<AppointmentHistoryDto>> getAppointmentHistory(@PathVariable Long id, @RequestParam(required = false) Long patientId) {
-        List<AppointmentHistoryDto> history = doctorService.getAppointmentHistory(id, patientId);
+    @IsSelf
+    public ResponseEntity<KeysetPageDto<AppointmentHistoryDto>> getAppointmentHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeNotes) {
+        KeysetPageDto<AppointmentHistoryDto> history = doctorService.getAppointmentHistory(id, patientId, from, to,
+                size, cursor, includeNotes);
         return ResponseEntity.ok(history);
     }
 
     @PostMapping("/{id}/appointments/{appointmentId}/notes")
-    @PreAuthorize("#id == @userRepository.findByEmail(principal.username).get().id")
+    @IsSelf
     public ResponseEntity<AddNoteResponseDto> addConsultationNote(@PathVariable Long id, @PathVariable Long appointmentId, @Valid @RequestBody ConsultationNoteDto noteDto) {
         AddNoteResponseDto response = doctorService.addConsultationNote(id, appointmentId, noteDto);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{id}/notes/search")
+    @IsSelf
+    public ResponseEntity<List<NoteSearchHitDto>> searchNotes(
+            @PathVariable Long id,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(noteSearchService.search(id, q, limit));
+    }
+}
@@ -2,6 +2,7 @@ package com.hospital.Hospital.Management.controller;
 
 import com.hospital.Hospital.Management.dto.ApiResponse;
 import com.hospital.Hospital.Management.dto.DoctorSearchResultDto;
+import com.hospital.Hospital.Management.model.Role;
 import com.hospital.Hospital.Management.model.User;
 import com.hospital.Hospital.Management.repository.UserRepository;
 import com.hospital.Hospital.Management.service.DoctorSearchService;
@@ -13,7 +14,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/doctors")
@@ -46,11 +46,7 @@ public class DoctorSearchController {
     @GetMapping("/debug/all-profiles")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<User>> getAllDoctorProfilesForDebug() {
-        List<User> allUsers = userRepository.findAll();
-        List<User> doctorsOnly = allUsers.stream()
-                .filter(user -> user.getRoles().stream()
-                        .anyMatch(role -> role.name().equals("ROLE_DOCTOR")))
-                .collect(Collectors.toList());
+        List<User> doctorsOnly = userRepository.findByRole(Role.ROLE_DOCTOR);
         return ResponseEntity.ok(doctorsOnly);
     }
 }
\ No newline at end of file
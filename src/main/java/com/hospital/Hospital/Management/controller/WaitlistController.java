@@ -3,7 +3,7 @@ package com.hospital.Hospital.Management.controller;
 import com.hospital.Hospital.Management.dto.ApiResponse;
 import com.hospital.Hospital.Management.dto.WaitlistEntryDto;
 import com.hospital.Hospital.Management.model.User;
-import com.hospital.Hospital.Management.repository.UserRepository;
+import com.hospital.Hospital.Management.security.CurrentUserResolver;
 import com.hospital.Hospital.Management.service.WaitlistService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -23,7 +23,7 @@ import java.util.NoSuchElementException;
 public class WaitlistController {
 
     private final WaitlistService waitlistService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @PostMapping("/doctors/{doctorId}/waitlist/join")
     @PreAuthorize("hasRole('PATIENT')")
@@ -40,7 +40,7 @@ public class WaitlistController {
     }
 
     @GetMapping("/doctors/{id}/waitlist")
-    @PreAuthorize("hasRole('DOCTOR') and #id == @userRepository.findByEmail(principal.username).orElseThrow().getId()")
+    @PreAuthorize("hasRole('DOCTOR') and @ownershipGuard.isSelf(authentication, #id)")
     public ResponseEntity<List<WaitlistEntryDto>> getDoctorWaitlist(
             @PathVariable Long id,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
@@ -54,7 +54,7 @@ public class WaitlistController {
             @PathVariable Long waitlistId,
             Principal principal) {
 
-        User doctor = userRepository.findByEmail(principal.getName())
+        User doctor = currentUserResolver.findUser(principal.getName())
                 .orElseThrow(() -> new NoSuchElementException("Authenticated doctor not found"));
 
         waitlistService.notifyWaitlistedPatient(waitlistId, doctor.getId());
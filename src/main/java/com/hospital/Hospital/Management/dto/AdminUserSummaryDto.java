@@ -0,0 +1,30 @@
+package com.hospital.Hospital.Management.dto;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import com.hospital.Hospital.Management.model.Role;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of the admin user listings. Selected directly by the listing query, so no
+ * entity (and no password hash or availability collection) is ever loaded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminUserSummaryDto {
+    private Long id;
+    private String email;
+    private String fullName;
+    private String phoneNumber;
+    private String specialization;
+    private String location;
+    private boolean enabled;
+    private boolean accountNonLocked;
+    private LocalDateTime createdAt;
+    private Set<Role> roles;
+}
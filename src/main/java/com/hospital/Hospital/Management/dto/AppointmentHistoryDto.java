@@ -2,11 +2,13 @@ package com.hospital.Hospital.Management.dto;
 
 import java.time.LocalDateTime;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class AppointmentHistoryDto {
     private Long appointmentId;
 
@@ -17,5 +19,18 @@ public class AppointmentHistoryDto {
     private Long patientId;
     private String patientName;
     private LocalDateTime appointmentDateTime;
+    private Long noteId;
+    private String noteSummary;
     private ConsultationNoteDto consultationNote;
-}
\ No newline at end of file
+
+    /**
+     * Projection constructor for the history query; the note columns are null when the
+     * appointment has no consultation note. The full note is attached separately.
+     */
+    public AppointmentHistoryDto(Long appointmentId, Long doctorId, String doctorName, Long patientId,
+                                 String patientName, LocalDateTime appointmentDateTime, Long noteId,
+                                 String noteSummary) {
+        this(appointmentId, doctorId, doctorName, patientId, patientName, appointmentDateTime, noteId,
+                noteSummary, null);
+    }
+}
@@ -2,11 +2,15 @@ package com.hospital.Hospital.Management.dto;
 
 import java.time.LocalDateTime;
 
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class AppointmentResponseDto {
     private Long id;
     private Long patientId;
@@ -17,4 +21,12 @@ public class AppointmentResponseDto {
     private String status;
     private LocalDateTime createdAt;
     private ConsultationNoteDto consultationNote;
-}
\ No newline at end of file
+
+    /**
+     * Projection constructor for listing queries, which never select the consultation note.
+     */
+    public AppointmentResponseDto(Long id, Long patientId, String patientName, Long doctorId, String doctorName,
+                                  LocalDateTime appointmentDateTime, AppointmentStatus status, LocalDateTime createdAt) {
+        this(id, patientId, patientName, doctorId, doctorName, appointmentDateTime, status.name(), createdAt, null);
+    }
+}
@@ -0,0 +1,26 @@
+package com.hospital.Hospital.Management.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk user import: totals per status and one result per input record,
+ * in input order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportReportDto {
+    private long total;
+    private long created;
+    private long duplicates;
+    private long invalid;
+    private long failed;
+    private long elapsedMs;
+    private List<BulkImportRowResultDto> rows;
+}
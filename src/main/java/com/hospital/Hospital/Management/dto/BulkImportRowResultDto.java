@@ -0,0 +1,26 @@
+package com.hospital.Hospital.Management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportRowResultDto {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+
+    private long line;
+    private String email;
+    private Status status;
+    private Long userId;
+    private String message;
+}
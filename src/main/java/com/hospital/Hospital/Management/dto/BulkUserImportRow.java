@@ -0,0 +1,47 @@
+package com.hospital.Hospital.Management.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One record of a bulk user import, from a CSV row or an NDJSON line. Same rules as
+ * {@link AdminUserCreationRequest}, plus the optional doctor profile fields.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUserImportRow {
+
+    @NotBlank(message = "Email is required")
+    @Email(message = "Email should be valid")
+    private String email;
+
+    @NotBlank(message = "Password is required")
+    @Size(min = 8, message = "Password must be at least 8 characters")
+    private String password;
+
+    @NotBlank(message = "Full name is required")
+    private String fullName;
+
+    @Pattern(regexp = "^(\\+\\d{1,3}( )?)?((\\(\\d{1,3}\\))|\\d{1,3})[- .]?\\d{3,4}[- .]?\\d{4}$", message = "Phone number is not valid")
+    private String phoneNumber;
+
+    private String address;
+
+    @Size(max = 100, message = "Specialization must be at most 100 characters")
+    private String specialization;
+
+    @Size(max = 100, message = "Location must be at most 100 characters")
+    private String location;
+
+    @Positive(message = "Slot duration must be positive")
+    private Integer slotDurationInMinutes;
+}
@@ -0,0 +1,22 @@
+package com.hospital.Hospital.Management.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One day of the doctor calendar: the booked appointments and the slots still open.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorCalendarDayDto {
+    private LocalDate date;
+    private List<UpcomingAppointmentDto> appointments;
+    private List<TimeSlotDto> freeSlots;
+}
@@ -0,0 +1,24 @@
+package com.hospital.Hospital.Management.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.hospital.Hospital.Management.service.CalendarView;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorCalendarDto {
+    private Long doctorId;
+    private CalendarView view;
+    private LocalDate from;
+    private LocalDate to;
+    private Integer slotDurationInMinutes;
+    private List<DoctorCalendarDayDto> days;
+}
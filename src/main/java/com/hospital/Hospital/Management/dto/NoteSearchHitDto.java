@@ -0,0 +1,27 @@
+package com.hospital.Hospital.Management.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One consultation note matching a search. {@code highlights} maps each matching note
+ * field to a snippet with the matched terms wrapped in {@code <b>} tags.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSearchHitDto {
+    private Long noteId;
+    private Long appointmentId;
+    private Long patientId;
+    private String patientName;
+    private LocalDateTime appointmentDateTime;
+    private float score;
+    private Map<String, String> highlights;
+}
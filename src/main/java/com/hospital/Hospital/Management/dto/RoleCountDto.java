@@ -0,0 +1,13 @@
+package com.hospital.Hospital.Management.dto;
+
+import com.hospital.Hospital.Management.model.Role;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RoleCountDto {
+    private Role role;
+    private Long count;
+}
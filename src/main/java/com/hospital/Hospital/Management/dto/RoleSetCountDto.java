@@ -0,0 +1,18 @@
+package com.hospital.Hospital.Management.dto;
+
+import java.util.Set;
+
+import com.hospital.Hospital.Management.model.Role;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Number of users holding exactly one combination of roles.
+ */
+@Data
+@AllArgsConstructor
+public class RoleSetCountDto {
+    private Set<Role> roles;
+    private Long count;
+}
@@ -0,0 +1,31 @@
+package com.hospital.Hospital.Management.dto;
+
+import java.time.LocalDate;
+
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One hour of raw activity as read by the rollup backfill.
+ * {@code doctorId}, {@code specialization} and {@code status} are null when they do not apply.
+ */
+@Data
+@AllArgsConstructor
+public class RollupBucketCountDto {
+    private Long doctorId;
+    private String specialization;
+    private AppointmentStatus status;
+    private LocalDate day;
+    private Integer hour;
+    private Long count;
+
+    public RollupBucketCountDto(Long doctorId, String specialization, LocalDate day, Integer hour, Long count) {
+        this(doctorId, specialization, null, day, hour, count);
+    }
+
+    public RollupBucketCountDto(LocalDate day, Integer hour, Long count) {
+        this(null, null, null, day, hour, count);
+    }
+}
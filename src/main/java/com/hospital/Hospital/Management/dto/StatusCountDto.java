@@ -0,0 +1,13 @@
+package com.hospital.Hospital.Management.dto;
+
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StatusCountDto {
+    private AppointmentStatus status;
+    private Long count;
+}
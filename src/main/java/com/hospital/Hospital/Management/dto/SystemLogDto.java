@@ -0,0 +1,22 @@
+package com.hospital.Hospital.Management.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SystemLogDto {
+    private Long id;
+    private Long userId;
+    private String userEmail;
+    private String action;
+    private String details;
+    private String ipAddress;
+    private LocalDateTime timestamp;
+}
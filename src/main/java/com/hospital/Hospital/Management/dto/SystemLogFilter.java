@@ -0,0 +1,29 @@
+package com.hospital.Hospital.Management.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional filters for browsing and exporting the audit log. {@code from} is inclusive,
+ * {@code to} exclusive. {@code restoredBefore}, used by the archiver, skips rows restored
+ * from the archive at or after that time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SystemLogFilter {
+    private String action;
+    private Long userId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private LocalDateTime restoredBefore;
+
+    public SystemLogFilter(String action, Long userId, LocalDateTime from, LocalDateTime to) {
+        this(action, userId, from, to, null);
+    }
+}
@@ -0,0 +1,21 @@
+package com.hospital.Hospital.Management.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendPointDto {
+    private LocalDateTime bucketStart;
+    private Long bookings;
+    private Long cancelledByPatient;
+    private Long cancelledByDoctor;
+    private Long completions;
+    private Long noShows;
+    private Long waitlistJoins;
+    private Long registrations;
+}
@@ -2,14 +2,23 @@ package com.hospital.Hospital.Management.dto;
 
 import java.time.LocalDateTime;
 
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class UpcomingAppointmentDto {
     private Long appointmentId;
     private String patientName;
     private LocalDateTime appointmentDateTime;
     private String status;
-}
\ No newline at end of file
+
+    public UpcomingAppointmentDto(Long appointmentId, String patientName, LocalDateTime appointmentDateTime,
+                                  AppointmentStatus status) {
+        this(appointmentId, patientName, appointmentDateTime, status.name());
+    }
+}
@@ -0,0 +1,48 @@
+package com.hospital.Hospital.Management.dto;
+
+import com.hospital.Hospital.Management.model.Role;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters, ordering and keyset position for the admin user listings.
+ * {@code afterValue}/{@code afterId} identify the last row of the previous page;
+ * {@code afterValue} is a {@code LocalDateTime} when sorting by creation time, a
+ * {@code String} otherwise, and null when that row had no value.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserListQuery {
+
+    public enum SortField {
+        ID("id"),
+        CREATED_AT("createdAt"),
+        FULL_NAME("fullName"),
+        EMAIL("email");
+
+        private final String property;
+
+        SortField(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+    }
+
+    private Role role;
+    private Boolean enabled;
+    private String search;
+    @Builder.Default
+    private SortField sort = SortField.ID;
+    private boolean descending;
+    private int limit;
+    private Object afterValue;
+    private Long afterId;
+}
@@ -0,0 +1,32 @@
+package com.hospital.Hospital.Management.event;
+
+import java.time.LocalDateTime;
+
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+
+/**
+ * Published whenever an appointment is created or moves to a new status.
+ * A newly booked appointment has no {@code previousStatus}.
+ */
+public record AppointmentStatusChangedEvent(
+        Long appointmentId,
+        Long doctorId,
+        String doctorSpecialization,
+        AppointmentStatus previousStatus,
+        AppointmentStatus newStatus,
+        LocalDateTime occurredAt) {
+
+    public static AppointmentStatusChangedEvent booked(Long appointmentId, Long doctorId, String specialization,
+                                                       AppointmentStatus status) {
+        return new AppointmentStatusChangedEvent(appointmentId, doctorId, specialization, null, status, LocalDateTime.now());
+    }
+
+    public static AppointmentStatusChangedEvent changed(Long appointmentId, Long doctorId, String specialization,
+                                                        AppointmentStatus previousStatus, AppointmentStatus newStatus) {
+        return new AppointmentStatusChangedEvent(appointmentId, doctorId, specialization, previousStatus, newStatus, LocalDateTime.now());
+    }
+
+    public boolean isBooking() {
+        return previousStatus == null;
+    }
+}
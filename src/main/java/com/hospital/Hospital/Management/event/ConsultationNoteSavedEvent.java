@@ -0,0 +1,20 @@
+package com.hospital.Hospital.Management.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a consultation note is written, carrying everything the note search
+ * index stores so the listener never has to read the note back.
+ */
+public record ConsultationNoteSavedEvent(
+        Long noteId,
+        Long appointmentId,
+        Long doctorId,
+        Long patientId,
+        String patientName,
+        LocalDateTime appointmentDateTime,
+        String diagnosis,
+        String prescription,
+        String treatmentDetails,
+        String remarks) {
+}
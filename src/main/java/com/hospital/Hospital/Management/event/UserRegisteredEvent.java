@@ -0,0 +1,12 @@
+package com.hospital.Hospital.Management.event;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import com.hospital.Hospital.Management.model.Role;
+
+/**
+ * Published whenever a user account is created, whether by self-registration or by an admin.
+ */
+public record UserRegisteredEvent(Long userId, Set<Role> roles, LocalDateTime occurredAt) {
+}
@@ -0,0 +1,10 @@
+package com.hospital.Hospital.Management.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a user's status version is bumped, so tokens issued under the previous
+ * version are rejected on this node straight after the change commits.
+ */
+public record UserStatusChangedEvent(Long userId, long statusVersion, LocalDateTime occurredAt) {
+}
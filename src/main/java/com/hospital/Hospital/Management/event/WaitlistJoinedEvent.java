@@ -0,0 +1,10 @@
+package com.hospital.Hospital.Management.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a patient joins a doctor's waitlist.
+ */
+public record WaitlistJoinedEvent(Long waitlistEntryId, Long doctorId, String doctorSpecialization,
+                                  LocalDateTime occurredAt) {
+}
@@ -0,0 +1,8 @@
+package com.hospital.Hospital.Management.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
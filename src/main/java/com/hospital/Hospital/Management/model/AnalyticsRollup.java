@@ -0,0 +1,72 @@
+package com.hospital.Hospital.Management.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Pre-aggregated activity counts for one doctor in one hourly or daily bucket.
+ * Metrics that do not belong to a doctor, such as registrations, use doctor id 0.
+ */
+@Entity
+@Table(name = "analytics_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_bucket_doctor",
+                columnNames = {"granularity", "bucket_start", "doctor_id"}),
+        indexes = {
+                @Index(name = "idx_rollup_doctor_bucket", columnList = "doctor_id, granularity, bucket_start"),
+                @Index(name = "idx_rollup_specialization_bucket", columnList = "specialization, granularity, bucket_start")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsRollup {
+
+    public static final long NO_DOCTOR = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(length = 100)
+    private String specialization;
+
+    private long bookings;
+
+    private long cancelledByPatient;
+
+    private long cancelledByDoctor;
+
+    private long completions;
+
+    private long noShows;
+
+    private long waitlistJoins;
+
+    private long registrations;
+}
@@ -10,8 +10,8 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -20,8 +20,16 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * A consultation note's header row. The note text lives compressed in
+ * {@link ConsultationNoteBody} and is only read when a caller needs the full note;
+ * list views use {@code summary}.
+ */
 @Entity
-@Table(name = "consultation_notes")
+@Table(name = "consultation_notes", indexes = {
+        // Each node's search index polls for notes created since its last sync.
+        @Index(name = "idx_consultation_notes_created_at", columnList = "created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,6 +37,8 @@ import lombok.Setter;
 @Builder
 public class ConsultationNote {
 
+    public static final int SUMMARY_LENGTH = 255;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -37,20 +47,9 @@ public class ConsultationNote {
     @JoinColumn(name = "appointment_id", nullable = false, unique = true)
     private Appointment appointment;
 
-    @Lob 
-    @Column(nullable = false)
-    private String diagnosis;
-
-    @Lob
-    @Column(nullable = false)
-    private String prescription;
-
-    @Lob
-    private String treatmentDetails;
-
-    @Lob
-    private String remarks;
+    @Column(length = SUMMARY_LENGTH)
+    private String summary;
 
     @CreationTimestamp
     private LocalDateTime createdAt;
-}
\ No newline at end of file
+}
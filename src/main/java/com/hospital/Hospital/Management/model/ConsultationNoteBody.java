@@ -0,0 +1,50 @@
+package com.hospital.Hospital.Management.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The text of a consultation note, deflated with the preset dictionary
+ * {@code dictionaryId} (0 for none). Kept apart from {@link ConsultationNote} so loading
+ * a note, or joining to it, never pulls the text in.
+ */
+@Entity
+@Table(name = "consultation_note_bodies")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConsultationNoteBody {
+
+    @Id
+    @Column(name = "note_id")
+    private Long noteId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "note_id")
+    private ConsultationNote note;
+
+    @Column(name = "dictionary_id", nullable = false)
+    private int dictionaryId;
+
+    @Column(name = "raw_length", nullable = false)
+    private int rawLength;
+
+    @Lob
+    @Column(nullable = false, length = 16_777_215)
+    private byte[] content;
+}
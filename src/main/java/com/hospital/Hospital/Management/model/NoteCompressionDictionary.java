@@ -0,0 +1,47 @@
+package com.hospital.Hospital.Management.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A preset deflate dictionary trained on a sample of consultation notes. Dictionaries
+ * are never changed or deleted, since every note body records the one it was written with.
+ */
+@Entity
+@Table(name = "note_compression_dictionaries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NoteCompressionDictionary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Lob
+    @Column(nullable = false, length = 65_535)
+    private byte[] content;
+
+    @Column(name = "sample_size", nullable = false)
+    private int sampleSize;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
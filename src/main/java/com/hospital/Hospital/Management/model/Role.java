@@ -1,8 +1,71 @@
 package com.hospital.Hospital.Management.model;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
+/**
+ * User roles. Each role owns one bit of the {@code users.role_mask} column, so the bit
+ * values are part of the stored data and must never be changed or reused.
+ */
 public enum Role {
-    ROLE_ADMIN,
-    ROLE_DOCTOR,
-    ROLE_PATIENT
+    ROLE_ADMIN(1),
+    ROLE_DOCTOR(1 << 1),
+    ROLE_PATIENT(1 << 2);
+
+    private static final int ALL_BITS = allBits();
+
+    private final int bit;
+
+    Role(int bit) {
+        this.bit = bit;
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    public static int toMask(Collection<Role> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (Role role : roles) {
+                mask |= role.bit;
+            }
+        }
+        return mask;
+    }
+
+    public static Set<Role> fromMask(int mask) {
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : values()) {
+            if ((mask & role.bit) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * Every role set that contains {@code role}. Role queries match {@code role_mask}
+     * against this short list so the column index can be used.
+     */
+    public static List<Set<Role>> setsContaining(Role role) {
+        List<Set<Role>> sets = new ArrayList<>();
+        for (int mask = 0; mask <= ALL_BITS; mask++) {
+            if ((mask & role.bit) != 0) {
+                sets.add(fromMask(mask));
+            }
+        }
+        return sets;
+    }
+
+    private static int allBits() {
+        int mask = 0;
+        for (Role role : values()) {
+            mask |= role.bit;
+        }
+        return mask;
+    }
 }
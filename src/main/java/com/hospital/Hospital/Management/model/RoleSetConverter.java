@@ -0,0 +1,23 @@
+package com.hospital.Hospital.Management.model;
+
+import java.util.Set;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a user's roles as a single bitmask column.
+ */
+@Converter
+public class RoleSetConverter implements AttributeConverter<Set<Role>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(Set<Role> roles) {
+        return Role.toMask(roles);
+    }
+
+    @Override
+    public Set<Role> convertToEntityAttribute(Integer mask) {
+        return Role.fromMask(mask != null ? mask : 0);
+    }
+}
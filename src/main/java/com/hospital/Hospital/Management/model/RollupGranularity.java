@@ -0,0 +1,13 @@
+package com.hospital.Hospital.Management.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    HOURLY,
+    DAILY;
+
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return this == HOURLY ? time.truncatedTo(ChronoUnit.HOURS) : time.truncatedTo(ChronoUnit.DAYS);
+    }
+}
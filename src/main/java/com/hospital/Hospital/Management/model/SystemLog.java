@@ -7,7 +7,11 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "system_logs")
+@Table(name = "system_logs", indexes = {
+        @Index(name = "idx_system_logs_timestamp", columnList = "timestamp, id"),
+        @Index(name = "idx_system_logs_action_timestamp", columnList = "action, timestamp"),
+        @Index(name = "idx_system_logs_user_timestamp", columnList = "user_id, timestamp")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,4 +39,7 @@ public class SystemLog {
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime timestamp;
+
+    // Set when the row is re-inserted from the audit archive; the archiver leaves it alone for a while.
+    private LocalDateTime restoredAt;
 }
\ No newline at end of file
@@ -10,17 +10,14 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.CascadeType;
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -30,7 +27,11 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_at", columnList = "created_at"),
+        @Index(name = "idx_users_full_name", columnList = "full_name"),
+        @Index(name = "idx_users_role_mask", columnList = "role_mask")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -55,9 +56,8 @@ public class User {
 
     private String address;
 
-    @Enumerated(EnumType.STRING)
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
+    @Convert(converter = RoleSetConverter.class)
+    @Column(name = "role_mask", nullable = false)
     @Builder.Default
     private Set<Role> roles = new HashSet<>();
 
@@ -73,6 +73,15 @@ public class User {
     @Builder.Default
     private boolean credentialsNonExpired = true;
 
+    /**
+     * Bumped whenever the account's standing changes (blocked, unblocked, email or password
+     * reset). Access tokens carry the version they were issued under and stop working once
+     * it moves on.
+     */
+    @Column(name = "status_version", nullable = false)
+    @Builder.Default
+    private long statusVersion = 0;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -98,4 +107,8 @@ public class User {
             fetch = FetchType.LAZY
     )
     private List<DoctorAvailability> availabilities;
-}
\ No newline at end of file
+
+    public void bumpStatusVersion() {
+        statusVersion++;
+    }
+}
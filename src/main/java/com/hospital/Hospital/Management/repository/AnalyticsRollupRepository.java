@@ -0,0 +1,38 @@
+package com.hospital.Hospital.Management.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.hospital.Hospital.Management.dto.TrendPointDto;
+import com.hospital.Hospital.Management.model.AnalyticsRollup;
+import com.hospital.Hospital.Management.model.RollupGranularity;
+
+@Repository
+public interface AnalyticsRollupRepository extends JpaRepository<AnalyticsRollup, Long> {
+
+    @Query("SELECT new com.hospital.Hospital.Management.dto.TrendPointDto(r.bucketStart, " +
+            "SUM(r.bookings), SUM(r.cancelledByPatient), SUM(r.cancelledByDoctor), SUM(r.completions), " +
+            "SUM(r.noShows), SUM(r.waitlistJoins), SUM(r.registrations)) " +
+            "FROM AnalyticsRollup r " +
+            "WHERE r.granularity = :granularity " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "AND (:doctorId IS NULL OR r.doctorId = :doctorId) " +
+            "AND (:specialization IS NULL OR r.specialization = :specialization) " +
+            "GROUP BY r.bucketStart " +
+            "ORDER BY r.bucketStart")
+    List<TrendPointDto> findTrend(@Param("granularity") RollupGranularity granularity,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to,
+                                  @Param("doctorId") Long doctorId,
+                                  @Param("specialization") String specialization);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteByBucketStartRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
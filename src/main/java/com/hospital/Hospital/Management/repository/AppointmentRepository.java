@@ -1,15 +1,22 @@
 package com.hospital.Hospital.Management.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.hospital.Hospital.Management.dto.AppointmentHistoryDto;
+import com.hospital.Hospital.Management.dto.AppointmentResponseDto;
+import com.hospital.Hospital.Management.dto.RollupBucketCountDto;
+import com.hospital.Hospital.Management.dto.StatusCountDto;
+import com.hospital.Hospital.Management.dto.UpcomingAppointmentDto;
 import com.hospital.Hospital.Management.model.Appointment;
 import com.hospital.Hospital.Management.model.AppointmentStatus;
 import com.hospital.Hospital.Management.model.User;
@@ -21,14 +28,72 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>,
 
     List<Appointment> findByPatient(User patient);
 
+    /**
+     * A patient's appointments with the doctor's name, newest first, selected straight into
+     * the response DTO. Null date filters are ignored; {@code afterDateTime}/{@code afterId}
+     * is the keyset position of the last row already returned.
+     */
+    @Query("SELECT new com.hospital.Hospital.Management.dto.AppointmentResponseDto(a.id, p.id, p.fullName, " +
+            "d.id, d.fullName, a.appointmentDateTime, a.status, a.createdAt) " +
+            "FROM Appointment a JOIN a.patient p JOIN a.doctor d " +
+            "WHERE p.id = :patientId AND a.status IN :statuses " +
+            "AND (:from IS NULL OR a.appointmentDateTime >= :from) " +
+            "AND (:to IS NULL OR a.appointmentDateTime < :to) " +
+            "AND (:afterDateTime IS NULL OR a.appointmentDateTime < :afterDateTime " +
+            "OR (a.appointmentDateTime = :afterDateTime AND a.id < :afterId)) " +
+            "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentResponseDto> findPatientAppointments(@Param("patientId") Long patientId,
+                                                         @Param("statuses") Collection<AppointmentStatus> statuses,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to,
+                                                         @Param("afterDateTime") LocalDateTime afterDateTime,
+                                                         @Param("afterId") Long afterId,
+                                                         Limit limit);
+
     Optional<Appointment> findByDoctorAndAppointmentDateTime(User doctor, LocalDateTime appointmentDateTime);
 
     List<Appointment> findByDoctorAndStatusIn(User doctor, List<AppointmentStatus> statuses);
 
     List<Appointment> findByDoctorAndPatientAndStatus(User doctor, User patient, AppointmentStatus status);
 
+    /**
+     * Completed appointments of a doctor with patient names and note summaries, newest
+     * first, in one statement. Null filters are ignored; {@code afterDateTime}/{@code afterId}
+     * is the keyset position of the last row already returned.
+     */
+    @Query("SELECT new com.hospital.Hospital.Management.dto.AppointmentHistoryDto(a.id, d.id, d.fullName, " +
+            "p.id, p.fullName, a.appointmentDateTime, n.id, n.summary) " +
+            "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+            "LEFT JOIN ConsultationNote n ON n.appointment = a " +
+            "WHERE d.id = :doctorId AND a.status = :status " +
+            "AND (:patientId IS NULL OR p.id = :patientId) " +
+            "AND (:from IS NULL OR a.appointmentDateTime >= :from) " +
+            "AND (:to IS NULL OR a.appointmentDateTime < :to) " +
+            "AND (:afterDateTime IS NULL OR a.appointmentDateTime < :afterDateTime " +
+            "OR (a.appointmentDateTime = :afterDateTime AND a.id < :afterId)) " +
+            "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentHistoryDto> findHistory(@Param("doctorId") Long doctorId,
+                                            @Param("status") AppointmentStatus status,
+                                            @Param("patientId") Long patientId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("afterDateTime") LocalDateTime afterDateTime,
+                                            @Param("afterId") Long afterId,
+                                            Limit limit);
+
     Optional<Appointment> findByIdAndDoctorId(Long appointmentId, Long doctorId);
 
+    @Query("SELECT new com.hospital.Hospital.Management.dto.UpcomingAppointmentDto(a.id, p.fullName, " +
+            "a.appointmentDateTime, a.status) " +
+            "FROM Appointment a JOIN a.patient p " +
+            "WHERE a.doctor.id = :doctorId AND a.status IN :statuses " +
+            "AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to " +
+            "ORDER BY a.appointmentDateTime, a.id")
+    List<UpcomingAppointmentDto> findCalendarAppointments(@Param("doctorId") Long doctorId,
+                                                          @Param("statuses") Collection<AppointmentStatus> statuses,
+                                                          @Param("from") LocalDateTime from,
+                                                          @Param("to") LocalDateTime to);
+
     @Query("SELECT CASE WHEN COUNT(a) > 0 THEN TRUE ELSE FALSE END " +
             "FROM Appointment a " +
             "WHERE a.patient = :patient " +
@@ -54,4 +119,27 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>,
     
 
     List<Appointment> findByPatientAndDoctor(User patient, User doctor);
+
+    @Query("SELECT new com.hospital.Hospital.Management.dto.StatusCountDto(a.status, COUNT(a)) " +
+            "FROM Appointment a " +
+            "GROUP BY a.status")
+    List<StatusCountDto> countAppointmentsByStatus();
+
+    @Query("SELECT new com.hospital.Hospital.Management.dto.RollupBucketCountDto(d.id, d.specialization, " +
+            "CAST(a.createdAt AS LocalDate), EXTRACT(HOUR FROM a.createdAt), COUNT(a)) " +
+            "FROM Appointment a JOIN a.doctor d " +
+            "WHERE a.createdAt >= :from AND a.createdAt < :to " +
+            "GROUP BY d.id, d.specialization, CAST(a.createdAt AS LocalDate), EXTRACT(HOUR FROM a.createdAt)")
+    List<RollupBucketCountDto> countBookingsByDoctorAndHour(@Param("from") LocalDateTime from,
+                                                            @Param("to") LocalDateTime to);
+
+    // Outcomes are bucketed by the last update, which is when the final status was set.
+    @Query("SELECT new com.hospital.Hospital.Management.dto.RollupBucketCountDto(d.id, d.specialization, a.status, " +
+            "CAST(a.updatedAt AS LocalDate), EXTRACT(HOUR FROM a.updatedAt), COUNT(a)) " +
+            "FROM Appointment a JOIN a.doctor d " +
+            "WHERE a.status IN :statuses AND a.updatedAt >= :from AND a.updatedAt < :to " +
+            "GROUP BY d.id, d.specialization, a.status, CAST(a.updatedAt AS LocalDate), EXTRACT(HOUR FROM a.updatedAt)")
+    List<RollupBucketCountDto> countOutcomesByDoctorAndHour(@Param("statuses") List<AppointmentStatus> statuses,
+                                                            @Param("from") LocalDateTime from,
+                                                            @Param("to") LocalDateTime to);
 }
\ No newline at end of file
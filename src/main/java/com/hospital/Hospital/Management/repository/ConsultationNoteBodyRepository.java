@@ -0,0 +1,10 @@
+package com.hospital.Hospital.Management.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.hospital.Hospital.Management.model.ConsultationNoteBody;
+
+@Repository
+public interface ConsultationNoteBodyRepository extends JpaRepository<ConsultationNoteBody, Long> {
+}
@@ -0,0 +1,14 @@
+package com.hospital.Hospital.Management.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.hospital.Hospital.Management.model.NoteCompressionDictionary;
+
+@Repository
+public interface NoteCompressionDictionaryRepository extends JpaRepository<NoteCompressionDictionary, Integer> {
+
+    Optional<NoteCompressionDictionary> findTopByOrderByIdDesc();
+}
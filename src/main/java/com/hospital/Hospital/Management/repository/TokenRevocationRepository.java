@@ -0,0 +1,34 @@
+package com.hospital.Hospital.Management.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.hospital.Hospital.Management.model.TokenRevocation;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findByExpiresAtAfter(LocalDateTime now);
+
+    List<TokenRevocation> findByCreatedAtAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+
+    /**
+     * Inserts a single-token revocation unless one for {@code jti} already exists, so two
+     * concurrent logouts of the same token do not trip the unique index. Returns 0 for a duplicate.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO token_revocations (jti, user_id, expires_at, created_at) " +
+            "VALUES (:jti, :userId, :expiresAt, :createdAt)", nativeQuery = true)
+    int insertIfAbsent(@Param("jti") String jti,
+                       @Param("userId") Long userId,
+                       @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,12 +1,65 @@
 package com.hospital.Hospital.Management.repository;
 
+import com.hospital.Hospital.Management.dto.RoleCountDto;
+import com.hospital.Hospital.Management.dto.RoleSetCountDto;
+import com.hospital.Hospital.Management.dto.RollupBucketCountDto;
+import com.hospital.Hospital.Management.model.Role;
 import com.hospital.Hospital.Management.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+
+    @Query("SELECT u.statusVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findStatusVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.hospital.Hospital.Management.dto.RoleSetCountDto(u.roles, COUNT(u)) " +
+            "FROM User u " +
+            "GROUP BY u.roles")
+    List<RoleSetCountDto> countUsersByRoleSet();
+
+    default long countByRole(Role role) {
+        return count(UserSpecifications.hasRole(role));
+    }
+
+    default boolean existsByRole(Role role) {
+        return exists(UserSpecifications.hasRole(role));
+    }
+
+    default List<User> findByRole(Role role) {
+        return findAll(UserSpecifications.hasRole(role));
+    }
+
+    default List<RoleCountDto> countUsersByRole() {
+        Map<Role, Long> counts = new EnumMap<>(Role.class);
+        for (RoleSetCountDto row : countUsersByRoleSet()) {
+            row.getRoles().forEach(role -> counts.merge(role, row.getCount(), Long::sum));
+        }
+        return counts.entrySet().stream()
+                .map(entry -> new RoleCountDto(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Query("SELECT new com.hospital.Hospital.Management.dto.RollupBucketCountDto(" +
+            "CAST(u.createdAt AS LocalDate), EXTRACT(HOUR FROM u.createdAt), COUNT(u)) " +
+            "FROM User u " +
+            "WHERE u.createdAt >= :from AND u.createdAt < :to " +
+            "GROUP BY CAST(u.createdAt AS LocalDate), EXTRACT(HOUR FROM u.createdAt)")
+    List<RollupBucketCountDto> countRegistrationsByHour(@Param("from") LocalDateTime from,
+                                                        @Param("to") LocalDateTime to);
+}
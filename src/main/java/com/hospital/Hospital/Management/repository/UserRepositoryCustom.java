@@ -0,0 +1,15 @@
+package com.hospital.Hospital.Management.repository;
+
+import java.util.List;
+
+import com.hospital.Hospital.Management.dto.AdminUserSummaryDto;
+import com.hospital.Hospital.Management.dto.UserListQuery;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Returns up to {@code query.limit} summaries after the keyset position in the query,
+     * ordered by the requested field with the id as tie-breaker.
+     */
+    List<AdminUserSummaryDto> findUserSummaries(UserListQuery query);
+}
@@ -0,0 +1,97 @@
+package com.hospital.Hospital.Management.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.hospital.Hospital.Management.dto.AdminUserSummaryDto;
+import com.hospital.Hospital.Management.dto.UserListQuery;
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AdminUserSummaryDto> findUserSummaries(UserListQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AdminUserSummaryDto> cq = cb.createQuery(AdminUserSummaryDto.class);
+        Root<User> user = cq.from(User.class);
+        Path<Long> id = user.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getRole() != null) {
+            predicates.add(user.get("roles").in(Role.setsContaining(query.getRole())));
+        }
+        if (query.getEnabled() != null) {
+            predicates.add(cb.equal(user.get("enabled"), query.getEnabled()));
+        }
+        if (query.getSearch() != null && !query.getSearch().isBlank()) {
+            String prefix = escapeLike(query.getSearch().trim()) + "%";
+            predicates.add(cb.or(
+                    cb.like(user.get("email"), prefix, '\\'),
+                    cb.like(user.get("fullName"), prefix, '\\')));
+        }
+        if (query.getAfterId() != null) {
+            predicates.add(afterPosition(cb, user, query));
+        }
+
+        Path<?> sortPath = user.get(query.getSort().getProperty());
+        cq.select(cb.construct(AdminUserSummaryDto.class,
+                        id, user.get("email"), user.get("fullName"), user.get("phoneNumber"),
+                        user.get("specialization"), user.get("location"), user.get("enabled"),
+                        user.get("accountNonLocked"), user.get("createdAt"), user.get("roles")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(query.isDescending()
+                        ? List.of(cb.desc(sortPath), cb.desc(id))
+                        : List.of(cb.asc(sortPath), cb.asc(id)));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(query.getLimit())
+                .getResultList();
+    }
+
+    private Predicate afterPosition(CriteriaBuilder cb, Root<User> user, UserListQuery query) {
+        Path<Long> id = user.get("id");
+        long afterId = query.getAfterId();
+        return switch (query.getSort()) {
+            case ID -> query.isDescending() ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId);
+            case CREATED_AT -> after(cb, user.get("createdAt"), (LocalDateTime) query.getAfterValue(),
+                    id, afterId, query.isDescending());
+            case FULL_NAME, EMAIL -> after(cb, user.get(query.getSort().getProperty()), (String) query.getAfterValue(),
+                    id, afterId, query.isDescending());
+        };
+    }
+
+    // (value, id) strictly past the cursor in the requested direction. MySQL sorts NULL
+    // before every value, so NULLs open an ascending listing and close a descending one.
+    private <C extends Comparable<? super C>> Predicate after(CriteriaBuilder cb, Path<C> path, C value,
+                                                              Path<Long> id, long afterId, boolean descending) {
+        if (value == null) {
+            Predicate laterNull = cb.and(cb.isNull(path),
+                    descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId));
+            return descending ? laterNull : cb.or(laterNull, cb.isNotNull(path));
+        }
+        if (descending) {
+            return cb.or(cb.lessThan(path, value),
+                    cb.and(cb.equal(path, value), cb.lessThan(id, afterId)),
+                    cb.isNull(path));
+        }
+        return cb.or(cb.greaterThan(path, value),
+                cb.and(cb.equal(path, value), cb.greaterThan(id, afterId)));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
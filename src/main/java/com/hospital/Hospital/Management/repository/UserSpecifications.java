@@ -0,0 +1,20 @@
+package com.hospital.Hospital.Management.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.model.User;
+
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * Users holding {@code role}: matches {@code role_mask} against every role
+     * combination that contains it, so the lookup stays on the mask index.
+     */
+    public static Specification<User> hasRole(Role role) {
+        return (root, query, criteriaBuilder) -> root.get("roles").in(Role.setsContaining(role));
+    }
+}
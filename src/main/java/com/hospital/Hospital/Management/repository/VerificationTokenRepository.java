@@ -1,9 +1,11 @@
 package com.hospital.Hospital.Management.repository;
 
 import com.hospital.Hospital.Management.model.TokenType;
-import com.hospital.Hospital.Management.model.User;
 import com.hospital.Hospital.Management.model.VerificationToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -11,5 +13,12 @@ public interface VerificationTokenRepository extends JpaRepository<VerificationT
 
     Optional<VerificationToken> findByToken(String token);
 
-    Optional<VerificationToken> findByUserAndTokenType(User user, TokenType tokenType);
+    /**
+     * Marks every unused token of the type issued to the user as used, in one statement
+     * served by the (user_id, token_type) index.
+     */
+    @Modifying
+    @Query("UPDATE VerificationToken t SET t.used = true " +
+            "WHERE t.user.id = :userId AND t.tokenType = :tokenType AND t.used = false")
+    int invalidateAllForUser(@Param("userId") Long userId, @Param("tokenType") TokenType tokenType);
 }
@@ -1,11 +1,15 @@
 package com.hospital.Hospital.Management.repository;
 
+import com.hospital.Hospital.Management.dto.RollupBucketCountDto;
 import com.hospital.Hospital.Management.model.User;
 import com.hospital.Hospital.Management.model.WaitlistEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,4 +18,12 @@ public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
     List<WaitlistEntry> findByDoctorOrderByCreatedAtAsc(User doctor);
 
     List<WaitlistEntry> findByDoctorAndPreferredDateOrderByCreatedAtAsc(User doctor, LocalDate preferredDate);
+
+    @Query("SELECT new com.hospital.Hospital.Management.dto.RollupBucketCountDto(d.id, d.specialization, " +
+            "CAST(w.createdAt AS LocalDate), EXTRACT(HOUR FROM w.createdAt), COUNT(w)) " +
+            "FROM WaitlistEntry w JOIN w.doctor d " +
+            "WHERE w.createdAt >= :from AND w.createdAt < :to " +
+            "GROUP BY d.id, d.specialization, CAST(w.createdAt AS LocalDate), EXTRACT(HOUR FROM w.createdAt)")
+    List<RollupBucketCountDto> countJoinsByDoctorAndHour(@Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to);
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.hospital.Hospital.Management.security;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.model.User;
+import com.hospital.Hospital.Management.service.JwtService;
+import com.hospital.Hospital.Management.service.ValidatedJwt;
+
+import lombok.Getter;
+
+/**
+ * Principal for an authenticated request. At login it is built from the {@link User} row;
+ * on every later request it is rebuilt from the access token's claims, so no query is
+ * needed to know who the caller is and which roles they hold.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String email;
+    private String password;
+    private final Set<Role> roles;
+    private final boolean enabled;
+    private final boolean accountNonLocked;
+    private final boolean accountNonExpired;
+    private final boolean credentialsNonExpired;
+    private final long statusVersion;
+    private final List<GrantedAuthority> authorities;
+
+    private AuthenticatedUser(Long id, String email, String password, Set<Role> roles, boolean enabled,
+                              boolean accountNonLocked, boolean accountNonExpired, boolean credentialsNonExpired,
+                              long statusVersion) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.roles = roles.isEmpty() ? Set.of() : Set.copyOf(EnumSet.copyOf(roles));
+        this.enabled = enabled;
+        this.accountNonLocked = accountNonLocked;
+        this.accountNonExpired = accountNonExpired;
+        this.credentialsNonExpired = credentialsNonExpired;
+        this.statusVersion = statusVersion;
+        this.authorities = this.roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.name()))
+                .toList();
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getRoles(),
+                user.isEnabled(), user.isAccountNonLocked(), user.isAccountNonExpired(),
+                user.isCredentialsNonExpired(), user.getStatusVersion());
+    }
+
+    /**
+     * Rebuilds the principal from a validated access token, or returns {@code null} for a
+     * token issued before user id, roles and status version were added to the claims.
+     * Tokens are only issued to enabled, unlocked accounts; a later change to either is
+     * caught by the status version check.
+     */
+    public static AuthenticatedUser fromToken(ValidatedJwt jwt) {
+        Number userId = jwt.claim(JwtService.CLAIM_USER_ID, Number.class);
+        Number statusVersion = jwt.claim(JwtService.CLAIM_STATUS_VERSION, Number.class);
+        List<?> roleNames = jwt.claim(JwtService.CLAIM_ROLES, List.class);
+        if (userId == null || statusVersion == null || roleNames == null) {
+            return null;
+        }
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        for (Object roleName : roleNames) {
+            roles.add(Role.valueOf(roleName.toString()));
+        }
+        return new AuthenticatedUser(userId.longValue(), jwt.subject(), null, roles,
+                true, true, true, true, statusVersion.longValue());
+    }
+
+    /**
+     * Copy carrying a rehashed password, after the encoding was upgraded on login.
+     */
+    public AuthenticatedUser withPassword(String newPassword) {
+        return new AuthenticatedUser(id, email, newPassword, roles, enabled, accountNonLocked,
+                accountNonExpired, credentialsNonExpired, statusVersion);
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.hospital.Hospital.Management.security;
+
+import java.util.Optional;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.hospital.Hospital.Management.model.User;
+import com.hospital.Hospital.Management.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Loads the calling user's {@link User} row at most once per HTTP request. The row is kept
+ * in a request attribute, so the controller, services and event code that all need the
+ * caller within one request share a single lookup. When the principal carries the user
+ * id, the row is loaded by primary key, which the request's persistence context can
+ * answer without a query on repeat.
+ *
+ * <p>Outside a request (scheduled jobs, tests) every call goes to the repository.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    static final String ATTRIBUTE = CurrentUserResolver.class.getName() + ".user";
+
+    private final UserRepository userRepository;
+
+    /**
+     * The user behind the current authentication.
+     */
+    public Optional<User> currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return Optional.empty();
+        }
+        return findUser(authentication.getName());
+    }
+
+    /**
+     * The user with this email, served from the request's cached row when it is the same
+     * user.
+     */
+    public Optional<User> findUser(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User cached
+                && email.equalsIgnoreCase(cached.getEmail())) {
+            return Optional.of(cached);
+        }
+        Optional<User> user = load(email);
+        if (attributes != null) {
+            user.ifPresent(found -> attributes.setAttribute(ATTRIBUTE, found, RequestAttributes.SCOPE_REQUEST));
+        }
+        return user;
+    }
+
+    private Optional<User> load(String email) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null
+                && authentication.getPrincipal() instanceof AuthenticatedUser principal
+                && email.equalsIgnoreCase(principal.getEmail())) {
+            return userRepository.findById(principal.getId());
+        }
+        return userRepository.findByEmail(email);
+    }
+}
@@ -0,0 +1,19 @@
+package com.hospital.Hospital.Management.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+
+/**
+ * Restricts a handler to the user whose id is the method's {@code id} parameter.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@PreAuthorize("@ownershipGuard.isSelf(authentication, #id)")
+public @interface IsSelf {
+}
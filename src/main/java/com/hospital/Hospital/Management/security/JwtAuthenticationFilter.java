@@ -1,12 +1,14 @@
 package com.hospital.Hospital.Management.security;
 
 import com.hospital.Hospital.Management.service.JwtService;
+import com.hospital.Hospital.Management.service.TokenRevocationService;
+import com.hospital.Hospital.Management.service.ValidatedJwt;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,11 +21,25 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserStatusVersionCache userStatusVersionCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean stateless;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   UserStatusVersionCache userStatusVersionCache,
+                                   TokenRevocationService tokenRevocationService,
+                                   @Value("${app.auth.stateless:true}") boolean stateless) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.userStatusVersionCache = userStatusVersionCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.stateless = stateless;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -39,21 +55,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         try {
-            final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            // One signature check per request; the subject and expiry come from the validated claims.
+            final ValidatedJwt jwt = jwtService.validate(authHeader.substring(7));
+            if (jwtService.isRefreshToken(jwt)) {
+                throw new JwtException("Refresh tokens cannot be used to authenticate requests");
+            }
+            if (tokenRevocationService.isRevoked(jwt)) {
+                throw new JwtException("Token has been revoked");
+            }
+            final String userEmail = jwt.subject();
             
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-                
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                UserDetails userDetails = resolvePrincipal(jwt);
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
             
             filterChain.doFilter(request, response);
@@ -62,4 +82,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             response.getWriter().write("Invalid JWT token: " + e.getMessage());
         }
     }
+
+    /**
+     * In stateless mode the principal comes from the token's claims and the only check is
+     * that the account's status version has not moved since the token was issued. Tokens
+     * without those claims, or stateless mode switched off, fall back to loading the user.
+     */
+    private UserDetails resolvePrincipal(ValidatedJwt jwt) {
+        AuthenticatedUser fromToken = stateless ? AuthenticatedUser.fromToken(jwt) : null;
+        if (fromToken != null) {
+            if (!userStatusVersionCache.isCurrent(fromToken.getId(), fromToken.getStatusVersion())) {
+                throw new JwtException("Token is no longer valid for this account");
+            }
+            return fromToken;
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(jwt.subject());
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            throw new JwtException("Token is no longer valid for this account");
+        }
+        return userDetails;
+    }
 }
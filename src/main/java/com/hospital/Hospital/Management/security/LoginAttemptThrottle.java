@@ -0,0 +1,259 @@
+package com.hospital.Hospital.Management.security;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.hospital.Hospital.Management.exception.LoginThrottledException;
+import com.hospital.Hospital.Management.service.AuditDurability;
+import com.hospital.Hospital.Management.service.LogService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Failed-login counters per email and per client IP, checked before the password is
+ * hashed. Each key keeps a sliding-window estimate (the previous fixed window weighted by
+ * how much of it still overlaps, plus the current one), so old failures decay instead of
+ * expiring all at once. Crossing the threshold blocks the key for a backoff that doubles
+ * with every further lockout while failures keep coming.
+ *
+ * <p>Keys are spread over striped, access-ordered maps with a per-stripe size cap, so a
+ * spray of random emails evicts the least recently seen keys instead of growing memory.
+ */
+@Component
+@Slf4j
+public class LoginAttemptThrottle {
+
+    private final boolean enabled;
+    private final CounterTable emails;
+    private final CounterTable addresses;
+    private final long windowNanos;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final LogService logService;
+    private final TransactionTemplate auditTransaction;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public LoginAttemptThrottle(LogService logService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.auth.login-throttle.enabled:true}") boolean enabled,
+                                @Value("${app.auth.login-throttle.email-max-failures:5}") int emailMaxFailures,
+                                @Value("${app.auth.login-throttle.ip-max-failures:50}") int ipMaxFailures,
+                                @Value("${app.auth.login-throttle.window-ms:900000}") long windowMillis,
+                                @Value("${app.auth.login-throttle.base-backoff-ms:30000}") long baseBackoffMillis,
+                                @Value("${app.auth.login-throttle.max-backoff-ms:900000}") long maxBackoffMillis,
+                                @Value("${app.auth.login-throttle.stripes:64}") int stripes,
+                                @Value("${app.auth.login-throttle.max-entries:100000}") int maxEntries) {
+        this(logService, transactionManager, enabled, emailMaxFailures, ipMaxFailures, windowMillis, baseBackoffMillis,
+                maxBackoffMillis, stripes, maxEntries, System::nanoTime);
+    }
+
+    LoginAttemptThrottle(LogService logService, PlatformTransactionManager transactionManager,
+                         boolean enabled, int emailMaxFailures, int ipMaxFailures,
+                         long windowMillis, long baseBackoffMillis, long maxBackoffMillis,
+                         int stripes, int maxEntries, LongSupplier nanoTime) {
+        this.logService = logService;
+        // The login's transaction rolls back with the rejected attempt, taking any audit
+        // deferred to its commit along; the lockout is recorded in a transaction of its own.
+        this.auditTransaction = new TransactionTemplate(transactionManager);
+        this.auditTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.emails = new CounterTable(emailMaxFailures, stripes, maxEntries);
+        this.addresses = new CounterTable(ipMaxFailures, stripes, maxEntries);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.baseBackoffNanos = TimeUnit.MILLISECONDS.toNanos(baseBackoffMillis);
+        this.maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(maxBackoffMillis);
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @throws LoginThrottledException if the email or the client address is blocked
+     */
+    public void checkAllowed(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        long remaining = Math.max(emails.blockedFor(normalize(email), now), addresses.blockedFor(clientIp, now));
+        if (remaining > 0) {
+            // Not audited per request: the lockout itself was, and attack traffic must stay cheap.
+            throw new LoginThrottledException("Too many failed login attempts. Please try again later.",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        String key = normalize(email);
+        long emailBackoff = emails.recordFailure(key, now);
+        long addressBackoff = addresses.recordFailure(clientIp, now);
+        if (emailBackoff > 0) {
+            auditLockout("email " + key, emailBackoff, clientIp);
+        }
+        if (addressBackoff > 0) {
+            auditLockout("address " + clientIp, addressBackoff, clientIp);
+        }
+    }
+
+    /**
+     * Clears the email's history. The address keeps its count, since one address can
+     * front many users and a single valid login proves little about the rest.
+     */
+    public void recordSuccess(String email) {
+        if (enabled) {
+            emails.remove(normalize(email));
+        }
+    }
+
+    /**
+     * Address of the current HTTP request, or {@code null} outside one. Behind a trusted
+     * proxy this is the client address from {@code X-Forwarded-For}, as resolved by the
+     * server's forwarded-header handling ({@code server.forward-headers-strategy}).
+     */
+    public static String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    private void auditLockout(String subject, long backoffNanos, String clientIp) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(backoffNanos);
+        log.warn("Login throttled for {} for {} s after repeated failures.", subject, seconds);
+        auditTransaction.executeWithoutResult(status -> logService.logSystemActivity("LOGIN_THROTTLED",
+                "Login blocked for " + subject + " for " + seconds + " seconds after repeated failures.", clientIp,
+                AuditDurability.SYNC));
+    }
+
+    private static String normalize(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private final class CounterTable {
+        private final int maxFailures;
+        private final Stripe[] stripes;
+
+        CounterTable(int maxFailures, int stripeCount, int maxEntries) {
+            this.maxFailures = maxFailures;
+            int count = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+            this.stripes = new Stripe[count];
+            int perStripe = Math.max(1, maxEntries / count);
+            for (int i = 0; i < count; i++) {
+                stripes[i] = new Stripe(perStripe);
+            }
+        }
+
+        long blockedFor(String key, long now) {
+            if (key == null) {
+                return 0;
+            }
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                Window window = stripe.get(key);
+                return window != null ? Math.max(0, window.blockedUntil - now) : 0;
+            }
+        }
+
+        /**
+         * Counts a failure and returns the new backoff if this failure started a lockout,
+         * otherwise 0.
+         */
+        long recordFailure(String key, long now) {
+            if (key == null || maxFailures <= 0) {
+                return 0;
+            }
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                Window window = stripe.computeIfAbsent(key, ignored -> new Window(now));
+                window.advance(now);
+                window.current++;
+                if (window.blockedUntil - now > 0 || window.estimate(now) < maxFailures) {
+                    return 0;
+                }
+                long backoff = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(window.lockouts, 30));
+                window.lockouts++;
+                window.blockedUntil = now + backoff;
+                return backoff;
+            }
+        }
+
+        void remove(String key) {
+            if (key == null) {
+                return;
+            }
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                stripe.remove(key);
+            }
+        }
+
+        private Stripe stripeFor(String key) {
+            int hash = key.hashCode();
+            return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+        }
+    }
+
+    private final class Window {
+        private long windowStart;
+        private int previous;
+        private int current;
+        private int lockouts;
+        private long blockedUntil;
+
+        Window(long now) {
+            this.windowStart = now;
+            this.blockedUntil = now;
+        }
+
+        void advance(long now) {
+            long elapsed = now - windowStart;
+            if (elapsed >= 2 * windowNanos) {
+                previous = 0;
+                current = 0;
+                windowStart = now;
+                // A full quiet window forgives earlier lockouts, so the backoff starts over.
+                lockouts = 0;
+            } else if (elapsed >= windowNanos) {
+                previous = current;
+                current = 0;
+                windowStart += windowNanos;
+            }
+        }
+
+        double estimate(long now) {
+            double overlap = 1.0 - (double) (now - windowStart) / windowNanos;
+            return previous * Math.max(0, overlap) + current;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Window> {
+        private final int maxEntries;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.hospital.Hospital.Management.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ownership checks for method security, answered from the principal alone. The
+ * {@link AuthenticatedUser} already carries the caller's user id, so comparing it with a
+ * path id is a field comparison rather than a user lookup.
+ */
+@Component("ownershipGuard")
+public class OwnershipGuard {
+
+    public boolean isSelf(Authentication authentication, Long userId) {
+        return userId != null
+                && authentication != null
+                && authentication.getPrincipal() instanceof AuthenticatedUser principal
+                && userId.equals(principal.getId());
+    }
+}
@@ -0,0 +1,132 @@
+package com.hospital.Hospital.Management.security;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.hospital.Hospital.Management.exception.PasswordHashingBusyException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * BCrypt on a dedicated bounded pool instead of the calling request thread. When the
+ * pool's queue is full, hashing fails fast with {@link PasswordHashingBusyException}
+ * (HTTP 429) rather than letting login bursts occupy every Tomcat worker. Hashes with a
+ * cost below the configured strength report {@link #upgradeEncoding}, so they are
+ * rehashed on the user's next successful login. Higher costs are left alone: nodes that
+ * calibrate to different strengths would otherwise rehash each other's hashes forever.
+ */
+@Slf4j
+public class PooledBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final BCryptPasswordEncoder delegate;
+    private final Executor executor;
+    private final int strength;
+    private final Map<Integer, BCryptPasswordEncoder> encodersByStrength = new ConcurrentHashMap<>();
+
+    public PooledBCryptPasswordEncoder(int strength, Executor executor) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.executor = executor;
+        this.strength = strength;
+    }
+
+    /**
+     * Picks the highest cost in {@code [minStrength, maxStrength]} whose hash still takes
+     * no longer than {@code targetMillis} on this machine. Each step doubles the work, so
+     * the search stops at the first cost over target.
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        // Warm up so the first measurement is not dominated by class loading and JIT.
+        new BCryptPasswordEncoder(4).encode(CALIBRATION_PASSWORD);
+        int chosen = minStrength;
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(cost).encode(CALIBRATION_PASSWORD);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (elapsedMillis > targetMillis) {
+                break;
+            }
+            chosen = cost;
+        }
+        return chosen;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(encodeAsync(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(submit(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    /**
+     * Hashes on the pool without blocking the caller, for bulk work that fans out many
+     * hashes at once.
+     *
+     * @throws PasswordHashingBusyException if the pool's queue is full
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Same as {@link #encodeAsync(CharSequence)} at an explicit cost. A hash at a lower
+     * cost than the configured one is rehashed on the user's first login.
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword, int strength) {
+        BCryptPasswordEncoder encoder = strength == this.strength
+                ? delegate
+                : encodersByStrength.computeIfAbsent(strength, BCryptPasswordEncoder::new);
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing pool is saturated; rejecting request.");
+            throw new PasswordHashingBusyException("The server is busy. Please try again shortly.");
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
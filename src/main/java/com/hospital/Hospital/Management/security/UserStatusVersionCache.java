@@ -0,0 +1,74 @@
+package com.hospital.Hospital.Management.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hospital.Hospital.Management.event.UserStatusChangedEvent;
+import com.hospital.Hospital.Management.repository.UserRepository;
+
+/**
+ * Short-lived local copy of each user's status version. A token is accepted only while
+ * its {@code sv} claim matches; after a block on another node this node notices within
+ * one TTL, and on the node that made the change immediately.
+ */
+@Component
+public class UserStatusVersionCache {
+
+    private static final long MISSING = -1;
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoTime;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserStatusVersionCache(UserRepository userRepository,
+                                  @Value("${app.auth.status-cache-ttl-ms:5000}") long ttlMillis,
+                                  @Value("${app.auth.status-cache-max-entries:50000}") int maxEntries) {
+        this(userRepository, ttlMillis, maxEntries, System::nanoTime);
+    }
+
+    UserStatusVersionCache(UserRepository userRepository, long ttlMillis, int maxEntries, LongSupplier nanoTime) {
+        this.userRepository = userRepository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxEntries = maxEntries;
+        this.nanoTime = nanoTime;
+    }
+
+    public boolean isCurrent(long userId, long tokenStatusVersion) {
+        long now = nanoTime.getAsLong();
+        Entry entry = entries.get(userId);
+        if (entry == null || now - entry.loadedAt() >= ttlNanos) {
+            long version = userRepository.findStatusVersionById(userId).orElse(MISSING);
+            entry = new Entry(version, now);
+            if (entries.size() >= maxEntries) {
+                evict(now);
+            }
+            entries.put(userId, entry);
+        }
+        return entry.version() != MISSING && entry.version() == tokenStatusVersion;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(UserStatusChangedEvent event) {
+        entries.put(event.userId(), new Entry(event.statusVersion(), nanoTime.getAsLong()));
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> now - entry.loadedAt() >= ttlNanos);
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+
+    private record Entry(long version, long loadedAt) {
+    }
+}
@@ -1,22 +1,27 @@
 package com.hospital.Hospital.Management.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.hospital.Hospital.Management.dto.AdminUserSummaryDto;
 import com.hospital.Hospital.Management.dto.AnnouncementRequestDto;
 import com.hospital.Hospital.Management.dto.DashboardAnalyticsDto;
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
 import com.hospital.Hospital.Management.dto.RegisterRequest;
+import com.hospital.Hospital.Management.dto.UserListQuery;
+import com.hospital.Hospital.Management.event.UserRegisteredEvent;
+import com.hospital.Hospital.Management.event.UserStatusChangedEvent;
 import com.hospital.Hospital.Management.exception.UserAlreadyExistsException;
-import com.hospital.Hospital.Management.model.Appointment;
-import com.hospital.Hospital.Management.model.AppointmentStatus;
 import com.hospital.Hospital.Management.model.Role;
 import com.hospital.Hospital.Management.model.User;
-import com.hospital.Hospital.Management.repository.AppointmentRepository;
 import com.hospital.Hospital.Management.repository.UserRepository;
+import com.hospital.Hospital.Management.security.CurrentUserResolver;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -27,11 +32,16 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AdminDashboardService {
 
+    static final int MAX_PAGE_SIZE = 200;
+
     private final UserRepository userRepository;
     private final LogService logService;
-    private final AppointmentRepository appointmentRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final DashboardAnalyticsService dashboardAnalyticsService;
+    private final LiveAnalyticsCounters liveAnalyticsCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUserResolver currentUserResolver;
 
     @Transactional
     public User blockUser(Long userId, UserDetails adminDetails) {
@@ -39,10 +49,12 @@ public class AdminDashboardService {
         User userToBlock = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
         userToBlock.setAccountNonLocked(false);
+        userToBlock.bumpStatusVersion();
         User updatedUser = userRepository.save(userToBlock);
-        User adminUser = userRepository.findByEmail(adminDetails.getUsername()).orElse(null);
+        eventPublisher.publishEvent(new UserStatusChangedEvent(updatedUser.getId(), updatedUser.getStatusVersion(), LocalDateTime.now()));
+        User adminUser = currentUserResolver.findUser(adminDetails.getUsername()).orElse(null);
         String details = String.format("User '%s' (ID: %d) was BLOCKED.", updatedUser.getEmail(), updatedUser.getId());
-        logService.logActivity(adminUser, "USER_BLOCKED", details);
+        logService.logActivity(adminUser, "USER_BLOCKED", details, AuditDurability.SYNC);
         log.info("Successfully blocked user with ID: {}", userId);
         return updatedUser;
     }
@@ -53,10 +65,12 @@ public class AdminDashboardService {
         User userToUnblock = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
         userToUnblock.setAccountNonLocked(true);
+        userToUnblock.bumpStatusVersion();
         User updatedUser = userRepository.save(userToUnblock);
-        User adminUser = userRepository.findByEmail(adminDetails.getUsername()).orElse(null);
+        eventPublisher.publishEvent(new UserStatusChangedEvent(updatedUser.getId(), updatedUser.getStatusVersion(), LocalDateTime.now()));
+        User adminUser = currentUserResolver.findUser(adminDetails.getUsername()).orElse(null);
         String details = String.format("User '%s' (ID: %d) was UNBLOCKED.", updatedUser.getEmail(), updatedUser.getId());
-        logService.logActivity(adminUser, "USER_UNBLOCKED", details);
+        logService.logActivity(adminUser, "USER_UNBLOCKED", details, AuditDurability.SYNC);
         log.info("Successfully unblocked user with ID: {}", userId);
         return updatedUser;
     }
@@ -75,35 +89,39 @@ public class AdminDashboardService {
                 .enabled(true)
                 .build();
         User savedUser = userRepository.save(newUser);
-        User adminUser = userRepository.findByEmail(adminDetails.getUsername()).orElse(null);
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedUser.getId(), savedUser.getRoles(), LocalDateTime.now()));
+        User adminUser = currentUserResolver.findUser(adminDetails.getUsername()).orElse(null);
         String logDetails = String.format("Admin created new user '%s' (ID: %d) with role %s.",
                 savedUser.getEmail(), savedUser.getId());
-        logService.logActivity(adminUser, "USER_CREATED_BY_ADMIN", logDetails);
+        logService.logActivity(adminUser, "USER_CREATED_BY_ADMIN", logDetails, AuditDurability.SYNC);
         return savedUser;
     }
 
+    /**
+     * Returns one keyset page of user summaries. Filtering, ordering and the page window
+     * are applied by the database.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageDto<AdminUserSummaryDto> listUsers(UserListQuery query, int size, String cursor) {
+        KeysetPageRequest paging = KeysetPageRequest.of(cursorScope(query), size, MAX_PAGE_SIZE, cursor);
+        if (paging.after() != null) {
+            query.setAfterValue(query.getSort() == UserListQuery.SortField.CREATED_AT
+                    ? paging.after().dateTimeValue()
+                    : paging.after().value());
+            query.setAfterId(paging.afterId());
+        }
+        query.setLimit(paging.fetchSize());
+
+        List<AdminUserSummaryDto> rows = userRepository.findUserSummaries(query);
+        return paging.toPage(rows, row -> sortValue(query, row), AdminUserSummaryDto::getId);
+    }
+
     public DashboardAnalyticsDto getDashboardAnalytics() {
         log.info("Fetching dashboard analytics data.");
-        List<User> allUsers = userRepository.findAll();
-        List<Appointment> allAppointments = appointmentRepository.findAll();
-        long totalUsers = allUsers.size();
-        long totalDoctors = allUsers.stream().filter(user -> user.getRoles().contains(Role.ROLE_DOCTOR)).count();
-        long totalPatients = allUsers.stream().filter(user -> user.getRoles().contains(Role.ROLE_PATIENT)).count();
-        long totalAppointmentsCount = allAppointments.size();
-        long scheduledAppointments = allAppointments.stream().filter(a -> a.getStatus() == AppointmentStatus.SCHEDULED).count();
-        long completedAppointments = allAppointments.stream().filter(a -> a.getStatus() == AppointmentStatus.COMPLETED).count();
-        long canceledAppointments = allAppointments.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.CANCELLED_BY_DOCTOR || a.getStatus() == AppointmentStatus.CANCELLED_BY_PATIENT)
-                .count();
-        return DashboardAnalyticsDto.builder()
-                .totalUsers(totalUsers)
-                .totalDoctors(totalDoctors)
-                .totalPatients(totalPatients)
-                .totalAppointments(totalAppointmentsCount)
-                .scheduledAppointments(scheduledAppointments)
-                .completedAppointments(completedAppointments)
-                .canceledAppointments(canceledAppointments)
-                .build();
+        if (liveAnalyticsCounters.isSeeded()) {
+            return liveAnalyticsCounters.snapshot();
+        }
+        return dashboardAnalyticsService.getAnalytics();
     }
 
     public void sendSystemAnnouncement(AnnouncementRequestDto announcement, UserDetails adminDetails) {
@@ -119,7 +137,7 @@ public class AdminDashboardService {
                 log.error("Failed to send announcement to {}: {}", user.getEmail(), e.getMessage());
             }
         }
-        User adminUser = userRepository.findByEmail(adminDetails.getUsername()).orElse(null);
+        User adminUser = currentUserResolver.findUser(adminDetails.getUsername()).orElse(null);
         String logDetails = String.format("Sent announcement with subject: '%s' to %d users.",
                 announcement.getSubject(), usersToSend.size());
         logService.logActivity(adminUser, "SYSTEM_ANNOUNCEMENT_SENT", logDetails);
@@ -129,6 +147,20 @@ public class AdminDashboardService {
 
   
 
+    private static Object sortValue(UserListQuery query, AdminUserSummaryDto row) {
+        return switch (query.getSort()) {
+            case ID -> row.getId();
+            case CREATED_AT -> row.getCreatedAt();
+            case FULL_NAME -> row.getFullName();
+            case EMAIL -> row.getEmail();
+        };
+    }
+
+    private static String cursorScope(UserListQuery query) {
+        return KeysetCursor.scope(query.getSort().name(), query.isDescending() ? "DESC" : "ASC",
+                query.getRole(), query.getEnabled(), query.getSearch());
+    }
+
     private Role mapRole(String role) {
         return switch (role.toUpperCase()) {
             case "ADMIN" -> Role.ROLE_ADMIN;
@@ -1,15 +1,18 @@
 package com.hospital.Hospital.Management.service;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.hospital.Hospital.Management.dto.AdminUserCreationRequest;
 import com.hospital.Hospital.Management.dto.UserProfileResponse;
+import com.hospital.Hospital.Management.event.UserRegisteredEvent;
 import com.hospital.Hospital.Management.exception.UserAlreadyExistsException;
 import com.hospital.Hospital.Management.model.Role;
 import com.hospital.Hospital.Management.model.User;
@@ -20,11 +23,14 @@ public class AdminService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
     private final Logger logger = LoggerFactory.getLogger(AdminService.class);
 
-    public AdminService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AdminService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                        ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -48,6 +54,7 @@ public class AdminService {
                 .build();
 
         User savedDoctor = userRepository.save(doctor);
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedDoctor.getId(), savedDoctor.getRoles(), LocalDateTime.now()));
         logger.info("Doctor created successfully with ID: {}", savedDoctor.getId());
 
         return mapToUserProfileResponse(savedDoctor);
@@ -75,6 +82,7 @@ public class AdminService {
                 .build();
 
         User savedAdmin = userRepository.save(admin);
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedAdmin.getId(), savedAdmin.getRoles(), LocalDateTime.now()));
         logger.info("Admin created successfully with ID: {}", savedAdmin.getId());
 
         return mapToUserProfileResponse(savedAdmin);
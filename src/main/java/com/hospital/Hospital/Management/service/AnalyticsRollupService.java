@@ -0,0 +1,203 @@
+package com.hospital.Hospital.Management.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hospital.Hospital.Management.dto.TrendPointDto;
+import com.hospital.Hospital.Management.event.AppointmentStatusChangedEvent;
+import com.hospital.Hospital.Management.event.UserRegisteredEvent;
+import com.hospital.Hospital.Management.event.WaitlistJoinedEvent;
+import com.hospital.Hospital.Management.model.AnalyticsRollup;
+import com.hospital.Hospital.Management.model.RollupGranularity;
+import com.hospital.Hospital.Management.repository.AnalyticsRollupRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the hourly and daily rollup tables from domain events and answers trend
+ * queries from them. Events are accumulated in memory and written as one batch of
+ * upserts per flush interval, so a burst of bookings costs a single round trip.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsRollupService {
+
+    static final String UPSERT_SQL = "INSERT INTO analytics_rollups (granularity, bucket_start, doctor_id, specialization, " +
+            "bookings, cancelled_by_patient, cancelled_by_doctor, completions, no_shows, waitlist_joins, registrations) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "bookings = bookings + VALUES(bookings), " +
+            "cancelled_by_patient = cancelled_by_patient + VALUES(cancelled_by_patient), " +
+            "cancelled_by_doctor = cancelled_by_doctor + VALUES(cancelled_by_doctor), " +
+            "completions = completions + VALUES(completions), " +
+            "no_shows = no_shows + VALUES(no_shows), " +
+            "waitlist_joins = waitlist_joins + VALUES(waitlist_joins), " +
+            "registrations = registrations + VALUES(registrations)";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final AnalyticsRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Writers share the read lock; the flusher takes the write lock only to swap the buffer.
+    private final ReadWriteLock bufferLock = new ReentrantReadWriteLock();
+    private Map<RollupDeltas.Key, RollupDeltas.Delta> buffer = new ConcurrentHashMap<>();
+
+    // Rebuild chunks share the read lock; a flush needs the write lock, so it waits out a rebuild.
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentStatusChanged(AppointmentStatusChangedEvent event) {
+        RollupDeltas.Metric metric = event.isBooking()
+                ? RollupDeltas.Metric.BOOKINGS
+                : RollupDeltas.Metric.forOutcome(event.newStatus());
+        if (metric != null) {
+            record(event.occurredAt(), event.doctorId(), event.doctorSpecialization(), metric);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWaitlistJoined(WaitlistJoinedEvent event) {
+        record(event.occurredAt(), event.doctorId(), event.doctorSpecialization(), RollupDeltas.Metric.WAITLIST_JOINS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        record(event.occurredAt(), AnalyticsRollup.NO_DOCTOR, null, RollupDeltas.Metric.REGISTRATIONS);
+    }
+
+    public List<TrendPointDto> getTrend(RollupGranularity granularity, LocalDate from, LocalDate to,
+                                        Long doctorId, String specialization) {
+        if (to.isBefore(from)) {
+            throw new IllegalStateException("The end of the range must not be before its start.");
+        }
+        return rollupRepository.findTrend(granularity, from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+                doctorId, specialization);
+    }
+
+    /**
+     * Writes the buffered deltas. Skipped while a rebuild is running; the deltas stay
+     * buffered for the first flush after it.
+     */
+    @Scheduled(fixedDelayString = "${hospital.analytics.rollups.flush-interval-ms:10000}")
+    public void flush() {
+        if (!rebuildLock.writeLock().tryLock()) {
+            log.debug("Rollup flush skipped while a rebuild is running.");
+            return;
+        }
+        try {
+            flushBuffer();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        rebuildLock.writeLock().lock();
+        try {
+            flushBuffer();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code rebuild}, which recounts the buckets in [{@code start}, {@code end}) from
+     * the raw tables, with flushing paused. Buffered deltas for those buckets are dropped
+     * first: their events are already committed, so the recount includes them and
+     * flushing them afterwards would count them twice.
+     */
+    <T> T rebuildRange(LocalDateTime start, LocalDateTime end, Supplier<T> rebuild) {
+        rebuildLock.readLock().lock();
+        try {
+            bufferLock.writeLock().lock();
+            try {
+                buffer.keySet().removeIf(key -> !key.bucketStart().isBefore(start) && key.bucketStart().isBefore(end));
+            } finally {
+                bufferLock.writeLock().unlock();
+            }
+            return rebuild.get();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void flushBuffer() {
+        Map<RollupDeltas.Key, RollupDeltas.Delta> drained;
+        bufferLock.writeLock().lock();
+        try {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            drained = buffer;
+            buffer = new ConcurrentHashMap<>();
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+
+        try {
+            writeDeltas(drained);
+            log.debug("Flushed {} rollup buckets.", drained.size());
+        } catch (RuntimeException e) {
+            log.error("Rollup flush failed, keeping {} buckets for the next attempt: {}", drained.size(), e.getMessage());
+            bufferLock.readLock().lock();
+            try {
+                drained.forEach((key, delta) ->
+                        buffer.computeIfAbsent(key, k -> new RollupDeltas.Delta()).addAll(delta));
+            } finally {
+                bufferLock.readLock().unlock();
+            }
+        }
+    }
+
+    void writeDeltas(Map<RollupDeltas.Key, RollupDeltas.Delta> deltas) {
+        List<Map.Entry<RollupDeltas.Key, RollupDeltas.Delta>> rows = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, BATCH_SIZE, this::bindRow);
+    }
+
+    private void bindRow(PreparedStatement ps, Map.Entry<RollupDeltas.Key, RollupDeltas.Delta> row) throws SQLException {
+        RollupDeltas.Key key = row.getKey();
+        RollupDeltas.Delta delta = row.getValue();
+        ps.setString(1, key.granularity().name());
+        ps.setTimestamp(2, Timestamp.valueOf(key.bucketStart()));
+        ps.setLong(3, key.doctorId());
+        ps.setString(4, key.specialization());
+        ps.setLong(5, delta.get(RollupDeltas.Metric.BOOKINGS));
+        ps.setLong(6, delta.get(RollupDeltas.Metric.CANCELLED_BY_PATIENT));
+        ps.setLong(7, delta.get(RollupDeltas.Metric.CANCELLED_BY_DOCTOR));
+        ps.setLong(8, delta.get(RollupDeltas.Metric.COMPLETIONS));
+        ps.setLong(9, delta.get(RollupDeltas.Metric.NO_SHOWS));
+        ps.setLong(10, delta.get(RollupDeltas.Metric.WAITLIST_JOINS));
+        ps.setLong(11, delta.get(RollupDeltas.Metric.REGISTRATIONS));
+    }
+
+    private void record(LocalDateTime time, Long doctorId, String specialization, RollupDeltas.Metric metric) {
+        LocalDateTime eventTime = time != null ? time : LocalDateTime.now();
+        long doctor = doctorId != null ? doctorId : AnalyticsRollup.NO_DOCTOR;
+        bufferLock.readLock().lock();
+        try {
+            RollupDeltas.addToBuckets(buffer, eventTime, doctor, specialization, metric, 1);
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+    }
+}
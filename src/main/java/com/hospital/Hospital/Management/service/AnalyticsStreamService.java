@@ -0,0 +1,100 @@
+package com.hospital.Hospital.Management.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.Hospital.Management.dto.DashboardAnalyticsDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes the live dashboard counters to subscribed admins over Server-Sent Events.
+ * Changes are coalesced: at most one message per push interval, serialised once and
+ * written to every open stream.
+ */
+@Service
+@Slf4j
+public class AnalyticsStreamService {
+
+    private static final String EVENT_NAME = "analytics";
+
+    private final LiveAnalyticsCounters liveAnalyticsCounters;
+    private final ObjectMapper objectMapper;
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    @Value("${hospital.analytics.live.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs = 1_800_000;
+
+    private volatile long lastPublishedVersion = -1;
+
+    public AnalyticsStreamService(LiveAnalyticsCounters liveAnalyticsCounters, ObjectMapper objectMapper) {
+        this.liveAnalyticsCounters = liveAnalyticsCounters;
+        this.objectMapper = objectMapper;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        emitters.add(emitter);
+
+        if (liveAnalyticsCounters.isSeeded()) {
+            try {
+                send(emitter, serialize(liveAnalyticsCounters.snapshot()));
+            } catch (IOException e) {
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+        log.info("Admin subscribed to analytics stream. Open streams: {}", emitters.size());
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${hospital.analytics.live.push-interval-ms:1000}")
+    public void publishChanges() {
+        if (emitters.isEmpty() || !liveAnalyticsCounters.isSeeded()) {
+            return;
+        }
+        long version = liveAnalyticsCounters.getVersion();
+        if (version == lastPublishedVersion) {
+            return;
+        }
+        String payload;
+        try {
+            payload = serialize(liveAnalyticsCounters.snapshot());
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialise analytics snapshot: {}", e.getMessage());
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                send(emitter, payload);
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+            }
+        }
+        lastPublishedVersion = version;
+    }
+
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    private String serialize(DashboardAnalyticsDto snapshot) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(snapshot);
+    }
+
+    private void send(SseEmitter emitter, String payload) throws IOException {
+        emitter.send(SseEmitter.event().name(EVENT_NAME).data(payload, MediaType.APPLICATION_JSON));
+    }
+}
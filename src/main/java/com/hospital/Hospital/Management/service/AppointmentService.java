@@ -4,10 +4,13 @@ import java.nio.file.AccessDeniedException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +18,8 @@ import org.springframework.transaction.annotation.Transactional;
 import com.hospital.Hospital.Management.dto.AppointmentRequestDto;
 import com.hospital.Hospital.Management.dto.AppointmentResponseDto;
 import com.hospital.Hospital.Management.dto.BookingResponseDto;
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
+import com.hospital.Hospital.Management.event.AppointmentStatusChangedEvent;
 import com.hospital.Hospital.Management.exception.ResourceNotFoundException;
 import com.hospital.Hospital.Management.exception.SlotUnavailableException;
 import com.hospital.Hospital.Management.model.Appointment;
@@ -26,6 +31,7 @@ import com.hospital.Hospital.Management.repository.AppointmentRepository;
 import com.hospital.Hospital.Management.repository.DoctorAvailabilityRepository;
 import com.hospital.Hospital.Management.repository.UserRepository;
 import com.hospital.Hospital.Management.repository.WaitlistRepository;
+import com.hospital.Hospital.Management.security.CurrentUserResolver;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -33,28 +39,37 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AppointmentService {
 
+    static final int MAX_PAGE_SIZE = 200;
+    private static final String SORT_KEY = "APPOINTMENT_TIME";
+
     private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
     private final DoctorAvailabilityRepository availabilityRepository;
     private final WaitlistRepository waitlistRepository; 
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUserResolver currentUserResolver;
 
     public AppointmentService(AppointmentRepository appointmentRepository,
                               UserRepository userRepository,
                               DoctorAvailabilityRepository availabilityRepository,
                               WaitlistRepository waitlistRepository, 
-                              EmailService emailService) {
+                              EmailService emailService,
+                              ApplicationEventPublisher eventPublisher,
+                              CurrentUserResolver currentUserResolver) {
         this.appointmentRepository = appointmentRepository;
         this.userRepository = userRepository;
         this.availabilityRepository = availabilityRepository;
         this.waitlistRepository = waitlistRepository; 
         this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.currentUserResolver = currentUserResolver;
     }
 
     @Transactional
     public BookingResponseDto bookAppointment(AppointmentRequestDto requestDto, String patientEmail) {
         log.info("Attempting to book appointment for patient [{}] with doctor [{}]", patientEmail, requestDto.getDoctorId());
-        User patient = userRepository.findByEmail(patientEmail).orElseThrow(() -> new UsernameNotFoundException("Patient not found"));
+        User patient = currentUserResolver.findUser(patientEmail).orElseThrow(() -> new UsernameNotFoundException("Patient not found"));
         User doctor = userRepository.findById(requestDto.getDoctorId()).orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + requestDto.getDoctorId()));
 
         LocalDateTime requestedDateTime = requestDto.getAppointmentDateTime();
@@ -94,6 +109,8 @@ public class AppointmentService {
                 .build();
         Appointment savedAppointment = appointmentRepository.save(appointment);
         log.info("Successfully booked appointment [id: {}]", savedAppointment.getId());
+        eventPublisher.publishEvent(AppointmentStatusChangedEvent.booked(
+                savedAppointment.getId(), doctor.getId(), doctor.getSpecialization(), savedAppointment.getStatus()));
 
         return BookingResponseDto.builder()
                 .success(true)
@@ -108,7 +125,7 @@ public class AppointmentService {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment with ID " + appointmentId + " not found."));
 
-        User currentUser = userRepository.findByEmail(userEmail)
+        User currentUser = currentUserResolver.findUser(userEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userEmail));
 
         boolean isPatientOfAppointment = appointment.getPatient().getId().equals(currentUser.getId());
@@ -132,9 +149,12 @@ public class AppointmentService {
             throw new IllegalStateException("Cannot cancel a doctor-confirmed appointment. Please contact the clinic directly.");
         }
 
+        AppointmentStatus previousStatus = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CANCELLED_BY_PATIENT);
         appointmentRepository.saveAndFlush(appointment);
         log.info("Appointment [{}] cancelled successfully by patient.", appointmentId);
+        eventPublisher.publishEvent(AppointmentStatusChangedEvent.changed(appointmentId, appointment.getDoctor().getId(),
+                appointment.getDoctor().getSpecialization(), previousStatus, AppointmentStatus.CANCELLED_BY_PATIENT));
 
         try {
             emailService.sendCancellationByPatientToDoctorEmail(appointment);
@@ -152,7 +172,7 @@ public class AppointmentService {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
 
-        User currentUser = userRepository.findByEmail(patientEmail)
+        User currentUser = currentUserResolver.findUser(patientEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + patientEmail));
 
         if (!appointment.getPatient().getId().equals(currentUser.getId())) {
@@ -205,6 +225,8 @@ public class AppointmentService {
                     .status(AppointmentStatus.SCHEDULED) // Starts as scheduled, doctor needs to confirm
                     .build();
             appointmentRepository.save(newAppointment);
+            eventPublisher.publishEvent(AppointmentStatusChangedEvent.booked(
+                    newAppointment.getId(), doctor.getId(), doctor.getSpecialization(), newAppointment.getStatus()));
 
             try {
                 emailService.sendWaitlistBookingConfirmationEmail(newAppointment);
@@ -220,15 +242,29 @@ public class AppointmentService {
     }
 
     
-    public List<AppointmentResponseDto> getAppointmentsForPatient(String patientEmail) {
-        log.info("Fetching all appointments for patient: {}", patientEmail);
-        User patient = userRepository.findByEmail(patientEmail).orElseThrow(() -> new UsernameNotFoundException("Patient not found"));
-        return appointmentRepository.findByPatient(patient).stream().map(this::mapToResponseDto).collect(Collectors.toList());
+    /**
+     * One page of the patient's appointments, newest first, optionally limited to some
+     * statuses and an appointment time range. Rows are selected straight into the DTO, so
+     * no appointment or user entity is loaded.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageDto<AppointmentResponseDto> getAppointmentsForPatient(String patientEmail,
+                                                                           Set<AppointmentStatus> statuses,
+                                                                           LocalDateTime from, LocalDateTime to,
+                                                                           int size, String cursor) {
+        log.info("Fetching appointments for patient: {}", patientEmail);
+        User patient = currentUserResolver.findUser(patientEmail).orElseThrow(() -> new UsernameNotFoundException("Patient not found"));
+        KeysetPageRequest paging = KeysetPageRequest.of(SORT_KEY, size, MAX_PAGE_SIZE, cursor);
+
+        List<AppointmentResponseDto> rows = appointmentRepository.findPatientAppointments(patient.getId(),
+                statuses == null || statuses.isEmpty() ? EnumSet.allOf(AppointmentStatus.class) : statuses,
+                from, to, paging.afterDateTime(), paging.afterId(), paging.limit());
+        return paging.toPage(rows, AppointmentResponseDto::getAppointmentDateTime, AppointmentResponseDto::getId);
     }
 
     public List<AppointmentResponseDto> getUpcomingAppointmentsForPatient(String patientEmail) {
         log.info("Fetching UPCOMING appointments for patient: {}", patientEmail);
-        User patient = userRepository.findByEmail(patientEmail)
+        User patient = currentUserResolver.findUser(patientEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("Patient not found with email: " + patientEmail));
 
         LocalDateTime now = LocalDateTime.now();
@@ -0,0 +1,392 @@
+package com.hospital.Hospital.Management.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.Hospital.Management.dto.SystemLogDto;
+import com.hospital.Hospital.Management.dto.SystemLogFilter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves audit rows older than the retention age out of {@code system_logs} into gzip
+ * NDJSON segment files, one or more per day, under {@code <archive-dir>/yyyy/MM/}.
+ * A small JSON index lists every segment with its day, id range and actions, so
+ * searches and restores only open the segments that can match.
+ */
+@Service
+@Slf4j
+public class AuditArchiveService {
+
+    private static final String INDEX_FILE = "index.json";
+    // Rows restored within the hold period are neither archived nor deleted.
+    private static final String ARCHIVABLE = "(restored_at IS NULL OR restored_at < ?)";
+    private static final String OLDEST_SQL =
+            "SELECT MIN(timestamp) FROM system_logs WHERE timestamp < ? AND " + ARCHIVABLE;
+    private static final String DELETE_SQL =
+            "DELETE FROM system_logs WHERE timestamp >= ? AND timestamp < ? AND id <= ? AND " + ARCHIVABLE + " LIMIT ?";
+    // Rows left behind by an interrupted restore are only re-marked, so a retry never duplicates them.
+    private static final String RESTORE_SQL =
+            "INSERT INTO system_logs (id, user_id, action, details, ip_address, timestamp, restored_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE restored_at = VALUES(restored_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SystemLogQueryService systemLogQueryService;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final Path archiveDir;
+    private final int retentionDays;
+    private final int restoreHoldDays;
+    private final int deleteBatchSize;
+    private final int maxRestoreDays;
+    private final ReentrantLock archiveLock = new ReentrantLock();
+
+    public AuditArchiveService(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               SystemLogQueryService systemLogQueryService,
+                               ObjectMapper objectMapper,
+                               @Qualifier("taskExecutor") Executor executor,
+                               @Value("${hospital.audit.retention.archive-dir:data/audit-archive}") String archiveDir,
+                               @Value("${hospital.audit.retention.max-age-days:90}") int retentionDays,
+                               @Value("${hospital.audit.retention.restore-hold-days:30}") int restoreHoldDays,
+                               @Value("${hospital.audit.retention.delete-batch-size:1000}") int deleteBatchSize,
+                               @Value("${hospital.audit.retention.max-restore-days:31}") int maxRestoreDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.systemLogQueryService = systemLogQueryService;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.archiveDir = Paths.get(archiveDir);
+        this.retentionDays = retentionDays;
+        this.restoreHoldDays = Math.max(0, restoreHoldDays);
+        this.deleteBatchSize = Math.max(1, deleteBatchSize);
+        this.maxRestoreDays = Math.max(1, maxRestoreDays);
+    }
+
+    public record SegmentEntry(LocalDate day, String file, long rows, long firstId, long lastId, Set<String> actions) {
+    }
+
+    // Archiving a night's worth of days can take minutes, so it runs off the scheduler's few threads.
+    @Scheduled(cron = "${hospital.audit.retention.cron:0 30 2 * * *}")
+    public void archiveExpiredLogs() {
+        executor.execute(() -> {
+            try {
+                int days = archiveBefore(LocalDate.now().minusDays(retentionDays));
+                if (days > 0) {
+                    log.info("Archived audit logs for {} day(s) older than {} days.", days, retentionDays);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Audit log archival failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Archives and deletes every row with a timestamp before {@code cutoff}, one day at a time.
+     * Returns the number of days processed.
+     */
+    public int archiveBefore(LocalDate cutoff) throws IOException {
+        archiveLock.lock();
+        try {
+            LocalDateTime restoredBefore = LocalDateTime.now().minusDays(restoreHoldDays);
+            Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_SQL, Timestamp.class,
+                    Timestamp.valueOf(cutoff.atStartOfDay()), Timestamp.valueOf(restoredBefore));
+            if (oldest == null) {
+                return 0;
+            }
+            List<SegmentEntry> index = readIndex();
+            int days = 0;
+            for (LocalDate day = oldest.toLocalDateTime().toLocalDate(); day.isBefore(cutoff); day = day.plusDays(1)) {
+                archiveDay(day, index, restoredBefore);
+                days++;
+            }
+            return days;
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    /**
+     * Archived rows matching {@code filter}, newest segments first, up to {@code limit} rows.
+     */
+    public List<SystemLogDto> search(SystemLogFilter filter, int limit) throws IOException {
+        List<SystemLogDto> matches = new ArrayList<>();
+        List<SegmentEntry> segments = new ArrayList<>(readIndex());
+        segments.sort((a, b) -> b.day().compareTo(a.day()));
+        for (SegmentEntry segment : segments) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            if (!overlaps(segment, filter)) {
+                continue;
+            }
+            for (SystemLogDto row : readSegment(segment)) {
+                if (matchesFilter(row, filter)) {
+                    matches.add(row);
+                    if (matches.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Re-inserts the archived rows of {@code from}..{@code to} (inclusive), at most
+     * {@code max-restore-days} days, one segment per transaction. Each segment leaves the
+     * archive only once its rows are committed, so a failure part way keeps the rest
+     * archived and a retry picks up where it stopped. Restored rows are marked and left
+     * in place for {@code restore-hold-days} before the archiver picks them up again.
+     */
+    public long restore(LocalDate from, LocalDate to) throws IOException {
+        if (to.isBefore(from)) {
+            throw new IllegalStateException("The end of the range must not be before its start.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRestoreDays) {
+            throw new IllegalStateException("At most " + maxRestoreDays + " days can be restored at once.");
+        }
+        archiveLock.lock();
+        try {
+            List<SegmentEntry> index = readIndex();
+            List<SegmentEntry> inRange = index.stream()
+                    .filter(segment -> !segment.day().isBefore(from) && !segment.day().isAfter(to))
+                    .toList();
+            Timestamp restoredAt = Timestamp.valueOf(LocalDateTime.now());
+            long rows = 0;
+            for (SegmentEntry segment : inRange) {
+                try {
+                    rows += transactionTemplate.execute(status -> restoreSegment(segment, restoredAt));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                index.remove(segment);
+                writeIndex(index);
+                Files.deleteIfExists(archiveDir.resolve(segment.file()));
+            }
+            log.info("Restored {} archived audit rows from {} segment(s) between {} and {}.", rows, inRange.size(), from, to);
+            return rows;
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    private void archiveDay(LocalDate day, List<SegmentEntry> index, LocalDateTime restoredBefore) throws IOException {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = day.plusDays(1).atStartOfDay();
+
+        // A previous run may have written the segment but stopped before deleting every row.
+        long archivedUpTo = index.stream()
+                .filter(segment -> segment.day().equals(day))
+                .mapToLong(SegmentEntry::lastId)
+                .max()
+                .orElse(0);
+        if (archivedUpTo > 0) {
+            deleteArchived(start, end, archivedUpTo, restoredBefore);
+        }
+
+        String relative = String.format("%d/%02d/system-logs-%s-%d.ndjson.gz",
+                day.getYear(), day.getMonthValue(), day, System.currentTimeMillis());
+        Path target = archiveDir.resolve(relative);
+        Files.createDirectories(target.getParent());
+        deleteUnindexedSegments(target.getParent(), day, index);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        AtomicLong rows = new AtomicLong();
+        AtomicLong firstId = new AtomicLong(Long.MAX_VALUE);
+        AtomicLong lastId = new AtomicLong(Long.MIN_VALUE);
+        Set<String> actions = new TreeSet<>();
+        try (OutputStream file = Files.newOutputStream(temp);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(file), StandardCharsets.UTF_8))) {
+            systemLogQueryService.forEachLog(new SystemLogFilter(null, null, start, end, restoredBefore), row -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows.incrementAndGet();
+                firstId.accumulateAndGet(row.getId(), Math::min);
+                lastId.accumulateAndGet(row.getId(), Math::max);
+                actions.add(row.getAction());
+            });
+        }
+        if (rows.get() == 0) {
+            Files.delete(temp);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+
+        index.add(new SegmentEntry(day, relative, rows.get(), firstId.get(), lastId.get(), actions));
+        writeIndex(index);
+        deleteArchived(start, end, lastId.get(), restoredBefore);
+    }
+
+    private void deleteArchived(LocalDateTime start, LocalDateTime end, long upToId, LocalDateTime restoredBefore) {
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_SQL, Timestamp.valueOf(start), Timestamp.valueOf(end), upToId,
+                    Timestamp.valueOf(restoredBefore), deleteBatchSize);
+        } while (deleted >= deleteBatchSize);
+    }
+
+    /**
+     * A run that stopped between writing a segment and indexing it leaves the file behind.
+     * Its rows were never deleted and are archived again, so the file is only a duplicate.
+     */
+    private void deleteUnindexedSegments(Path directory, LocalDate day, List<SegmentEntry> index) throws IOException {
+        Set<Path> indexed = new HashSet<>();
+        for (SegmentEntry segment : index) {
+            indexed.add(archiveDir.resolve(segment.file()));
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "system-logs-" + day + "-*")) {
+            for (Path file : files) {
+                if (!indexed.contains(file)) {
+                    Files.delete(file);
+                    log.warn("Deleted unindexed audit archive segment {}.", file);
+                }
+            }
+        }
+    }
+
+    private long restoreSegment(SegmentEntry segment, Timestamp restoredAt) {
+        List<SystemLogDto> batch = new ArrayList<>(deleteBatchSize);
+        long rows = 0;
+        try (BufferedReader reader = openSegment(segment)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(objectMapper.readValue(line, SystemLogDto.class));
+                if (batch.size() == deleteBatchSize) {
+                    rows += insertRestored(batch, restoredAt);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows + insertRestored(batch, restoredAt);
+    }
+
+    private int insertRestored(List<SystemLogDto> rows, Timestamp restoredAt) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(RESTORE_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getId());
+            if (row.getUserId() != null) {
+                ps.setLong(2, row.getUserId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setString(3, row.getAction());
+            ps.setString(4, row.getDetails());
+            ps.setString(5, row.getIpAddress());
+            ps.setTimestamp(6, Timestamp.valueOf(row.getTimestamp()));
+            ps.setTimestamp(7, restoredAt);
+        });
+        return rows.size();
+    }
+
+    private BufferedReader openSegment(SegmentEntry segment) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(archiveDir.resolve(segment.file()))), StandardCharsets.UTF_8));
+    }
+
+    private List<SystemLogDto> readSegment(SegmentEntry segment) throws IOException {
+        List<SystemLogDto> rows = new ArrayList<>();
+        try (BufferedReader reader = openSegment(segment)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    rows.add(objectMapper.readValue(line, SystemLogDto.class));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private List<SegmentEntry> readIndex() throws IOException {
+        Path file = archiveDir.resolve(INDEX_FILE);
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(objectMapper.readValue(file.toFile(), new TypeReference<List<SegmentEntry>>() { }));
+    }
+
+    private void writeIndex(List<SegmentEntry> index) throws IOException {
+        Files.createDirectories(archiveDir);
+        Path file = archiveDir.resolve(INDEX_FILE);
+        Path temp = archiveDir.resolve(INDEX_FILE + ".tmp");
+        objectMapper.writeValue(temp.toFile(), index);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static boolean overlaps(SegmentEntry segment, SystemLogFilter filter) {
+        if (filter.getFrom() != null && !segment.day().plusDays(1).atStartOfDay().isAfter(filter.getFrom())) {
+            return false;
+        }
+        if (filter.getTo() != null && !segment.day().atStartOfDay().isBefore(filter.getTo())) {
+            return false;
+        }
+        return filter.getAction() == null || filter.getAction().isBlank() || segment.actions().contains(filter.getAction());
+    }
+
+    private static boolean matchesFilter(SystemLogDto row, SystemLogFilter filter) {
+        if (filter.getAction() != null && !filter.getAction().isBlank() && !filter.getAction().equals(row.getAction())) {
+            return false;
+        }
+        if (filter.getUserId() != null && !filter.getUserId().equals(row.getUserId())) {
+            return false;
+        }
+        if (filter.getFrom() != null && row.getTimestamp().isBefore(filter.getFrom())) {
+            return false;
+        }
+        return filter.getTo() == null || row.getTimestamp().isBefore(filter.getTo());
+    }
+}
@@ -0,0 +1,11 @@
+package com.hospital.Hospital.Management.service;
+
+/**
+ * How long the caller of {@link LogService} waits for an audit record.
+ */
+public enum AuditDurability {
+    /** Return as soon as the record is queued; the background writer persists it shortly after. */
+    ASYNC,
+    /** Wait until the record has been written: its database batch committed, its journal page forced to disk. */
+    SYNC
+}
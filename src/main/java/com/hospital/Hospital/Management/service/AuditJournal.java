@@ -0,0 +1,370 @@
+package com.hospital.Hospital.Management.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only audit sink backed by memory-mapped segment files under
+ * {@code hospital.audit.journal.dir}. Each entry is {@code [length][crc32c][payload]};
+ * the length is stored last, so a reader or a restart never sees a half-written entry
+ * and a zero length marks the end of a segment's data. Pages are flushed to disk on a
+ * fixed interval, or before returning for {@link AuditDurability#SYNC} records.
+ *
+ * <p>Entries are addressed by their position in the journal (segment base offset plus
+ * offset within the segment), which only ever grows and serves as the paging cursor.
+ */
+@Component
+@ConditionalOnProperty(name = "hospital.audit.journal.enabled", havingValue = "true")
+@Slf4j
+public class AuditJournal implements AuditSink {
+
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int HEADER_BYTES = 8;
+    private static final long NO_USER = Long.MIN_VALUE;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int retainedSegments;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final List<Segment> segments = new ArrayList<>();
+
+    private Segment active;
+    private boolean dirty;
+    private volatile long endPosition;
+
+    @Autowired
+    public AuditJournal(@Value("${hospital.audit.journal.dir:data/audit-journal}") String directory,
+                        @Value("${hospital.audit.journal.segment-size-mb:64}") int segmentSizeMb,
+                        @Value("${hospital.audit.journal.retained-segments:32}") int retainedSegments) {
+        this(Paths.get(directory), segmentSizeMb * 1024 * 1024, retainedSegments);
+    }
+
+    AuditJournal(Path directory, int segmentSize, int retainedSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.retainedSegments = retainedSegments;
+    }
+
+    /**
+     * Maps the existing segments and finds the end of the newest one, dropping any
+     * torn entry left by a crash mid-append.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(AuditJournal::isSegmentFile).sorted().toList();
+        }
+        appendLock.lock();
+        try {
+            for (Path file : files) {
+                segments.add(Segment.map(file, baseOf(file), (int) Files.size(file)));
+            }
+            if (segments.isEmpty()) {
+                segments.add(newSegment(0));
+            }
+            active = segments.get(segments.size() - 1);
+            active.writeOffset = recoverEnd(active);
+            endPosition = active.base + active.writeOffset;
+            log.info("Audit journal opened at {} with {} segment(s), end position {}.", directory, segments.size(), endPosition);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        appendLock.lock();
+        try {
+            if (active != null) {
+                active.buffer.force();
+            }
+            for (Segment segment : segments) {
+                segment.close();
+            }
+            segments.clear();
+            active = null;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void write(AuditRecord record, AuditDurability durability) {
+        byte[] payload = encode(record);
+        int entrySize = HEADER_BYTES + payload.length;
+        if (entrySize > segmentSize) {
+            log.error("Audit record '{}' is larger than a journal segment and was not journaled.", record.action());
+            return;
+        }
+
+        appendLock.lock();
+        try {
+            if (active.writeOffset + entrySize > active.capacity) {
+                roll();
+            }
+            int offset = active.writeOffset;
+            MappedByteBuffer buffer = active.buffer;
+            buffer.put(offset + HEADER_BYTES, payload);
+            buffer.putInt(offset + 4, checksum(payload));
+            // Publishing the length last is what makes the entry visible to readers and recovery.
+            buffer.putInt(offset, payload.length);
+            active.writeOffset = offset + entrySize;
+            endPosition = active.base + active.writeOffset;
+            dirty = true;
+            if (durability == AuditDurability.SYNC) {
+                syncLocked();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes appended entries to disk. ASYNC records written since the last call are
+     * what a power loss can cost.
+     */
+    @Scheduled(fixedDelayString = "${hospital.audit.journal.fsync-interval-ms:1000}")
+    public void sync() {
+        appendLock.lock();
+        try {
+            syncLocked();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Visits entries oldest first starting at {@code fromPosition}, which must be 0 or a
+     * position previously handed out by this journal, until the visitor returns
+     * {@code false} or the end is reached.
+     */
+    public void scan(long fromPosition, Predicate<JournalEntry> visitor) {
+        long end = endPosition;
+        List<Segment> snapshot;
+        appendLock.lock();
+        try {
+            snapshot = List.copyOf(segments);
+        } finally {
+            appendLock.unlock();
+        }
+
+        for (Segment segment : snapshot) {
+            long segmentEnd = Math.min(segment.base + segment.capacity, end);
+            if (segmentEnd <= fromPosition) {
+                continue;
+            }
+            ByteBuffer view = segment.buffer.duplicate();
+            int offset = (int) Math.max(0, fromPosition - segment.base);
+            while (segment.base + offset + HEADER_BYTES <= segmentEnd) {
+                int length = view.getInt(offset);
+                if (length <= 0 || segment.base + offset + HEADER_BYTES + length > segmentEnd) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                view.get(offset + HEADER_BYTES, payload);
+                if (checksum(payload) != view.getInt(offset + 4)) {
+                    log.warn("Corrupt audit journal entry at position {}, skipping the rest of segment {}.",
+                            segment.base + offset, segment.base);
+                    break;
+                }
+                long position = segment.base + offset;
+                offset += HEADER_BYTES + length;
+                if (!visitor.test(new JournalEntry(position, segment.base + offset, decode(payload)))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public long endPosition() {
+        return endPosition;
+    }
+
+    private void roll() {
+        syncLocked();
+        Segment next = newSegment(active.base + active.capacity);
+        segments.add(next);
+        active = next;
+        while (retainedSegments > 0 && segments.size() > retainedSegments) {
+            Segment oldest = segments.remove(0);
+            oldest.close();
+            try {
+                Files.deleteIfExists(oldest.file);
+            } catch (IOException e) {
+                log.warn("Could not delete old audit journal segment {}: {}", oldest.file, e.getMessage());
+            }
+        }
+    }
+
+    private void syncLocked() {
+        if (dirty && active != null) {
+            active.buffer.force();
+            dirty = false;
+        }
+    }
+
+    private Segment newSegment(long base) {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, base, SEGMENT_SUFFIX));
+        try {
+            return Segment.map(file, base, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create audit journal segment " + file, e);
+        }
+    }
+
+    private static int recoverEnd(Segment segment) {
+        ByteBuffer view = segment.buffer.duplicate();
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segment.capacity) {
+            int length = view.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segment.capacity) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            view.get(offset + HEADER_BYTES, payload);
+            if (checksum(payload) != view.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        // Zero whatever follows so a torn entry cannot be mistaken for data after the next append.
+        for (int i = offset; i < Math.min(offset + HEADER_BYTES, segment.capacity); i++) {
+            view.put(i, (byte) 0);
+        }
+        return offset;
+    }
+
+    static byte[] encode(AuditRecord record) {
+        byte[] action = bytes(record.action());
+        byte[] details = bytes(record.details());
+        byte[] ipAddress = bytes(record.ipAddress());
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 8 + 4 + 12 + length(action) + length(details) + length(ipAddress));
+        buffer.putLong(record.userId() != null ? record.userId() : NO_USER);
+        buffer.putLong(record.timestamp().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(record.timestamp().getNano());
+        putString(buffer, action);
+        putString(buffer, details);
+        putString(buffer, ipAddress);
+        return buffer.array();
+    }
+
+    static AuditRecord decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        long userId = buffer.getLong();
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        String action = getString(buffer);
+        String details = getString(buffer);
+        String ipAddress = getString(buffer);
+        return new AuditRecord(userId != NO_USER ? userId : null, action, details, ipAddress, timestamp);
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long baseOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * One journaled record with its own position and the position of the entry after it.
+     */
+    public record JournalEntry(long position, long nextPosition, AuditRecord record) {
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final long base;
+        private final int capacity;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writeOffset;
+
+        private Segment(Path file, long base, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.base = base;
+            this.capacity = capacity;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment map(Path file, long base, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new Segment(file, base, capacity, channel, buffer);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close audit journal segment {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hospital.Hospital.Management.service;
+
+/**
+ * Where the admin log endpoints read audit records from.
+ */
+public enum AuditLogSource {
+    /** The {@code system_logs} table, newest first. */
+    DATABASE,
+    /** The file journal, oldest first by journal position. */
+    JOURNAL
+}
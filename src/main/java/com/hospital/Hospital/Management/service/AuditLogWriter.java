@@ -0,0 +1,199 @@
+package com.hospital.Hospital.Management.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Database audit sink: writes records to {@code system_logs} in JDBC batches from a single
+ * background thread. Callers only publish into a lock-free ring buffer; the writer flushes
+ * when a batch fills up or the oldest queued record reaches the flush interval.
+ */
+@Component
+@ConditionalOnProperty(name = "hospital.audit.database.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class AuditLogWriter implements AuditSink {
+
+    static final String INSERT_SQL =
+            "INSERT INTO system_logs (user_id, action, details, ip_address, timestamp) VALUES (?, ?, ?, ?, ?)";
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate directWriteTransaction;
+    private final AuditRingBuffer<PendingRecord> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long syncTimeoutMillis;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${hospital.audit.buffer-capacity:8192}") int bufferCapacity,
+                          @Value("${hospital.audit.batch-size:200}") int batchSize,
+                          @Value("${hospital.audit.flush-interval-ms:500}") long flushIntervalMillis,
+                          @Value("${hospital.audit.sync-timeout-ms:5000}") long syncTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Records usually arrive from afterCommit, where the finished transaction's connection
+        // is still bound; a plain insert would join it and never be committed.
+        this.directWriteTransaction = new TransactionTemplate(transactionManager);
+        this.directWriteTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buffer = new AuditRingBuffer<>(bufferCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.syncTimeoutMillis = syncTimeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::runWriter, "audit-log-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Anything published after the writer's last pass is written here, on the closing thread.
+        List<PendingRecord> remaining = new ArrayList<>();
+        buffer.drainTo(remaining, Integer.MAX_VALUE);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+    }
+
+    @Override
+    public void write(AuditRecord record, AuditDurability durability) {
+        CompletableFuture<Void> persisted = durability == AuditDurability.SYNC ? new CompletableFuture<>() : null;
+        PendingRecord pending = new PendingRecord(record, persisted);
+
+        if (!running || !buffer.offer(pending)) {
+            // Writer stopped or buffer full: fall back to a direct insert rather than lose the record.
+            log.warn("Audit buffer unavailable, writing '{}' synchronously.", record.action());
+            directWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, record)));
+            return;
+        }
+
+        if (persisted != null || buffer.size() >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+        if (persisted != null) {
+            awaitPersisted(record, persisted);
+        }
+    }
+
+    private void awaitPersisted(AuditRecord record, CompletableFuture<Void> persisted) {
+        try {
+            persisted.get(syncTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.error("Timed out waiting for audit record '{}' to be written.", record.action());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Audit record '{}' could not be written: {}", record.action(), e.getMessage());
+        }
+    }
+
+    private void runWriter() {
+        List<PendingRecord> batch = new ArrayList<>(batchSize);
+        long oldestQueuedAt = 0;
+        while (running || !buffer.isEmpty() || !batch.isEmpty()) {
+            boolean wasEmpty = batch.isEmpty();
+            buffer.drainTo(batch, batchSize - batch.size());
+            if (wasEmpty && !batch.isEmpty()) {
+                oldestQueuedAt = System.nanoTime();
+            }
+
+            if (!batch.isEmpty()) {
+                long waited = System.nanoTime() - oldestQueuedAt;
+                if (batch.size() >= batchSize || waited >= flushIntervalNanos || !running || hasSyncRecord(batch)) {
+                    writeBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                    continue;
+                }
+                LockSupport.parkNanos(this, flushIntervalNanos - waited);
+            } else if (running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private boolean hasSyncRecord(List<PendingRecord> batch) {
+        for (PendingRecord pending : batch) {
+            if (pending.persisted() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeBatch(List<PendingRecord> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, pending) -> bind(ps, pending.record()));
+                batch.forEach(pending -> {
+                    if (pending.persisted() != null) {
+                        pending.persisted().complete(null);
+                    }
+                });
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    log.error("Dropping {} audit records after {} failed attempts: {}", batch.size(), attempt, e.getMessage());
+                    batch.forEach(pending -> {
+                        log.error("Unwritten audit record: {}", pending.record());
+                        if (pending.persisted() != null) {
+                            pending.persisted().completeExceptionally(e);
+                        }
+                    });
+                    return;
+                }
+                log.warn("Audit batch write failed (attempt {}), retrying: {}", attempt, e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200L * attempt));
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, AuditRecord record) throws SQLException {
+        if (record.userId() != null) {
+            ps.setLong(1, record.userId());
+        } else {
+            ps.setNull(1, Types.BIGINT);
+        }
+        ps.setString(2, record.action());
+        ps.setString(3, record.details());
+        ps.setString(4, record.ipAddress());
+        ps.setTimestamp(5, Timestamp.valueOf(record.timestamp()));
+    }
+
+    private record PendingRecord(AuditRecord record, CompletableFuture<Void> persisted) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * One audit event as written to {@code system_logs}. The user is referenced by id only
+ * so records can be queued and written without holding on to entities.
+ */
+public record AuditRecord(Long userId, String action, String details, String ipAddress, LocalDateTime timestamp) {
+}
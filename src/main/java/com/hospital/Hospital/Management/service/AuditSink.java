@@ -0,0 +1,10 @@
+package com.hospital.Hospital.Management.service;
+
+/**
+ * Destination for audit records. {@link LogService} hands every record to each
+ * enabled sink once the surrounding transaction, if any, has committed.
+ */
+public interface AuditSink {
+
+    void write(AuditRecord record, AuditDurability durability);
+}
@@ -1,13 +1,16 @@
 package com.hospital.Hospital.Management.service;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Map;
-import java.util.Optional;
+import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,8 +20,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.hospital.Hospital.Management.dto.AuthenticationRequest;
 import com.hospital.Hospital.Management.dto.AuthenticationResponse;
+import com.hospital.Hospital.Management.dto.RefreshTokenRequest;
 import com.hospital.Hospital.Management.dto.RegisterRequest;
 import com.hospital.Hospital.Management.dto.ResetPasswordRequest;
+import com.hospital.Hospital.Management.event.UserRegisteredEvent;
+import com.hospital.Hospital.Management.event.UserStatusChangedEvent;
 import com.hospital.Hospital.Management.exception.InvalidTokenException;
 import com.hospital.Hospital.Management.exception.UserAlreadyExistsException;
 import com.hospital.Hospital.Management.model.Role;
@@ -27,6 +33,8 @@ import com.hospital.Hospital.Management.model.User;
 import com.hospital.Hospital.Management.model.VerificationToken;
 import com.hospital.Hospital.Management.repository.UserRepository;
 import com.hospital.Hospital.Management.repository.VerificationTokenRepository;
+import com.hospital.Hospital.Management.security.AuthenticatedUser;
+import com.hospital.Hospital.Management.security.LoginAttemptThrottle;
 
 import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
@@ -43,6 +51,11 @@ public class AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginAttemptThrottle loginAttemptThrottle;
+    private final SignedTokenService signedTokenService;
 
     @Transactional
     public void register(RegisterRequest request) {
@@ -64,14 +77,14 @@ public class AuthService {
 
         User savedUser = userRepository.save(user);
         logger.info("User registered successfully: {}", savedUser.getEmail());
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedUser.getId(), savedUser.getRoles(), LocalDateTime.now()));
 
-        VerificationToken verificationToken = VerificationToken.generateToken(savedUser, TokenType.EMAIL_VERIFICATION);
-        tokenRepository.save(verificationToken);
+        String verificationToken = signedTokenService.issue(savedUser, TokenType.EMAIL_VERIFICATION);
         logger.info("Verification token generated for user: {}", savedUser.getEmail());
 
       
         try {
-            emailService.sendVerificationEmail(savedUser.getEmail(), verificationToken.getToken());
+            emailService.sendVerificationEmail(savedUser.getEmail(), verificationToken);
             logger.info("Verification email sent to: {}", savedUser.getEmail());
         } catch (MessagingException e) {
            
@@ -82,16 +95,29 @@ public class AuthService {
     @Transactional
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
         logger.info("Authenticating user with email: {}", request.getEmail());
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
+        String clientIp = LoginAttemptThrottle.currentClientIp();
+        // Rejected here, before the provider pays for a BCrypt comparison.
+        loginAttemptThrottle.checkAllowed(request.getEmail(), clientIp);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()
+                    )
+            );
+        } catch (BadCredentialsException e) {
+            loginAttemptThrottle.recordFailure(request.getEmail(), clientIp);
+            throw e;
+        }
+        loginAttemptThrottle.recordSuccess(request.getEmail());
 
     UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-    String jwt = jwtService.generateToken(userDetails);
-    String refreshToken = jwtService.generateRefreshToken(userDetails);
+    UUID familyId = UUID.randomUUID();
+    String jwt = jwtService.generateToken(userDetails, familyId);
+    String refreshToken = userDetails instanceof AuthenticatedUser principal
+        ? refreshTokenService.issue(principal, familyId)
+        : jwtService.generateRefreshToken(userDetails, UUID.randomUUID(), familyId);
 
    
     User user = userRepository.findByEmail(userDetails.getUsername())
@@ -99,21 +125,73 @@ public class AuthService {
 
         logger.info("Authentication successful for user: {}", userDetails.getUsername());
 
-    return AuthenticationResponse.builder()
-        .accessToken(jwt)
-        .refreshToken(refreshToken)
-        .token(jwt) 
-        .userId(user.getId())
-        .user(AuthenticationResponse.UserSummary.builder()
-            .id(user.getId())
-            .email(user.getEmail())
-            .role(user.getRoles().stream().findFirst().map(Enum::name).orElse(null))
-            .build())
-        .build();
+    return buildAuthenticationResponse(user, jwt, refreshToken);
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token. No password
+     * check is involved, only the refresh token's signature and its row in the rotation store.
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public AuthenticationResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = rotation.user();
+        String jwt = jwtService.generateToken(AuthenticatedUser.from(user), rotation.familyId());
+        logger.info("Access token refreshed for user: {}", user.getEmail());
+        return buildAuthenticationResponse(user, jwt, rotation.refreshToken());
+    }
+
+    private AuthenticationResponse buildAuthenticationResponse(User user, String jwt, String refreshToken) {
+        return AuthenticationResponse.builder()
+                .accessToken(jwt)
+                .refreshToken(refreshToken)
+                .token(jwt)
+                .userId(user.getId())
+                .user(AuthenticationResponse.UserSummary.builder()
+                        .id(user.getId())
+                        .email(user.getEmail())
+                        .role(user.getRoles().stream().findFirst().map(Enum::name).orElse(null))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Revokes the presented access token and the refresh token family it was issued with,
+     * and with {@code allDevices} every token issued to the user so far.
+     */
+    @Transactional
+    public void logout(String authorizationHeader, boolean allDevices) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            throw new InvalidTokenException("Missing bearer token");
+        }
+        ValidatedJwt jwt = jwtService.validate(authorizationHeader.substring(7));
+        tokenRevocationService.revokeToken(jwt);
+        UUID familyId = jwtService.familyId(jwt);
+        if (familyId != null) {
+            refreshTokenService.revokeFamily(familyId);
+        }
+        if (allDevices) {
+            Number userId = jwt.claim(JwtService.CLAIM_USER_ID, Number.class);
+            Long id = userId != null ? Long.valueOf(userId.longValue()) : userRepository.findByEmail(jwt.subject())
+                    .map(User::getId)
+                    .orElseThrow(() -> new InvalidTokenException("Unknown token subject"));
+            tokenRevocationService.revokeAllForUser(id, LocalDateTime.now());
+            refreshTokenService.revokeAllForUser(id);
+        }
+        logger.info("User {} logged out{}", jwt.subject(), allDevices ? " on all devices" : "");
     }
 
     @Transactional
     public ResponseEntity<Map<String, String>> verifyEmail(String token) {
+        if (signedTokenService.isSigned(token)) {
+            User user = userForSignedToken(token, TokenType.EMAIL_VERIFICATION);
+            user.setEnabled(true);
+            userRepository.save(user);
+            logger.info("Email verified successfully for user: {}", user.getEmail());
+            return ResponseEntity.ok(Map.of("message", "Email successfully verified. You can now log in."));
+        }
+
+        // Links mailed before tokens were signed still point at a stored row.
         logger.info("Verifying email with token: {}", token);
         VerificationToken verificationToken = tokenRepository.findByToken(token)
                 .orElseThrow(() -> new InvalidTokenException("Invalid verification token"));
@@ -151,21 +229,12 @@ public class AuthService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with email: " + email));
 
-        Optional<VerificationToken> existingToken = tokenRepository.findByUserAndTokenType(user, TokenType.PASSWORD_RESET);
-        existingToken.ifPresent(token -> {
-            token.setUsed(true);
-            tokenRepository.save(token);
-            logger.info("Existing password reset token invalidated for user: {}", user.getEmail());
-        });
-
-      
-        VerificationToken resetToken = VerificationToken.generateToken(user, TokenType.PASSWORD_RESET);
-        tokenRepository.save(resetToken);
+        String resetToken = signedTokenService.issue(user, TokenType.PASSWORD_RESET);
         logger.info("New password reset token generated for user: {}", user.getEmail());
 
         
         try {
-            emailService.sendPasswordResetEmail(user.getEmail(), resetToken.getToken());
+            emailService.sendPasswordResetEmail(user.getEmail(), resetToken);
             logger.info("Password reset email sent to: {}", user.getEmail());
         } catch (MessagingException e) {
             System.err.println("Failed to send password reset email: " + e.getMessage());
@@ -176,6 +245,14 @@ public class AuthService {
 
     @Transactional
     public void resetPassword(ResetPasswordRequest request) {
+        if (signedTokenService.isSigned(request.getToken())) {
+            User user = userForSignedToken(request.getToken(), TokenType.PASSWORD_RESET);
+            applyNewPassword(user, request.getNewPassword());
+            logger.info("Password reset successful for user: {}", user.getEmail());
+            return;
+        }
+
+        // Links mailed before tokens were signed still point at a stored row.
         logger.info("Resetting password using token: {}", request.getToken());
         VerificationToken resetToken = tokenRepository.findByToken(request.getToken())
                 .orElseThrow(() -> new InvalidTokenException("Invalid reset token"));
@@ -196,8 +273,7 @@ public class AuthService {
         }
 
         User user = resetToken.getUser();
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
+        applyNewPassword(user, request.getNewPassword());
 
         resetToken.setUsed(true);
         tokenRepository.save(resetToken);
@@ -205,5 +281,30 @@ public class AuthService {
         logger.info("Password reset successful for user: {}", user.getEmail());
     }
 
+    /**
+     * Verifies a signed token and loads its user. The token is single-use because using it
+     * changes the state its nonce was derived from.
+     */
+    private User userForSignedToken(String token, TokenType type) {
+        SignedTokenService.SignedToken signed = signedTokenService.verify(token, type);
+        User user = userRepository.findById(signed.userId())
+                .orElseThrow(() -> new InvalidTokenException("Invalid token"));
+        if (!signedTokenService.matchesState(signed, user)) {
+            logger.warn("{} token for user {} no longer matches the account state", type, user.getId());
+            throw new InvalidTokenException("Token already used");
+        }
+        return user;
+    }
+
+    private void applyNewPassword(User user, String newPassword) {
+        user.setPassword(passwordEncoder.encode(newPassword));
+        // A reset usually means the account was at risk: end every session issued before it.
+        user.bumpStatusVersion();
+        userRepository.save(user);
+        eventPublisher.publishEvent(new UserStatusChangedEvent(user.getId(), user.getStatusVersion(), LocalDateTime.now()));
+        // Any other stored reset link for the account dies with the old password, like the signed ones.
+        tokenRepository.invalidateAllForUser(user.getId(), TokenType.PASSWORD_RESET);
+    }
+
     
 }
@@ -0,0 +1,15 @@
+package com.hospital.Hospital.Management.service;
+
+/**
+ * Upload formats accepted by the bulk user import.
+ */
+public enum BulkImportFormat {
+    /** Header row naming the columns, then one user per line. */
+    CSV,
+    /** One JSON object per line. */
+    NDJSON;
+
+    public static BulkImportFormat fromContentType(String contentType) {
+        return contentType != null && contentType.toLowerCase().contains("json") ? NDJSON : CSV;
+    }
+}
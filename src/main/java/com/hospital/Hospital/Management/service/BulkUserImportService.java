@@ -0,0 +1,460 @@
+package com.hospital.Hospital.Management.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.Hospital.Management.dto.BulkImportReportDto;
+import com.hospital.Hospital.Management.dto.BulkImportRowResultDto;
+import com.hospital.Hospital.Management.dto.BulkImportRowResultDto.Status;
+import com.hospital.Hospital.Management.dto.BulkUserImportRow;
+import com.hospital.Hospital.Management.event.UserRegisteredEvent;
+import com.hospital.Hospital.Management.exception.PasswordHashingBusyException;
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.model.User;
+import com.hospital.Hospital.Management.security.CurrentUserResolver;
+import com.hospital.Hospital.Management.security.PooledBCryptPasswordEncoder;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates users from a streamed CSV or NDJSON upload. The upload is read a chunk at a
+ * time; each chunk is checked against existing emails with one query, its passwords are
+ * hashed in parallel on the password-hashing pool, and its rows are written with one
+ * JDBC batch in their own transaction. Every record gets a line in the report, so a
+ * partly bad file still imports its good rows.
+ */
+@Service
+@Slf4j
+public class BulkUserImportService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (email, password, full_name, phone_number, address, role_mask, enabled, "
+                    + "account_non_locked, account_non_expired, credentials_non_expired, status_version, "
+                    + "created_at, updated_at, specialization, location, slot_duration_in_minutes) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, TRUE, TRUE, TRUE, TRUE, 0, ?, ?, ?, ?, ?)";
+    private static final long BUSY_RETRY_MS = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PooledBCryptPasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LogService logService;
+    private final CurrentUserResolver currentUserResolver;
+    private final int chunkSize;
+    private final int hashConcurrency;
+    private final int hashStrength;
+
+    public BulkUserImportService(JdbcTemplate jdbcTemplate,
+                                 NamedParameterJdbcTemplate namedJdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 PooledBCryptPasswordEncoder passwordEncoder,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 ApplicationEventPublisher eventPublisher,
+                                 LogService logService,
+                                 CurrentUserResolver currentUserResolver,
+                                 @Value("${hospital.import.chunk-size:500}") int chunkSize,
+                                 @Value("${hospital.import.hash-concurrency:16}") int hashConcurrency,
+                                 @Value("${hospital.import.bcrypt-strength:0}") int hashStrength) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.logService = logService;
+        this.currentUserResolver = currentUserResolver;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.hashConcurrency = Math.max(1, hashConcurrency);
+        this.hashStrength = hashStrength > 0 ? hashStrength : passwordEncoder.getStrength();
+    }
+
+    public BulkImportReportDto importUsers(InputStream body, BulkImportFormat format, Role role,
+                                           UserDetails adminDetails) throws IOException {
+        long start = System.nanoTime();
+        List<BulkImportRowResultDto> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            RowReader rows = format == BulkImportFormat.NDJSON ? new NdjsonRowReader(reader) : new CsvRowReader(reader);
+            List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+            ParsedRow row;
+            while ((row = rows.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    results.addAll(importChunk(chunk, role, seenEmails));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                results.addAll(importChunk(chunk, role, seenEmails));
+            }
+        }
+
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        results.forEach(result -> counts.merge(result.getStatus(), 1L, Long::sum));
+        BulkImportReportDto report = BulkImportReportDto.builder()
+                .total(results.size())
+                .created(counts.getOrDefault(Status.CREATED, 0L))
+                .duplicates(counts.getOrDefault(Status.DUPLICATE, 0L))
+                .invalid(counts.getOrDefault(Status.INVALID, 0L))
+                .failed(counts.getOrDefault(Status.FAILED, 0L))
+                .elapsedMs((System.nanoTime() - start) / 1_000_000)
+                .rows(results)
+                .build();
+
+        User adminUser = adminDetails != null ? currentUserResolver.findUser(adminDetails.getUsername()).orElse(null) : null;
+        logService.logActivity(adminUser, "USERS_BULK_IMPORTED", String.format(
+                "Bulk import of %s users: %d created, %d duplicates, %d invalid, %d failed.",
+                role.name(), report.getCreated(), report.getDuplicates(), report.getInvalid(), report.getFailed()));
+        log.info("Bulk import of {} rows as {} finished in {} ms: {} created.",
+                report.getTotal(), role, report.getElapsedMs(), report.getCreated());
+        return report;
+    }
+
+    private List<BulkImportRowResultDto> importChunk(List<ParsedRow> chunk, Role role, Set<String> seenEmails) {
+        BulkImportRowResultDto[] results = new BulkImportRowResultDto[chunk.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            ParsedRow parsed = chunk.get(i);
+            String error = parsed.error() != null ? parsed.error() : firstViolation(parsed.row());
+            if (error != null) {
+                results[i] = result(parsed, Status.INVALID, error);
+            } else if (!seenEmails.add(key(parsed.row().getEmail()))) {
+                results[i] = result(parsed, Status.DUPLICATE, "Email appears earlier in the upload");
+            } else {
+                parsed.row().setEmail(parsed.row().getEmail().trim());
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return List.of(results);
+        }
+
+        Set<String> existing = existingEmails(candidates.stream().map(i -> chunk.get(i).row().getEmail()).toList());
+        List<Integer> toInsert = new ArrayList<>();
+        for (int i : candidates) {
+            if (existing.contains(key(chunk.get(i).row().getEmail()))) {
+                results[i] = result(chunk.get(i), Status.DUPLICATE, "User with this email already exists");
+            } else {
+                toInsert.add(i);
+            }
+        }
+
+        Map<Integer, String> hashes = hashPasswords(chunk, toInsert, results);
+        List<Integer> hashed = toInsert.stream().filter(hashes::containsKey).toList();
+        if (hashed.isEmpty()) {
+            return List.of(results);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Integer> inserted = insert(chunk, hashed, hashes, role, now, results);
+        if (!inserted.isEmpty()) {
+            Map<String, Long> ids = idsByEmail(inserted.stream().map(i -> chunk.get(i).row().getEmail()).toList());
+            for (int i : inserted) {
+                Long id = ids.get(key(chunk.get(i).row().getEmail()));
+                results[i] = result(chunk.get(i), Status.CREATED, null);
+                results[i].setUserId(id);
+                eventPublisher.publishEvent(new UserRegisteredEvent(id, Set.of(role), now));
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Hashes the chunk's passwords on the shared pool, with at most {@code hash-concurrency}
+     * in flight so logins keep getting through. Rows whose hash failed are marked FAILED
+     * and left out of the returned map.
+     */
+    private Map<Integer, String> hashPasswords(List<ParsedRow> chunk, List<Integer> rows,
+                                               BulkImportRowResultDto[] results) {
+        Semaphore inFlight = new Semaphore(hashConcurrency);
+        Map<Integer, CompletableFuture<String>> pending = new HashMap<>();
+        try {
+            for (int i : rows) {
+                inFlight.acquire();
+                CompletableFuture<String> hash = submitHash(chunk.get(i).row().getPassword());
+                hash.whenComplete((ignored, error) -> inFlight.release());
+                pending.put(i, hash);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing imported passwords", e);
+        }
+
+        Map<Integer, String> hashes = new HashMap<>();
+        pending.forEach((i, hash) -> {
+            try {
+                hashes.put(i, hash.join());
+            } catch (CompletionException e) {
+                results[i] = result(chunk.get(i), Status.FAILED, "Password could not be hashed");
+            }
+        });
+        return hashes;
+    }
+
+    private CompletableFuture<String> submitHash(String rawPassword) throws InterruptedException {
+        while (true) {
+            try {
+                return passwordEncoder.encodeAsync(rawPassword, hashStrength);
+            } catch (PasswordHashingBusyException e) {
+                // The pool is shared with logins; back off instead of failing the row.
+                Thread.sleep(BUSY_RETRY_MS);
+            }
+        }
+    }
+
+    /**
+     * Inserts the rows with one JDBC batch. If the batch fails, most likely because another
+     * request created one of the emails meanwhile, the rows are retried one at a time so
+     * only the offending ones fail.
+     */
+    private Set<Integer> insert(List<ParsedRow> chunk, List<Integer> rows, Map<Integer, String> hashes,
+                                Role role, LocalDateTime now, BulkImportRowResultDto[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(),
+                    (ps, i) -> bind(ps, chunk.get(i).row(), hashes.get(i), role, now)));
+            return new HashSet<>(rows);
+        } catch (DataAccessException e) {
+            log.warn("Bulk import batch of {} rows failed ({}); retrying row by row.", rows.size(), e.getMessage());
+        }
+
+        Set<Integer> inserted = new HashSet<>();
+        for (int i : rows) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, chunk.get(i).row(), hashes.get(i), role, now));
+                inserted.add(i);
+            } catch (DuplicateKeyException e) {
+                results[i] = result(chunk.get(i), Status.DUPLICATE, "User with this email already exists");
+            } catch (DataAccessException e) {
+                results[i] = result(chunk.get(i), Status.FAILED, "Could not be saved");
+            }
+        }
+        return inserted;
+    }
+
+    private static void bind(PreparedStatement ps, BulkUserImportRow row, String passwordHash, Role role,
+                             LocalDateTime now) throws SQLException {
+        ps.setString(1, row.getEmail());
+        ps.setString(2, passwordHash);
+        ps.setString(3, row.getFullName());
+        ps.setString(4, row.getPhoneNumber());
+        ps.setString(5, row.getAddress());
+        ps.setInt(6, Role.toMask(Set.of(role)));
+        ps.setTimestamp(7, Timestamp.valueOf(now));
+        ps.setTimestamp(8, Timestamp.valueOf(now));
+        ps.setString(9, row.getSpecialization());
+        ps.setString(10, row.getLocation());
+        if (row.getSlotDurationInMinutes() != null) {
+            ps.setInt(11, row.getSlotDurationInMinutes());
+        } else {
+            ps.setNull(11, Types.INTEGER);
+        }
+    }
+
+    private Set<String> existingEmails(List<String> emails) {
+        Set<String> existing = new HashSet<>();
+        namedJdbcTemplate.queryForList("SELECT email FROM users WHERE email IN (:emails)",
+                        Map.of("emails", emails), String.class)
+                .forEach(email -> existing.add(key(email)));
+        return existing;
+    }
+
+    private Map<String, Long> idsByEmail(List<String> emails) {
+        Map<String, Long> ids = new HashMap<>();
+        namedJdbcTemplate.queryForList("SELECT id, email FROM users WHERE email IN (:emails)", Map.of("emails", emails))
+                .forEach(row -> ids.put(key((String) row.get("email")), ((Number) row.get("id")).longValue()));
+        return ids;
+    }
+
+    private String firstViolation(BulkUserImportRow row) {
+        Set<ConstraintViolation<BulkUserImportRow>> violations = validator.validate(row);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    private static BulkImportRowResultDto result(ParsedRow parsed, Status status, String message) {
+        return BulkImportRowResultDto.builder()
+                .line(parsed.line())
+                .email(parsed.row() != null ? parsed.row().getEmail() : null)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record ParsedRow(long line, BulkUserImportRow row, String error) {
+    }
+
+    private interface RowReader {
+        /** The next record, or {@code null} at the end of the upload. */
+        ParsedRow next() throws IOException;
+    }
+
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long lineNumber;
+
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ParsedRow(lineNumber, objectMapper.readValue(line, BulkUserImportRow.class), null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(lineNumber, null, "Malformed JSON");
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * CSV with a header row naming the columns (camelCase or snake_case, any order).
+     * Fields may be double-quoted, with {@code ""} for a literal quote; a record must fit
+     * on one line.
+     */
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private String[] columns;
+        private long lineNumber;
+
+        CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = split(line);
+                if (fields == null) {
+                    return new ParsedRow(lineNumber, null, "Unterminated quoted field");
+                }
+                if (columns == null) {
+                    columns = fields.stream().map(CsvRowReader::normalizeColumn).toArray(String[]::new);
+                    continue;
+                }
+                return toRow(fields);
+            }
+            return null;
+        }
+
+        private ParsedRow toRow(List<String> fields) {
+            BulkUserImportRow row = new BulkUserImportRow();
+            for (int c = 0; c < columns.length && c < fields.size(); c++) {
+                String value = fields.get(c).isEmpty() ? null : fields.get(c);
+                switch (columns[c]) {
+                    case "email" -> row.setEmail(value);
+                    case "password" -> row.setPassword(value);
+                    case "fullname" -> row.setFullName(value);
+                    case "phonenumber" -> row.setPhoneNumber(value);
+                    case "address" -> row.setAddress(value);
+                    case "specialization" -> row.setSpecialization(value);
+                    case "location" -> row.setLocation(value);
+                    case "slotdurationinminutes" -> {
+                        try {
+                            row.setSlotDurationInMinutes(value != null ? Integer.valueOf(value.trim()) : null);
+                        } catch (NumberFormatException e) {
+                            return new ParsedRow(lineNumber, row, "Slot duration must be a number");
+                        }
+                    }
+                    default -> {
+                        // Unknown columns are ignored.
+                    }
+                }
+            }
+            return new ParsedRow(lineNumber, row, null);
+        }
+
+        private static String normalizeColumn(String name) {
+            return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Splits one CSV line, or returns {@code null} if a quoted field is not closed.
+         */
+        static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char ch = line.charAt(i);
+                if (quoted) {
+                    if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (ch == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(ch);
+                }
+            }
+            if (quoted) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Range covered by the doctor calendar around the requested date.
+ */
+public enum CalendarView {
+    /** The requested day only. */
+    DAY,
+    /** Monday to Sunday of the requested date's week. */
+    WEEK,
+    /** The requested date's calendar month. */
+    MONTH;
+
+    public LocalDate start(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    /** Exclusive end of the range starting at {@code start}. */
+    public LocalDate end(LocalDate start) {
+        return switch (this) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,458 @@
+package com.hospital.Hospital.Management.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hospital.Hospital.Management.dto.ConsultationNoteDto;
+import com.hospital.Hospital.Management.dto.NoteSearchHitDto;
+import com.hospital.Hospital.Management.event.ConsultationNoteSavedEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Full-text search over consultation notes, backed by an embedded Lucene index under
+ * {@code hospital.notes.search.index-dir}. Searches are always scoped to one doctor
+ * and are answered from the index alone: snippets are highlighted from the stored
+ * copies of the text, so the compressed note bodies are only read when the index is rebuilt.
+ *
+ * <p>New notes are indexed after their transaction commits and become searchable
+ * immediately on the node that saved them; the index is committed to disk every
+ * {@code commit-interval-ms}. Every node keeps its own index, so each one also polls
+ * {@code consultation_notes} every {@code sync-interval-ms} for notes created since its
+ * last poll (with an overlap for transactions that committed late), which is how notes
+ * saved on other nodes arrive. Anything still missed, e.g. lost to a crash, is restored
+ * by the periodic rebuild, which re-reads all notes in id order and then drops documents
+ * of notes that no longer exist.
+ */
+@Service
+@Slf4j
+public class ConsultationNoteSearchService {
+
+    static final String ID = "id";
+    static final String DOCTOR_ID = "doctorId";
+    static final String APPOINTMENT_ID = "appointmentId";
+    static final String PATIENT_ID = "patientId";
+    static final String PATIENT_NAME = "patientName";
+    static final String APPOINTMENT_TIME = "appointmentTime";
+    static final String DIAGNOSIS = "diagnosis";
+    static final String PRESCRIPTION = "prescription";
+    static final String TREATMENT_DETAILS = "treatmentDetails";
+    static final String REMARKS = "remarks";
+    static final String GENERATION = "generation";
+    static final String[] TEXT_FIELDS = {DIAGNOSIS, PRESCRIPTION, TREATMENT_DETAILS, REMARKS};
+
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            DIAGNOSIS, 2.0f, PRESCRIPTION, 1.5f, TREATMENT_DETAILS, 1.0f, REMARKS, 0.5f);
+    private static final Set<String> HIT_FIELDS = Set.of(ID, APPOINTMENT_ID, PATIENT_ID, PATIENT_NAME, APPOINTMENT_TIME);
+    private static final FieldType TEXT_WITH_OFFSETS = textWithOffsets();
+
+    private static final String NOTE_SQL = "SELECT n.id, n.appointment_id, a.doctor_id, a.patient_id, p.full_name, " +
+            "a.appointment_date_time, b.dictionary_id, b.raw_length, b.content " +
+            "FROM consultation_notes n JOIN consultation_note_bodies b ON b.note_id = n.id " +
+            "JOIN appointments a ON a.id = n.appointment_id " +
+            "JOIN users p ON p.id = a.patient_id ";
+
+    // While the storage migration runs, notes it has not reached yet have no body row.
+    private static final String LEGACY_NOTE_SQL = "SELECT n.id, n.appointment_id, a.doctor_id, a.patient_id, p.full_name, " +
+            "a.appointment_date_time, b.dictionary_id, b.raw_length, b.content, " +
+            "n.diagnosis, n.prescription, n.treatment_details, n.remarks " +
+            "FROM consultation_notes n LEFT JOIN consultation_note_bodies b ON b.note_id = n.id " +
+            "JOIN appointments a ON a.id = n.appointment_id " +
+            "JOIN users p ON p.id = a.patient_id ";
+
+    static final String REBUILD_WHERE = "WHERE n.id > ? ORDER BY n.id LIMIT ?";
+
+    static final String SYNC_WHERE = "WHERE n.created_at >= ? ORDER BY n.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NoteBodyCodec codec;
+    private final Executor executor;
+    private final Path indexDirectory;
+    private final int rebuildBatchSize;
+    private final int maxResults;
+    private final long syncOverlapMs;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    // Stamped on every document written; a rebuild starts a new one and drops documents it did not rewrite.
+    private volatile String generation = Long.toString(System.currentTimeMillis());
+    // Held shared by single-note writes and exclusively by a rebuild switching generation, so no write
+    // stamped with the old generation can land after the rebuild rewrote the note and be swept.
+    private final ReadWriteLock generationLock = new ReentrantReadWriteLock();
+    private volatile LocalDateTime lastSync;
+    private String noteSql = NOTE_SQL;
+
+    @Autowired
+    public ConsultationNoteSearchService(JdbcTemplate jdbcTemplate,
+                                         NoteBodyCodec codec,
+                                         @Qualifier("taskExecutor") Executor executor,
+                                         @Value("${hospital.notes.search.index-dir:data/note-index}") String indexDirectory,
+                                         @Value("${hospital.notes.search.rebuild-batch-size:500}") int rebuildBatchSize,
+                                         @Value("${hospital.notes.search.max-results:50}") int maxResults,
+                                         @Value("${hospital.notes.search.sync-interval-ms:10000}") long syncIntervalMs) {
+        this(jdbcTemplate, codec, executor, Paths.get(indexDirectory), rebuildBatchSize, maxResults, syncIntervalMs);
+    }
+
+    ConsultationNoteSearchService(JdbcTemplate jdbcTemplate, NoteBodyCodec codec, Executor executor,
+                                  Path indexDirectory, int rebuildBatchSize, int maxResults, long syncIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.codec = codec;
+        this.executor = executor;
+        this.indexDirectory = indexDirectory;
+        this.rebuildBatchSize = Math.max(1, rebuildBatchSize);
+        this.maxResults = Math.max(1, maxResults);
+        this.syncOverlapMs = Math.max(syncIntervalMs, 1000) * 3;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(indexDirectory);
+        directory = FSDirectory.open(indexDirectory);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        lastSync = LocalDateTime.now();
+        if (NoteStorageMigrationService.hasLegacyColumns(jdbcTemplate)) {
+            noteSql = LEGACY_NOTE_SQL;
+        }
+        log.info("Consultation note index opened at {} with {} documents.", indexDirectory, writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (searcherManager != null) {
+            searcherManager.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+        if (directory != null) {
+            directory.close();
+        }
+    }
+
+    /**
+     * An empty index means a new install or a lost index directory; either way the notes
+     * already in the database have to be indexed before search is useful.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Notes of {@code doctorId} matching {@code queryText}, best match first. The query
+     * accepts Lucene syntax ({@code "exact phrase"}, {@code metformin OR insulin},
+     * {@code diagnosis:asthma}); all terms are required unless combined with OR.
+     */
+    public List<NoteSearchHitDto> search(Long doctorId, String queryText, int limit) {
+        if (queryText == null || queryText.isBlank()) {
+            throw new IllegalStateException("A search query is required.");
+        }
+        Query query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(DOCTOR_ID, doctorId.toString())), Occur.FILTER)
+                .add(parse(queryText), Occur.MUST)
+                .build();
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs top = searcher.search(query, Math.max(1, Math.min(limit, maxResults)));
+            Map<String, String[]> snippets = UnifiedHighlighter.builder(searcher, analyzer)
+                    .withFormatter(new DefaultPassageFormatter("<b>", "</b>", "... ", true))
+                    .withMaxNoHighlightPassages(0)
+                    .build()
+                    .highlightFields(TEXT_FIELDS, query, top);
+
+            StoredFields stored = searcher.storedFields();
+            List<NoteSearchHitDto> hits = new ArrayList<>(top.scoreDocs.length);
+            for (int i = 0; i < top.scoreDocs.length; i++) {
+                Document doc = stored.document(top.scoreDocs[i].doc, HIT_FIELDS);
+                Map<String, String> highlights = new LinkedHashMap<>();
+                for (String field : TEXT_FIELDS) {
+                    String snippet = snippets.get(field)[i];
+                    if (snippet != null) {
+                        highlights.put(field, snippet);
+                    }
+                }
+                hits.add(NoteSearchHitDto.builder()
+                        .noteId(Long.valueOf(doc.get(ID)))
+                        .appointmentId(doc.getField(APPOINTMENT_ID).numericValue().longValue())
+                        .patientId(doc.getField(PATIENT_ID).numericValue().longValue())
+                        .patientName(doc.get(PATIENT_NAME))
+                        .appointmentDateTime(doc.get(APPOINTMENT_TIME) != null ? LocalDateTime.parse(doc.get(APPOINTMENT_TIME)) : null)
+                        .score(top.scoreDocs[i].score)
+                        .highlights(highlights)
+                        .build());
+            }
+            return hits;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Consultation note search failed", e);
+        } finally {
+            if (searcher != null) {
+                release(searcher);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteSaved(ConsultationNoteSavedEvent event) {
+        generationLock.readLock().lock();
+        try {
+            writer.updateDocument(new Term(ID, event.noteId().toString()), toDocument(event, generation));
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            // The note itself is saved; the next sync or rebuild picks it up.
+            log.error("Failed to index consultation note {}: {}", event.noteId(), e.getMessage());
+        } finally {
+            generationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes notes created since the previous poll, including those saved on other nodes.
+     * Re-indexing a note this node already has just replaces its document.
+     */
+    @Scheduled(fixedDelayString = "${hospital.notes.search.sync-interval-ms:10000}",
+            initialDelayString = "${hospital.notes.search.sync-interval-ms:10000}")
+    public void syncRecent() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync.minus(syncOverlapMs, ChronoUnit.MILLIS);
+        generationLock.readLock().lock();
+        try {
+            List<ConsultationNoteSavedEvent> notes = jdbcTemplate.query(noteSql + SYNC_WHERE,
+                    (rs, rowNum) -> fromRow(rs), Timestamp.valueOf(since));
+            for (ConsultationNoteSavedEvent note : notes) {
+                writer.updateDocument(new Term(ID, note.noteId().toString()), toDocument(note, generation));
+            }
+            if (!notes.isEmpty()) {
+                searcherManager.maybeRefresh();
+            }
+            lastSync = now;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to sync recent consultation notes into the index: {}", e.getMessage());
+        } finally {
+            generationLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hospital.notes.search.commit-interval-ms:5000}")
+    public void commit() {
+        if (writer == null || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.error("Failed to commit the consultation note index: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${hospital.notes.search.rebuild-cron:0 30 4 * * SUN}")
+    public void scheduledRebuild() {
+        if (!rebuilding.get()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Starts re-indexing every note in the background. Documents are replaced in place,
+     * so searches keep working while it runs; documents it did not rewrite, i.e. of notes
+     * deleted since they were indexed, are removed at the end. The returned future
+     * completes with the number of notes indexed.
+     */
+    public CompletableFuture<Integer> rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("A note index rebuild is already in progress.");
+        }
+        log.info("Rebuilding the consultation note index.");
+        return CompletableFuture.supplyAsync(this::reindexAll, executor)
+                .whenComplete((indexed, error) -> {
+                    rebuilding.set(false);
+                    if (error != null) {
+                        log.error("Consultation note index rebuild failed: {}", error.getMessage());
+                    } else {
+                        log.info("Consultation note index rebuild indexed {} notes.", indexed);
+                    }
+                });
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    int reindexAll() {
+        // Notes saved while the rebuild runs are stamped with the new generation too, so they survive the sweep.
+        String current = Long.toString(System.currentTimeMillis());
+        generationLock.writeLock().lock();
+        try {
+            generation = current;
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+        long afterId = 0;
+        int indexed = 0;
+        try {
+            while (true) {
+                List<ConsultationNoteSavedEvent> batch = jdbcTemplate.query(noteSql + REBUILD_WHERE,
+                        (rs, rowNum) -> fromRow(rs), afterId, rebuildBatchSize);
+                for (ConsultationNoteSavedEvent note : batch) {
+                    writer.updateDocument(new Term(ID, note.noteId().toString()), toDocument(note, current));
+                }
+                indexed += batch.size();
+                if (batch.size() < rebuildBatchSize) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).noteId();
+            }
+            writer.deleteDocuments(new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), Occur.MUST)
+                    .add(new TermQuery(new Term(GENERATION, current)), Occur.MUST_NOT)
+                    .build());
+            writer.commit();
+            searcherManager.maybeRefresh();
+            return indexed;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Query parse(String queryText) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(TEXT_FIELDS, analyzer, FIELD_BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(queryText);
+        } catch (ParseException e) {
+            // Treat input that is not valid query syntax as plain words.
+            try {
+                return parser.parse(QueryParser.escape(queryText));
+            } catch (ParseException escaped) {
+                throw new IllegalStateException("Invalid search query.");
+            }
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Failed to release a note index searcher: {}", e.getMessage());
+        }
+    }
+
+    private static Document toDocument(ConsultationNoteSavedEvent note, String generation) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, note.noteId().toString(), Field.Store.YES));
+        doc.add(new StringField(GENERATION, generation, Field.Store.NO));
+        doc.add(new StringField(DOCTOR_ID, note.doctorId().toString(), Field.Store.NO));
+        doc.add(new StoredField(APPOINTMENT_ID, note.appointmentId()));
+        doc.add(new StoredField(PATIENT_ID, note.patientId()));
+        if (note.patientName() != null) {
+            doc.add(new StoredField(PATIENT_NAME, note.patientName()));
+        }
+        if (note.appointmentDateTime() != null) {
+            doc.add(new StoredField(APPOINTMENT_TIME, note.appointmentDateTime().toString()));
+        }
+        addText(doc, DIAGNOSIS, note.diagnosis());
+        addText(doc, PRESCRIPTION, note.prescription());
+        addText(doc, TREATMENT_DETAILS, note.treatmentDetails());
+        addText(doc, REMARKS, note.remarks());
+        return doc;
+    }
+
+    private static void addText(Document doc, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            doc.add(new Field(field, value, TEXT_WITH_OFFSETS));
+        }
+    }
+
+    private ConsultationNoteSavedEvent fromRow(ResultSet rs) throws SQLException {
+        Timestamp appointmentTime = rs.getTimestamp("appointment_date_time");
+        byte[] content = rs.getBytes("content");
+        ConsultationNoteDto body = content != null
+                ? codec.decode(rs.getInt("dictionary_id"), rs.getInt("raw_length"), content)
+                : NoteStorageMigrationService.legacyNote(rs);
+        return new ConsultationNoteSavedEvent(
+                rs.getLong("id"),
+                rs.getLong("appointment_id"),
+                rs.getLong("doctor_id"),
+                rs.getLong("patient_id"),
+                rs.getString("full_name"),
+                appointmentTime != null ? appointmentTime.toLocalDateTime() : null,
+                body.getDiagnosis(),
+                body.getPrescription(),
+                body.getTreatmentDetails(),
+                body.getRemarks());
+    }
+
+    // Offsets in the postings let the highlighter find passages without re-analyzing the text.
+    private static FieldType textWithOffsets() {
+        FieldType type = new FieldType(TextField.TYPE_STORED);
+        type.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        type.freeze();
+        return type;
+    }
+}
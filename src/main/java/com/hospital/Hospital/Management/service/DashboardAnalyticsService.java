@@ -0,0 +1,132 @@
+package com.hospital.Hospital.Management.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hospital.Hospital.Management.dto.DashboardAnalyticsDto;
+import com.hospital.Hospital.Management.dto.RoleCountDto;
+import com.hospital.Hospital.Management.dto.StatusCountDto;
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.repository.AppointmentRepository;
+import com.hospital.Hospital.Management.repository.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Computes dashboard totals with GROUP BY queries and serves them from a
+ * stale-while-revalidate cache: fresh results are returned as-is, stale results are
+ * returned immediately while a single background refresh runs, and only a missing or
+ * expired snapshot makes the caller wait for the database.
+ */
+@Service
+@Slf4j
+public class DashboardAnalyticsService {
+
+    private final UserRepository userRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final Executor analyticsExecutor;
+
+    private final AtomicReference<CachedAnalytics> cache = new AtomicReference<>();
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean(false);
+
+    @Value("${hospital.analytics.cache.fresh-seconds:30}")
+    private long freshSeconds = 30;
+
+    @Value("${hospital.analytics.cache.max-stale-seconds:300}")
+    private long maxStaleSeconds = 300;
+
+    public DashboardAnalyticsService(UserRepository userRepository,
+                                     AppointmentRepository appointmentRepository,
+                                     @Qualifier("analyticsExecutor") Executor analyticsExecutor) {
+        this.userRepository = userRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.analyticsExecutor = analyticsExecutor;
+    }
+
+    public DashboardAnalyticsDto getAnalytics() {
+        CachedAnalytics cached = cache.get();
+        long now = System.currentTimeMillis();
+
+        if (cached == null || cached.ageMillis(now) > (freshSeconds + maxStaleSeconds) * 1000) {
+            log.debug("Dashboard analytics cache empty or expired; loading synchronously.");
+            return refresh();
+        }
+        if (cached.ageMillis(now) > freshSeconds * 1000) {
+            refreshInBackground();
+        }
+        return cached.analytics();
+    }
+
+    public DashboardAnalyticsDto refresh() {
+        DashboardAnalyticsDto analytics = loadAnalytics();
+        cache.set(new CachedAnalytics(analytics, System.currentTimeMillis()));
+        return analytics;
+    }
+
+    public void evict() {
+        cache.set(null);
+    }
+
+    public DashboardAnalyticsDto loadAnalytics() {
+        return loadCountsAsync().join().toDto();
+    }
+
+    /**
+     * Runs the three aggregate queries in parallel; none of them materialises entities.
+     * The results are combined without blocking an executor thread.
+     */
+    public CompletableFuture<DashboardCounts> loadCountsAsync() {
+        CompletableFuture<Long> totalUsersFuture =
+                CompletableFuture.supplyAsync(userRepository::count, analyticsExecutor);
+        CompletableFuture<List<RoleCountDto>> roleCountsFuture =
+                CompletableFuture.supplyAsync(userRepository::countUsersByRole, analyticsExecutor);
+        CompletableFuture<List<StatusCountDto>> statusCountsFuture =
+                CompletableFuture.supplyAsync(appointmentRepository::countAppointmentsByStatus, analyticsExecutor);
+
+        return CompletableFuture.allOf(totalUsersFuture, roleCountsFuture, statusCountsFuture)
+                .thenApply(ignored -> {
+                    Map<Role, Long> usersByRole = new EnumMap<>(Role.class);
+                    roleCountsFuture.join().forEach(row -> usersByRole.put(row.getRole(), row.getCount()));
+
+                    Map<AppointmentStatus, Long> appointmentsByStatus = new EnumMap<>(AppointmentStatus.class);
+                    statusCountsFuture.join().forEach(row -> appointmentsByStatus.put(row.getStatus(), row.getCount()));
+
+                    return new DashboardCounts(totalUsersFuture.join(), usersByRole, appointmentsByStatus);
+                });
+    }
+
+    private void refreshInBackground() {
+        if (!refreshInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            loadCountsAsync().whenComplete((counts, error) -> {
+                if (error == null) {
+                    cache.set(new CachedAnalytics(counts.toDto(), System.currentTimeMillis()));
+                } else {
+                    log.error("Background refresh of dashboard analytics failed: {}", error.getMessage());
+                }
+                refreshInProgress.set(false);
+            });
+        } catch (RuntimeException e) {
+            refreshInProgress.set(false);
+            log.warn("Could not schedule dashboard analytics refresh: {}", e.getMessage());
+        }
+    }
+
+    private record CachedAnalytics(DashboardAnalyticsDto analytics, long loadedAtMillis) {
+        long ageMillis(long now) {
+            return now - loadedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.hospital.Hospital.Management.service;
+
+import java.util.Map;
+
+import com.hospital.Hospital.Management.dto.DashboardAnalyticsDto;
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+import com.hospital.Hospital.Management.model.Role;
+
+/**
+ * Raw dashboard totals as read from the database or from the live counters.
+ */
+public record DashboardCounts(long totalUsers, Map<Role, Long> usersByRole,
+                              Map<AppointmentStatus, Long> appointmentsByStatus) {
+
+    public DashboardAnalyticsDto toDto() {
+        long totalAppointments = appointmentsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        return DashboardAnalyticsDto.builder()
+                .totalUsers(totalUsers)
+                .totalDoctors(usersByRole.getOrDefault(Role.ROLE_DOCTOR, 0L))
+                .totalPatients(usersByRole.getOrDefault(Role.ROLE_PATIENT, 0L))
+                .totalAppointments(totalAppointments)
+                .scheduledAppointments(appointmentsByStatus.getOrDefault(AppointmentStatus.SCHEDULED, 0L))
+                .completedAppointments(appointmentsByStatus.getOrDefault(AppointmentStatus.COMPLETED, 0L))
+                .canceledAppointments(appointmentsByStatus.getOrDefault(AppointmentStatus.CANCELLED_BY_DOCTOR, 0L)
+                        + appointmentsByStatus.getOrDefault(AppointmentStatus.CANCELLED_BY_PATIENT, 0L))
+                .build();
+    }
+}
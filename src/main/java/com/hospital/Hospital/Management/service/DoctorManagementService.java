@@ -1,9 +1,18 @@
 package com.hospital.Hospital.Management.service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,20 +23,28 @@ import com.hospital.Hospital.Management.dto.AppointmentActionResponseDto;
 import com.hospital.Hospital.Management.dto.AppointmentHistoryDto;
 import com.hospital.Hospital.Management.dto.AppointmentResponseDto;
 import com.hospital.Hospital.Management.dto.ConsultationNoteDto;
+import com.hospital.Hospital.Management.dto.DoctorCalendarDayDto;
+import com.hospital.Hospital.Management.dto.DoctorCalendarDto;
 import com.hospital.Hospital.Management.dto.DoctorProfileDto;
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
 import com.hospital.Hospital.Management.dto.SetAvailabilityResponseDto;
+import com.hospital.Hospital.Management.dto.TimeSlotDto;
 import com.hospital.Hospital.Management.dto.UpcomingAppointmentDto;
 import com.hospital.Hospital.Management.dto.WeeklyAvailabilityRequestDto;
+import com.hospital.Hospital.Management.event.AppointmentStatusChangedEvent;
+import com.hospital.Hospital.Management.event.ConsultationNoteSavedEvent;
 import com.hospital.Hospital.Management.exception.ResourceNotFoundException;
 import com.hospital.Hospital.Management.exception.SlotUnavailableException;
 import com.hospital.Hospital.Management.model.Appointment;
 import com.hospital.Hospital.Management.model.AppointmentStatus;
 import com.hospital.Hospital.Management.model.ConsultationNote;
+import com.hospital.Hospital.Management.model.ConsultationNoteBody;
 import com.hospital.Hospital.Management.model.DayOfWeek;
 import com.hospital.Hospital.Management.model.DoctorAvailability;
 import com.hospital.Hospital.Management.model.Role;
 import com.hospital.Hospital.Management.model.User;
 import com.hospital.Hospital.Management.repository.AppointmentRepository;
+import com.hospital.Hospital.Management.repository.ConsultationNoteBodyRepository;
 import com.hospital.Hospital.Management.repository.ConsultationNoteRepository;
 import com.hospital.Hospital.Management.repository.DoctorAvailabilityRepository;
 import com.hospital.Hospital.Management.repository.UserRepository;
@@ -38,20 +55,35 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class DoctorManagementService {
 
+    static final int MAX_HISTORY_PAGE_SIZE = 200;
+    private static final String HISTORY_SORT_KEY = "APPOINTMENT_TIME";
+    private static final List<AppointmentStatus> CALENDAR_STATUSES = List.of(
+            AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED_BY_DOCTOR, AppointmentStatus.COMPLETED);
+
     private final UserRepository userRepository;
     private final AppointmentRepository appointmentRepository;
     private final DoctorAvailabilityRepository availabilityRepository;
     private final ConsultationNoteRepository noteRepository;
+    private final ConsultationNoteBodyRepository noteBodyRepository;
+    private final NoteBodyCodec noteBodyCodec;
+    private final NoteStorageMigrationService noteStorageMigrationService;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DoctorManagementService(UserRepository userRepository, AppointmentRepository appointmentRepository,
                                    DoctorAvailabilityRepository availabilityRepository, ConsultationNoteRepository noteRepository,
-                                   EmailService emailService) {
+                                   ConsultationNoteBodyRepository noteBodyRepository, NoteBodyCodec noteBodyCodec,
+                                   NoteStorageMigrationService noteStorageMigrationService,
+                                   EmailService emailService, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.appointmentRepository = appointmentRepository;
         this.availabilityRepository = availabilityRepository;
         this.noteRepository = noteRepository;
+        this.noteBodyRepository = noteBodyRepository;
+        this.noteBodyCodec = noteBodyCodec;
+        this.noteStorageMigrationService = noteStorageMigrationService;
         this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -133,6 +165,54 @@ public class DoctorManagementService {
         return ResponseEntity.ok(appointments);
     }
 
+    /**
+     * The doctor's appointments and open slots for the day, week or month around
+     * {@code date}, bucketed per day. Appointments come from one range query sorted by
+     * time and the free slots are generated from the weekly availability in the same
+     * pass, so the work is bounded by the range rather than the doctor's whole history.
+     */
+    @Transactional(readOnly = true)
+    public DoctorCalendarDto getCalendar(Long doctorId, LocalDate date, CalendarView view) {
+        User doctor = findDoctorById(doctorId);
+        LocalDate from = view.start(date);
+        LocalDate to = view.end(from);
+        List<UpcomingAppointmentDto> appointments = appointmentRepository.findCalendarAppointments(
+                doctorId, CALENDAR_STATUSES, from.atStartOfDay(), to.atStartOfDay());
+
+        Map<java.time.DayOfWeek, List<DoctorAvailability>> rulesByDay = new EnumMap<>(java.time.DayOfWeek.class);
+        for (DoctorAvailability rule : availabilityRepository.findByDoctorId(doctorId)) {
+            rulesByDay.computeIfAbsent(java.time.DayOfWeek.valueOf(rule.getDayOfWeek().name()), day -> new ArrayList<>())
+                    .add(rule);
+        }
+        rulesByDay.values().forEach(rules -> rules.sort(Comparator.comparing(DoctorAvailability::getStartTime)));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<DoctorCalendarDayDto> days = new ArrayList<>();
+        int next = 0;
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            int first = next;
+            while (next < appointments.size() && appointments.get(next).getAppointmentDateTime().toLocalDate().equals(day)) {
+                next++;
+            }
+            List<UpcomingAppointmentDto> booked = appointments.subList(first, next);
+            days.add(DoctorCalendarDayDto.builder()
+                    .date(day)
+                    .appointments(booked)
+                    .freeSlots(freeSlots(day, rulesByDay.getOrDefault(day.getDayOfWeek(), List.of()),
+                            doctor.getSlotDurationInMinutes(), booked, now))
+                    .build());
+        }
+
+        return DoctorCalendarDto.builder()
+                .doctorId(doctorId)
+                .view(view)
+                .from(from)
+                .to(to.minusDays(1))
+                .slotDurationInMinutes(doctor.getSlotDurationInMinutes())
+                .days(days)
+                .build();
+    }
+
     @Transactional
     public AppointmentActionResponseDto updateAppointmentStatus(Long doctorId, Long appointmentId, AppointmentStatus newStatus) {
         log.info("Doctor ID: {} attempting to update appointment ID: {} to status: {}", doctorId, appointmentId, newStatus);
@@ -156,9 +236,12 @@ public class DoctorManagementService {
             throw new IllegalStateException("Can only decline an appointment that is in SCHEDULED state.");
         }
 
+        AppointmentStatus previousStatus = appointment.getStatus();
         appointment.setStatus(newStatus);
         Appointment updatedAppointment = appointmentRepository.save(appointment);
         log.info("Appointment ID: {} status updated to {}", appointmentId, newStatus);
+        eventPublisher.publishEvent(AppointmentStatusChangedEvent.changed(appointmentId, doctorId,
+                updatedAppointment.getDoctor().getSpecialization(), previousStatus, newStatus));
 
         try {
             if (newStatus == AppointmentStatus.CONFIRMED_BY_DOCTOR) {
@@ -224,21 +307,56 @@ public class DoctorManagementService {
         return mapToAppointmentResponseDto(savedAppointment);
     }
 
+    /**
+     * One page of the doctor's completed appointments with their note summaries, newest
+     * first. Served by a single projection query, so the cost does not grow with the
+     * doctor's total history; with {@code includeNotes} the full notes of the page are
+     * read in one more query and decompressed.
+     */
     @Transactional(readOnly = true)
-    public List<AppointmentHistoryDto> getAppointmentHistory(Long doctorId, Long patientId) {
+    public KeysetPageDto<AppointmentHistoryDto> getAppointmentHistory(Long doctorId, Long patientId,
+                                                                      LocalDateTime from, LocalDateTime to,
+                                                                      int size, String cursor, boolean includeNotes) {
         log.info("Fetching appointment history for doctor ID: {}. Optional patient filter ID: {}", doctorId, patientId);
-        User doctor = findDoctorById(doctorId);
-        List<Appointment> completedAppointments;
-        if (patientId != null) {
-            User patient = userRepository.findById(patientId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + patientId));
-            completedAppointments = appointmentRepository.findByDoctorAndPatientAndStatus(doctor, patient, AppointmentStatus.COMPLETED);
-        } else {
-            completedAppointments = appointmentRepository.findByDoctorAndStatusIn(doctor, List.of(AppointmentStatus.COMPLETED));
+        findDoctorById(doctorId);
+        if (patientId != null && !userRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with ID: " + patientId);
+        }
+        KeysetPageRequest paging = KeysetPageRequest.of(HISTORY_SORT_KEY, size, MAX_HISTORY_PAGE_SIZE, cursor);
+
+        List<AppointmentHistoryDto> rows = appointmentRepository.findHistory(doctorId, AppointmentStatus.COMPLETED,
+                patientId, from, to, paging.afterDateTime(), paging.afterId(), paging.limit());
+        KeysetPageDto<AppointmentHistoryDto> page = paging.toPage(rows,
+                AppointmentHistoryDto::getAppointmentDateTime, AppointmentHistoryDto::getAppointmentId);
+        if (includeNotes) {
+            attachNotes(page.getItems());
+        }
+        return page;
+    }
+
+    private void attachNotes(List<AppointmentHistoryDto> page) {
+        List<Long> noteIds = page.stream()
+                .map(AppointmentHistoryDto::getNoteId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (noteIds.isEmpty()) {
+            return;
+        }
+        Map<Long, ConsultationNoteBody> bodies = noteBodyRepository.findAllById(noteIds).stream()
+                .collect(Collectors.toMap(ConsultationNoteBody::getNoteId, Function.identity()));
+        // Notes the storage migration has not reached yet still sit in the legacy columns.
+        List<Long> unmigrated = noteIds.stream().filter(id -> !bodies.containsKey(id)).toList();
+        Map<Long, ConsultationNoteDto> legacyNotes = unmigrated.isEmpty()
+                ? Map.of()
+                : noteStorageMigrationService.findLegacyNotes(unmigrated);
+        for (AppointmentHistoryDto row : page) {
+            ConsultationNoteBody body = row.getNoteId() != null ? bodies.get(row.getNoteId()) : null;
+            if (body != null) {
+                row.setConsultationNote(noteBodyCodec.decode(body.getDictionaryId(), body.getRawLength(), body.getContent()));
+            } else if (row.getNoteId() != null) {
+                row.setConsultationNote(legacyNotes.get(row.getNoteId()));
+            }
         }
-        return completedAppointments.stream()
-                .map(this::mapToAppointmentHistoryDto)
-                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -253,13 +371,21 @@ public class DoctorManagementService {
         }
         ConsultationNote note = ConsultationNote.builder()
                 .appointment(appointment)
-                .diagnosis(noteDto.getDiagnosis())
-                .prescription(noteDto.getPrescription())
-                .treatmentDetails(noteDto.getTreatmentDetails())
-                .remarks(noteDto.getRemarks())
+                .summary(NoteBodyCodec.summarize(noteDto.getDiagnosis()))
                 .build();
         ConsultationNote savedNote = noteRepository.save(note);
+        NoteBodyCodec.Encoded encoded = noteBodyCodec.encode(noteDto);
+        noteBodyRepository.save(ConsultationNoteBody.builder()
+                .note(savedNote)
+                .dictionaryId(encoded.dictionaryId())
+                .rawLength(encoded.rawLength())
+                .content(encoded.content())
+                .build());
         log.info("Consultation note saved for appointment ID: {}", appointmentId);
+        eventPublisher.publishEvent(new ConsultationNoteSavedEvent(savedNote.getId(), appointmentId, doctorId,
+                appointment.getPatient().getId(), appointment.getPatient().getFullName(),
+                appointment.getAppointmentDateTime(), noteDto.getDiagnosis(), noteDto.getPrescription(),
+                noteDto.getTreatmentDetails(), noteDto.getRemarks()));
         return AddNoteResponseDto.builder()
                 .noteId(savedNote.getId())
                 .appointmentId(appointment.getId())
@@ -298,6 +424,38 @@ public class DoctorManagementService {
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + appointmentId + " for this doctor."));
     }
 
+    /**
+     * Slots from the day's availability rules that are neither booked nor already past.
+     * Slots are laid out as in the doctor search, and both they and {@code booked} are
+     * in time order, so one merge walk finds the taken ones.
+     */
+    private static List<TimeSlotDto> freeSlots(LocalDate day, List<DoctorAvailability> rules, Integer slotDuration,
+                                               List<UpcomingAppointmentDto> booked, LocalDateTime now) {
+        if (rules.isEmpty() || slotDuration == null || slotDuration <= 0) {
+            return List.of();
+        }
+        List<TimeSlotDto> slots = new ArrayList<>();
+        int next = 0;
+        for (DoctorAvailability rule : rules) {
+            LocalTime start = rule.getStartTime();
+            while (start.isBefore(rule.getEndTime())) {
+                LocalTime end = start.plusMinutes(slotDuration);
+                if (end.isAfter(rule.getEndTime()) || end.isBefore(start)) {
+                    break;
+                }
+                while (next < booked.size() && booked.get(next).getAppointmentDateTime().toLocalTime().isBefore(start)) {
+                    next++;
+                }
+                boolean taken = next < booked.size() && booked.get(next).getAppointmentDateTime().toLocalTime().equals(start);
+                if (!taken && day.atTime(start).isAfter(now)) {
+                    slots.add(TimeSlotDto.builder().startTime(start).endTime(end).status("AVAILABLE").build());
+                }
+                start = end.plusMinutes(1);
+            }
+        }
+        return slots;
+    }
+
     private UpcomingAppointmentDto mapToUpcomingAppointmentDto(Appointment appointment) {
         return UpcomingAppointmentDto.builder()
                 .appointmentId(appointment.getId())
@@ -319,25 +477,4 @@ public class DoctorManagementService {
                 .createdAt(appointment.getCreatedAt())
                 .build();
     }
-
-    private AppointmentHistoryDto mapToAppointmentHistoryDto(Appointment appointment) {
-        ConsultationNoteDto noteDto = noteRepository.findByAppointment(appointment)
-                .map(note -> {
-                    ConsultationNoteDto dto = new ConsultationNoteDto();
-                    dto.setDiagnosis(note.getDiagnosis());
-                    dto.setPrescription(note.getPrescription());
-                    dto.setTreatmentDetails(note.getTreatmentDetails());
-                    dto.setRemarks(note.getRemarks());
-                    return dto;
-                }).orElse(null);
-        return AppointmentHistoryDto.builder()
-                .appointmentId(appointment.getId())
-                .doctorId(appointment.getDoctor().getId())
-                .doctorName(appointment.getDoctor().getFullName())
-                .patientId(appointment.getPatient().getId())
-                .patientName(appointment.getPatient().getFullName())
-                .appointmentDateTime(appointment.getAppointmentDateTime())
-                .consultationNote(noteDto)
-                .build();
-    }
 }
\ No newline at end of file
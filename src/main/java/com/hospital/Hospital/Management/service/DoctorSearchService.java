@@ -38,7 +38,7 @@ public class DoctorSearchService {
     public List<DoctorSearchResultDto> findDoctorsByCriteria(String specialization, String location, double minRating) {
         Specification<User> spec = (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
-            predicates.add(criteriaBuilder.isMember(Role.ROLE_DOCTOR, root.get("roles")));
+            predicates.add(root.get("roles").in(Role.setsContaining(Role.ROLE_DOCTOR)));
             predicates.add(root.get("slotDurationInMinutes").isNotNull()); // Only show doctors who have set their availability
 
             if (specialization != null && !specialization.trim().isEmpty()) {
@@ -1,55 +1,162 @@
 package com.hospital.Hospital.Management.service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.hospital.Hospital.Management.security.AuthenticatedUser;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Issues and validates access and refresh tokens. The signing key and parser are built
+ * once; parsers are immutable and shared by all request threads. Validated tokens are
+ * kept in a small cache keyed by the token's SHA-256 digest until they expire, so a
+ * client reusing its token skips the signature check and JSON parsing on later requests.
+ */
 @Service
 @Slf4j
 public class JwtService {
 
-    @Value("${app.jwt.secret}")
-    private String secretKey;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_STATUS_VERSION = "sv";
+    public static final String CLAIM_TOKEN_TYPE = "typ";
+    public static final String CLAIM_FAMILY = "fam";
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+    private final long refreshExpiration;
+    private final int validationCacheSize;
+    private final Clock clock;
+    private final Map<Digest, ValidatedJwt> validated = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JwtService(@Value("${app.jwt.secret}") String secretKey,
+                      @Value("${app.jwt.expiration-ms}") long jwtExpiration,
+                      @Value("${app.jwt.refresh-expiration-ms}") long refreshExpiration,
+                      @Value("${app.jwt.validation-cache-size:10000}") int validationCacheSize) {
+        this(secretKey, jwtExpiration, refreshExpiration, validationCacheSize, Clock.systemUTC());
+    }
 
-    @Value("${app.jwt.expiration-ms}")
-    private long jwtExpiration;
+    JwtService(String secretKey, long jwtExpiration, long refreshExpiration, int validationCacheSize, Clock clock) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .setClock(() -> Date.from(clock.instant()))
+                .build();
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.validationCacheSize = validationCacheSize;
+        this.clock = clock;
+    }
 
-    @Value("${app.jwt.refresh-expiration-ms}")
-    private long refreshExpiration;
+    /**
+     * Verifies the token's signature and expiry and returns its claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public ValidatedJwt validate(String token) {
+        Digest digest = validationCacheSize > 0 ? Digest.of(token) : null;
+        Instant now = clock.instant();
+        if (digest != null) {
+            ValidatedJwt cached = validated.get(digest);
+            if (cached != null) {
+                if (!cached.isExpired(now)) {
+                    return cached;
+                }
+                validated.remove(digest);
+                throw new ExpiredJwtException(null, cached.claims(), "JWT expired at " + cached.expiresAt());
+            }
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() == null) {
+            // Tokens issued here always carry an expiry; one without it is not ours to trust indefinitely.
+            throw new ExpiredJwtException(null, claims, "JWT has no expiration");
+        }
+        ValidatedJwt result = new ValidatedJwt(claims.getSubject(), claims.getExpiration().toInstant(), claims);
+        if (digest != null) {
+            if (validated.size() >= validationCacheSize) {
+                evict(now);
+            }
+            validated.put(digest, result);
+        }
+        return result;
+    }
 
     public String extractUsername(String token) {
-        log.debug("Extracting username from token");
-        return extractClaim(token, Claims::getSubject);
+        return validate(token).subject();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        log.debug("Extracting claim from token");
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(validate(token).claims());
     }
 
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, null);
+    }
+
+    /**
+     * Issues an access token that also names the refresh token family it was issued with,
+     * so logging out with it can end that family too.
+     */
+    public String generateToken(UserDetails userDetails, UUID familyId) {
         log.info("Generating access token for user: {}", userDetails.getUsername());
 
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", userDetails.getAuthorities().iterator().next().getAuthority()); // add role to token
+        if (userDetails instanceof AuthenticatedUser user) {
+            // Enough to rebuild the principal on later requests without loading the user.
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLES, user.getRoles().stream().map(Enum::name).sorted().toList());
+            claims.put(CLAIM_STATUS_VERSION, user.getStatusVersion());
+        }
+        if (familyId != null) {
+            claims.put(CLAIM_FAMILY, familyId.toString());
+        }
 
         return generateToken(claims, userDetails);
     }
 
+    /** The refresh token family named by a token's {@code fam} claim, or null if it has none. */
+    public UUID familyId(ValidatedJwt jwt) {
+        String family = jwt.claim(CLAIM_FAMILY, String.class);
+        if (family == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(family);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
 
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -57,50 +164,91 @@ public class JwtService {
     }
 
     public String generateRefreshToken(UserDetails userDetails) {
+        return generateRefreshToken(userDetails, UUID.randomUUID(), UUID.randomUUID());
+    }
+
+    /**
+     * Issues a refresh token with the given id, as one link of the rotation chain
+     * {@code familyId}. Refresh tokens are marked with {@code typ=refresh} so they are never
+     * accepted as access tokens.
+     */
+    public String generateRefreshToken(UserDetails userDetails, UUID tokenId, UUID familyId) {
         log.info("Generating refresh token for user: {}", userDetails.getUsername());
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_TOKEN_TYPE, REFRESH_TOKEN_TYPE);
+        claims.put(CLAIM_FAMILY, familyId.toString());
+        if (userDetails instanceof AuthenticatedUser user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+        }
+        return buildToken(claims, userDetails, refreshExpiration, tokenId.toString());
+    }
+
+    public boolean isRefreshToken(ValidatedJwt jwt) {
+        return REFRESH_TOKEN_TYPE.equals(jwt.claim(CLAIM_TOKEN_TYPE, String.class));
     }
 
     private String buildToken(
             Map<String, Object> extraClaims,
             UserDetails userDetails,
             long expiration
+    ) {
+        return buildToken(extraClaims, userDetails, expiration, UUID.randomUUID().toString());
+    }
+
+    private String buildToken(
+            Map<String, Object> extraClaims,
+            UserDetails userDetails,
+            long expiration,
+            String tokenId
     ) {
         log.debug("Building token for user: {}", userDetails.getUsername());
+        long now = clock.millis();
         return Jwts.builder()
                 .setClaims(extraClaims)
+                .setId(tokenId)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        try {
+            return validate(token).subject().equals(userDetails.getUsername());
+        } catch (ExpiredJwtException e) {
+            return false;
+        }
     }
 
-    private Claims extractAllClaims(String token) {
-        log.debug("Extracting all claims from token");
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Drops expired entries; if the cache is still full of live tokens, drops an
+     * arbitrary tenth of it. Losing an entry only costs one extra signature check.
+     */
+    private void evict(Instant now) {
+        validated.values().removeIf(entry -> entry.isExpired(now));
+        int excess = validated.size() - validationCacheSize + Math.max(1, validationCacheSize / 10);
+        Iterator<Digest> keys = validated.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
     }
 
-    private Key getSignInKey() {
-        log.debug("Decoding secret key for signing");
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * SHA-256 of a token. Keying the cache by digest keeps raw bearer tokens out of the heap
+     * beyond the request that carried them.
+     */
+    private record Digest(long a, long b, long c, long d) {
+
+        static Digest of(String token) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+                ByteBuffer buffer = ByteBuffer.wrap(hash);
+                return new Digest(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
     }
 }
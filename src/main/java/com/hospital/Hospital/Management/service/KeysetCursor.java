@@ -0,0 +1,88 @@
+package com.hospital.Hospital.Management.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.zip.CRC32;
+
+/**
+ * Opaque cursor for keyset pagination: the sort key, the sort value of the last row
+ * returned and that row's id, URL-safe Base64 encoded. A cursor is only accepted for
+ * the sort key it was issued for; build the key with {@link #scope} to also pin the
+ * direction and filters. {@code value} is null when the last row had no sort value.
+ */
+public record KeysetCursor(String value, long id) {
+
+    private static final char SEPARATOR = '|';
+    private static final char NULL_VALUE = '~';
+    private static final char PRESENT_VALUE = '=';
+
+    public static String encode(String sortKey, Object value, long id) {
+        String encodedValue = value != null ? PRESENT_VALUE + value.toString() : String.valueOf(NULL_VALUE);
+        String raw = sortKey + SEPARATOR + encodedValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor, String expectedSortKey) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        int first = raw.indexOf(SEPARATOR);
+        int last = raw.lastIndexOf(SEPARATOR);
+        if (first < 0 || first == last || last == first + 1) {
+            throw invalid();
+        }
+        if (!raw.substring(0, first).equals(expectedSortKey)) {
+            throw new IllegalStateException("The cursor does not match the requested sort order or filters.");
+        }
+        String encodedValue = raw.substring(first + 1, last);
+        String value = switch (encodedValue.charAt(0)) {
+            case NULL_VALUE -> {
+                if (encodedValue.length() != 1) {
+                    throw invalid();
+                }
+                yield null;
+            }
+            case PRESENT_VALUE -> encodedValue.substring(1);
+            default -> throw invalid();
+        };
+        try {
+            return new KeysetCursor(value, Long.parseLong(raw.substring(last + 1)));
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * A sort key that also identifies the direction and filters of the listing, so a
+     * cursor cannot be replayed against a different query.
+     */
+    public static String scope(String sortKey, Object... filters) {
+        CRC32 crc = new CRC32();
+        for (Object filter : filters) {
+            crc.update(String.valueOf(filter).getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+        }
+        return sortKey + ':' + Long.toHexString(crc.getValue());
+    }
+
+    /** The sort value as a timestamp, for listings ordered by a date-time column. */
+    public LocalDateTime dateTimeValue() {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    private static IllegalStateException invalid() {
+        return new IllegalStateException("Invalid pagination cursor.");
+    }
+}
@@ -0,0 +1,63 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.springframework.data.domain.Limit;
+
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
+
+/**
+ * The paging half of a keyset-paginated listing: the clamped page size and the position
+ * decoded from the request's cursor, if any. A listing fetches {@link #fetchSize()} rows,
+ * one past the page, and hands them to {@link #toPage} to learn whether another follows.
+ * Malformed or foreign cursors fail with {@link IllegalStateException}, i.e. HTTP 400.
+ */
+public record KeysetPageRequest(String sortKey, int pageSize, KeysetCursor after) {
+
+    public static KeysetPageRequest of(String sortKey, int size, int maxSize, String cursor) {
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor, sortKey) : null;
+        return new KeysetPageRequest(sortKey, Math.max(1, Math.min(size, maxSize)), after);
+    }
+
+    public int fetchSize() {
+        return pageSize + 1;
+    }
+
+    public Limit limit() {
+        return Limit.of(fetchSize());
+    }
+
+    /** The cursor's timestamp, for listings sorted by a date-time column that is never null. */
+    public LocalDateTime afterDateTime() {
+        if (after == null) {
+            return null;
+        }
+        LocalDateTime value = after.dateTimeValue();
+        if (value == null) {
+            throw new IllegalStateException("Invalid pagination cursor.");
+        }
+        return value;
+    }
+
+    public Long afterId() {
+        return after != null ? after.id() : null;
+    }
+
+    /**
+     * Cuts {@code rows} down to the page and, if a row was left over, encodes the last
+     * row of the page as the next cursor.
+     */
+    public <T> KeysetPageDto<T> toPage(List<T> rows, Function<T, ?> sortValue, ToLongFunction<T> id) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            T last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.encode(sortKey, sortValue.apply(last), id.applyAsLong(last));
+        }
+        return new KeysetPageDto<>(page, nextCursor, hasMore);
+    }
+}
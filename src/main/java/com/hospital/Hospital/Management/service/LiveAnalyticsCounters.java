@@ -0,0 +1,135 @@
+package com.hospital.Hospital.Management.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hospital.Hospital.Management.dto.DashboardAnalyticsDto;
+import com.hospital.Hospital.Management.event.AppointmentStatusChangedEvent;
+import com.hospital.Hospital.Management.event.UserRegisteredEvent;
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+import com.hospital.Hospital.Management.model.Role;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory dashboard totals kept current from domain events. Reads never touch the
+ * database; a periodic reconcile against the GROUP BY queries corrects any drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveAnalyticsCounters {
+
+    private final DashboardAnalyticsService dashboardAnalyticsService;
+
+    private final LongAdder totalUsers = new LongAdder();
+    private final Map<Role, LongAdder> usersByRole = newAdders(Role.class);
+    private final Map<AppointmentStatus, LongAdder> appointmentsByStatus = newAdders(AppointmentStatus.class);
+
+    // Bumped on every change so the stream publisher can tell whether anything moved.
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean seeded = false;
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public DashboardAnalyticsDto snapshot() {
+        return currentCounts().toDto();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        totalUsers.increment();
+        if (event.roles() != null) {
+            event.roles().forEach(role -> usersByRole.get(role).increment());
+        }
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentStatusChanged(AppointmentStatusChangedEvent event) {
+        if (event.previousStatus() == event.newStatus()) {
+            return;
+        }
+        if (event.previousStatus() != null) {
+            appointmentsByStatus.get(event.previousStatus()).decrement();
+        }
+        appointmentsByStatus.get(event.newStatus()).increment();
+        version.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        DashboardCounts beforeQuery = currentCounts();
+        dashboardAnalyticsService.loadCountsAsync()
+                .thenAccept(database -> reconcileWith(beforeQuery, database))
+                .exceptionally(error -> {
+                    log.error("Could not seed live analytics counters: {}", error.getMessage());
+                    return null;
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${hospital.analytics.live.reconcile-interval-ms:300000}",
+            initialDelayString = "${hospital.analytics.live.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            DashboardCounts beforeQuery = currentCounts();
+            reconcileWith(beforeQuery, dashboardAnalyticsService.loadCountsAsync().join());
+        } catch (RuntimeException e) {
+            log.error("Live analytics reconcile failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Moves each counter to the database value plus whatever events arrived while the
+     * query was running. {@code beforeQuery} must be taken before the query starts: adding
+     * {@code database - beforeQuery} to the adder keeps the increments made since then,
+     * where resetting it would drop them.
+     */
+    void reconcileWith(DashboardCounts beforeQuery, DashboardCounts database) {
+        adjust(totalUsers, database.totalUsers() - beforeQuery.totalUsers());
+        usersByRole.forEach((role, adder) -> adjust(adder,
+                database.usersByRole().getOrDefault(role, 0L) - beforeQuery.usersByRole().getOrDefault(role, 0L)));
+        appointmentsByStatus.forEach((status, adder) -> adjust(adder,
+                database.appointmentsByStatus().getOrDefault(status, 0L) - beforeQuery.appointmentsByStatus().getOrDefault(status, 0L)));
+        seeded = true;
+        version.incrementAndGet();
+        log.debug("Live analytics counters reconciled against the database.");
+    }
+
+    DashboardCounts currentCounts() {
+        Map<Role, Long> roles = new EnumMap<>(Role.class);
+        usersByRole.forEach((role, adder) -> roles.put(role, adder.sum()));
+        Map<AppointmentStatus, Long> statuses = new EnumMap<>(AppointmentStatus.class);
+        appointmentsByStatus.forEach((status, adder) -> statuses.put(status, adder.sum()));
+        return new DashboardCounts(totalUsers.sum(), roles, statuses);
+    }
+
+    private static void adjust(LongAdder adder, long delta) {
+        if (delta != 0) {
+            adder.add(delta);
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> newAdders(Class<E> type) {
+        Map<E, LongAdder> adders = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            adders.put(constant, new LongAdder());
+        }
+        return adders;
+    }
+}
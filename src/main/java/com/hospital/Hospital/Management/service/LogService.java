@@ -1,32 +1,89 @@
 package com.hospital.Hospital.Management.service;
 
-import com.hospital.Hospital.Management.model.SystemLog;
+import java.time.LocalDateTime;
+import java.util.List;
+
 import com.hospital.Hospital.Management.model.User;
-import com.hospital.Hospital.Management.repository.SystemLogRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Entry point for audit logging. Records go to every enabled {@link AuditSink} (the
+ * {@code system_logs} table, the file journal, or both). Records logged inside a
+ * transaction are handed over after it commits, so rolled-back actions leave no trace.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class LogService {
 
-    private final SystemLogRepository systemLogRepository;
+    private final List<AuditSink> sinks;
+    private final AuditDurability defaultDurability;
+
+    public LogService(List<AuditSink> sinks,
+                      @Value("${hospital.audit.durability:ASYNC}") AuditDurability defaultDurability) {
+        this.sinks = List.copyOf(sinks);
+        this.defaultDurability = defaultDurability;
+    }
 
     public void logActivity(User user, String action, String details) {
-        SystemLog log = SystemLog.builder()
-                .user(user)
-                .action(action)
-                .details(details)
-                .build();
-        systemLogRepository.save(log);
+        submit(toRecord(user, action, details), defaultDurability);
+    }
+
+    /**
+     * Same as {@link #logActivity(User, String, String)} with an explicit durability,
+     * e.g. {@link AuditDurability#SYNC} for actions whose audit trail must be on disk
+     * before the caller continues.
+     */
+    public void logActivity(User user, String action, String details, AuditDurability durability) {
+        submit(toRecord(user, action, details), durability);
     }
 
     public void logSystemActivity(String action, String details) {
-        SystemLog log = SystemLog.builder()
-                .user(null)
-                .action(action)
-                .details(details)
-                .build();
-        systemLogRepository.save(log);
-    }
-}
\ No newline at end of file
+        submit(toRecord(null, action, details), defaultDurability);
+    }
+
+    public void logSystemActivity(String action, String details, AuditDurability durability) {
+        submit(toRecord(null, action, details), durability);
+    }
+
+    public void logSystemActivity(String action, String details, String ipAddress) {
+        logSystemActivity(action, details, ipAddress, defaultDurability);
+    }
+
+    public void logSystemActivity(String action, String details, String ipAddress, AuditDurability durability) {
+        submit(new AuditRecord(null, action, details, ipAddress, LocalDateTime.now()), durability);
+    }
+
+    private void submit(AuditRecord record, AuditDurability durability) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writeToSinks(record, durability);
+                }
+            });
+        } else {
+            writeToSinks(record, durability);
+        }
+    }
+
+    private void writeToSinks(AuditRecord record, AuditDurability durability) {
+        for (AuditSink sink : sinks) {
+            // One failing sink must not starve the others, nor surface from afterCommit
+            // after the caller's work is already committed.
+            try {
+                sink.write(record, durability);
+            } catch (RuntimeException e) {
+                log.error("Audit sink {} failed to write {}: {}", sink.getClass().getSimpleName(), record, e.getMessage());
+            }
+        }
+    }
+
+    private AuditRecord toRecord(User user, String action, String details) {
+        return new AuditRecord(user != null ? user.getId() : null, action, details, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,290 @@
+package com.hospital.Hospital.Management.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hospital.Hospital.Management.dto.ConsultationNoteDto;
+import com.hospital.Hospital.Management.exception.ResourceNotFoundException;
+import com.hospital.Hospital.Management.model.ConsultationNote;
+import com.hospital.Hospital.Management.model.NoteCompressionDictionary;
+import com.hospital.Hospital.Management.repository.NoteCompressionDictionaryRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Packs the four text fields of a consultation note into one deflated blob. Notes are
+ * short and repeat the same clinical phrasing, so on their own they barely compress;
+ * deflating against a preset dictionary of phrases common in our own notes is what
+ * makes the difference. New bodies use the most recently trained dictionary, and each
+ * body records its dictionary id so older ones stay readable after a retrain.
+ */
+@Service
+@Slf4j
+public class NoteBodyCodec {
+
+    static final int NO_DICTIONARY = 0;
+
+    private static final byte FORMAT_VERSION = 1;
+    // Deflate only looks back 32 KB, so a larger dictionary would never be referenced.
+    private static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+    private static final int MAX_PHRASE_WORDS = 4;
+    private static final int MIN_PHRASE_LENGTH = 4;
+
+    private final NoteCompressionDictionaryRepository dictionaryRepository;
+    private final int level;
+    private final int dictionarySize;
+    private final Map<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+
+    private volatile Integer currentDictionaryId;
+
+    @Autowired
+    public NoteBodyCodec(NoteCompressionDictionaryRepository dictionaryRepository,
+                         @Value("${hospital.notes.compression.level:6}") int level,
+                         @Value("${hospital.notes.compression.dictionary-size:32768}") int dictionarySize) {
+        this.dictionaryRepository = dictionaryRepository;
+        this.level = Math.max(Deflater.BEST_SPEED, Math.min(level, Deflater.BEST_COMPRESSION));
+        this.dictionarySize = Math.max(1, Math.min(dictionarySize, MAX_DICTIONARY_SIZE));
+    }
+
+    public record Encoded(int dictionaryId, int rawLength, byte[] content) {
+    }
+
+    public Encoded encode(ConsultationNoteDto note) {
+        byte[] raw = serialize(note);
+        int dictionaryId = currentDictionaryId();
+        Deflater deflater = new Deflater(level);
+        try {
+            if (dictionaryId != NO_DICTIONARY) {
+                deflater.setDictionary(dictionary(dictionaryId));
+            }
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return new Encoded(dictionaryId, raw.length, out.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public ConsultationNoteDto decode(int dictionaryId, int rawLength, byte[] content) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(content);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(dictionary(dictionaryId));
+                    } else if (inflater.finished() || inflater.needsInput()) {
+                        throw new IllegalStateException("Consultation note body is truncated.");
+                    }
+                }
+                read += n;
+            }
+            return deserialize(raw);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Consultation note body is corrupt.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Builds a dictionary from {@code samples} and makes it the one new bodies are
+     * written with. Phrases of up to four words that recur across notes are ranked by how
+     * many notes contain them times their length, i.e. roughly the bytes they save; the
+     * best are placed at the end of the dictionary, where deflate reaches them with the
+     * shortest distances.
+     */
+    public NoteCompressionDictionary train(List<ConsultationNoteDto> samples) {
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        for (ConsultationNoteDto sample : samples) {
+            Set<String> phrases = new HashSet<>();
+            for (String text : fields(sample)) {
+                collectPhrases(text, phrases);
+            }
+            phrases.forEach(phrase -> documentFrequency.merge(phrase, 1, Integer::sum));
+        }
+
+        List<String> candidates = documentFrequency.entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .sorted(Comparator.comparingLong((Map.Entry<String, Integer> entry) ->
+                        (long) entry.getValue() * entry.getKey().length()).reversed())
+                .map(Map.Entry::getKey)
+                .toList();
+
+        List<String> chosen = new ArrayList<>();
+        StringBuilder covered = new StringBuilder();
+        int size = 0;
+        for (String phrase : candidates) {
+            int length = phrase.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (size + length > dictionarySize) {
+                continue;
+            }
+            // A phrase inside one already chosen adds nothing deflate cannot find there.
+            if (covered.indexOf(phrase) >= 0) {
+                continue;
+            }
+            chosen.add(phrase);
+            covered.append(phrase).append('\n');
+            size += length;
+            if (size >= dictionarySize - MIN_PHRASE_LENGTH) {
+                break;
+            }
+        }
+        if (chosen.isEmpty()) {
+            throw new IllegalStateException("Not enough consultation notes to train a compression dictionary.");
+        }
+
+        StringBuilder content = new StringBuilder(size);
+        for (int i = chosen.size() - 1; i >= 0; i--) {
+            content.append(chosen.get(i)).append('\n');
+        }
+        NoteCompressionDictionary dictionary = dictionaryRepository.save(NoteCompressionDictionary.builder()
+                .content(content.toString().getBytes(StandardCharsets.UTF_8))
+                .sampleSize(samples.size())
+                .build());
+        dictionaries.put(dictionary.getId(), dictionary.getContent());
+        currentDictionaryId = dictionary.getId();
+        log.info("Trained note compression dictionary {} ({} bytes, {} phrases) from {} notes.",
+                dictionary.getId(), dictionary.getContent().length, chosen.size(), samples.size());
+        return dictionary;
+    }
+
+    public boolean hasDictionary() {
+        return currentDictionaryId() != NO_DICTIONARY;
+    }
+
+    /** The first line of the diagnosis, cut to fit {@code consultation_notes.summary}. */
+    public static String summarize(String diagnosis) {
+        if (diagnosis == null) {
+            return null;
+        }
+        String line = diagnosis.strip();
+        int newline = line.indexOf('\n');
+        if (newline >= 0) {
+            line = line.substring(0, newline).strip();
+        }
+        return line.length() <= ConsultationNote.SUMMARY_LENGTH
+                ? line
+                : line.substring(0, ConsultationNote.SUMMARY_LENGTH - 3) + "...";
+    }
+
+    private int currentDictionaryId() {
+        Integer id = currentDictionaryId;
+        if (id == null) {
+            id = dictionaryRepository.findTopByOrderByIdDesc()
+                    .map(dictionary -> {
+                        dictionaries.putIfAbsent(dictionary.getId(), dictionary.getContent());
+                        return dictionary.getId();
+                    })
+                    .orElse(NO_DICTIONARY);
+            // Not cached while there is none, so one trained on another node is picked up.
+            if (id != NO_DICTIONARY) {
+                currentDictionaryId = id;
+            }
+        }
+        return id;
+    }
+
+    private byte[] dictionary(int id) {
+        return dictionaries.computeIfAbsent(id, key -> dictionaryRepository.findById(key)
+                .map(NoteCompressionDictionary::getContent)
+                .orElseThrow(() -> new ResourceNotFoundException("Note compression dictionary " + key + " not found.")));
+    }
+
+    private static void collectPhrases(String text, Set<String> phrases) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String[] words = text.strip().split("\\s+");
+        for (int start = 0; start < words.length; start++) {
+            StringBuilder phrase = new StringBuilder();
+            for (int n = 0; n < MAX_PHRASE_WORDS && start + n < words.length; n++) {
+                if (n > 0) {
+                    phrase.append(' ');
+                }
+                phrase.append(words[start + n]);
+                if (phrase.length() >= MIN_PHRASE_LENGTH) {
+                    phrases.add(phrase.toString());
+                }
+            }
+        }
+    }
+
+    private static String[] fields(ConsultationNoteDto note) {
+        return new String[] {note.getDiagnosis(), note.getPrescription(), note.getTreatmentDetails(), note.getRemarks()};
+    }
+
+    private static byte[] serialize(ConsultationNoteDto note) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            for (String field : fields(note)) {
+                if (field == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] utf8 = field.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(utf8.length);
+                    out.write(utf8);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ConsultationNoteDto deserialize(byte[] raw) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported consultation note body format " + version + ".");
+            }
+            ConsultationNoteDto note = new ConsultationNoteDto();
+            note.setDiagnosis(readString(in));
+            note.setPrescription(readString(in));
+            note.setTreatmentDetails(readString(in));
+            note.setRemarks(readString(in));
+            return note;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,274 @@
+package com.hospital.Hospital.Management.service;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hospital.Hospital.Management.dto.ConsultationNoteDto;
+import com.hospital.Hospital.Management.model.NoteCompressionDictionary;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves notes written before compressed storage out of the legacy text columns of
+ * {@code consultation_notes} into {@code consultation_note_bodies}. Schema updates only
+ * ever add columns, so the legacy ones stay in place; each migrated row has them
+ * cleared, which makes the migration resumable and lets it run while the application
+ * serves requests. Until it finishes, readers fall back to {@link #findLegacyNotes} for
+ * notes without a body. Batches are claimed with {@code FOR UPDATE SKIP LOCKED}, so
+ * several nodes can migrate at once without touching the same rows.
+ *
+ * <p>Also trains the compression dictionary: from the legacy text before the first
+ * migration, and on demand from the newest stored bodies.
+ */
+@Service
+@Slf4j
+public class NoteStorageMigrationService {
+
+    private static final String LEGACY_PROBE_SQL = "SELECT diagnosis FROM consultation_notes WHERE 1 = 0";
+
+    private static final String LEGACY_NULLABILITY_SQL = "SELECT diagnosis, prescription FROM consultation_notes WHERE 1 = 0";
+
+    // Hibernate created these NOT NULL; new notes no longer write them.
+    private static final String RELAX_LEGACY_SQL = "ALTER TABLE consultation_notes " +
+            "MODIFY diagnosis LONGTEXT NULL, MODIFY prescription LONGTEXT NULL";
+
+    // The oldest legacy note doubles as the lock that keeps two nodes from training at once.
+    private static final String TRAINING_LOCK_SQL = "SELECT id FROM consultation_notes " +
+            "WHERE diagnosis IS NOT NULL ORDER BY id LIMIT 1 FOR UPDATE";
+
+    private static final String LEGACY_SAMPLE_SQL = "SELECT diagnosis, prescription, treatment_details, remarks " +
+            "FROM consultation_notes WHERE diagnosis IS NOT NULL ORDER BY id DESC LIMIT ?";
+
+    private static final String BODY_SAMPLE_SQL = "SELECT dictionary_id, raw_length, content " +
+            "FROM consultation_note_bodies ORDER BY note_id DESC LIMIT ?";
+
+    private static final String LEGACY_BATCH_SQL = "SELECT id, diagnosis, prescription, treatment_details, remarks " +
+            "FROM consultation_notes WHERE id > ? AND diagnosis IS NOT NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String LEGACY_NOTES_SQL = "SELECT id, diagnosis, prescription, treatment_details, remarks " +
+            "FROM consultation_notes WHERE diagnosis IS NOT NULL AND id IN (%s)";
+
+    private static final String INSERT_BODY_SQL = "INSERT IGNORE INTO consultation_note_bodies " +
+            "(note_id, dictionary_id, raw_length, content) VALUES (?, ?, ?, ?)";
+
+    private static final String CLEAR_LEGACY_SQL = "UPDATE consultation_notes SET summary = ?, diagnosis = NULL, " +
+            "prescription = NULL, treatment_details = NULL, remarks = NULL WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NoteBodyCodec codec;
+    private final ConsultationNoteSearchService noteSearchService;
+    private final Executor executor;
+    private final boolean migrateOnStartup;
+    private final int batchSize;
+    private final int sampleSize;
+    private final AtomicBoolean migrating = new AtomicBoolean();
+    private volatile Boolean legacyColumns;
+
+    public NoteStorageMigrationService(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       NoteBodyCodec codec,
+                                       ConsultationNoteSearchService noteSearchService,
+                                       @Qualifier("taskExecutor") Executor executor,
+                                       @Value("${hospital.notes.compression.migrate-on-startup:true}") boolean migrateOnStartup,
+                                       @Value("${hospital.notes.compression.batch-size:500}") int batchSize,
+                                       @Value("${hospital.notes.compression.sample-size:2000}") int sampleSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.codec = codec;
+        this.noteSearchService = noteSearchService;
+        this.executor = executor;
+        this.migrateOnStartup = migrateOnStartup;
+        this.batchSize = Math.max(1, batchSize);
+        this.sampleSize = Math.max(2, sampleSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateIfNeeded() {
+        if (!migrateOnStartup || !hasLegacyColumns()) {
+            return;
+        }
+        migrate();
+    }
+
+    /**
+     * Makes the legacy text columns nullable so notes written without them can be saved.
+     * Runs before the web server starts; a failure is thrown rather than logged, as every
+     * new note would fail to save otherwise.
+     */
+    public void relaxLegacyColumns() {
+        if (!hasLegacyColumns()) {
+            return;
+        }
+        Boolean required = jdbcTemplate.query(LEGACY_NULLABILITY_SQL, (ResultSetExtractor<Boolean>) rs -> {
+            ResultSetMetaData columns = rs.getMetaData();
+            return columns.isNullable(1) == ResultSetMetaData.columnNoNulls
+                    || columns.isNullable(2) == ResultSetMetaData.columnNoNulls;
+        });
+        if (Boolean.TRUE.equals(required)) {
+            jdbcTemplate.execute(RELAX_LEGACY_SQL);
+            log.info("Made the legacy consultation note columns nullable.");
+        }
+    }
+
+    /**
+     * The text of those {@code noteIds} that are still held in the legacy columns, i.e.
+     * not migrated yet, keyed by note id.
+     */
+    public Map<Long, ConsultationNoteDto> findLegacyNotes(Collection<Long> noteIds) {
+        if (noteIds.isEmpty() || !hasLegacyColumns()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(noteIds.size(), "?"));
+        Map<Long, ConsultationNoteDto> notes = new HashMap<>();
+        jdbcTemplate.query(String.format(LEGACY_NOTES_SQL, placeholders),
+                (RowCallbackHandler) rs -> notes.put(rs.getLong("id"), legacyNote(rs)), noteIds.toArray());
+        return notes;
+    }
+
+    /**
+     * Starts compressing all notes still held in the legacy columns, training a
+     * dictionary from them first if none exists yet. The returned future completes with
+     * the number of notes migrated.
+     */
+    public CompletableFuture<Integer> migrate() {
+        if (!migrating.compareAndSet(false, true)) {
+            throw new IllegalStateException("A consultation note migration is already in progress.");
+        }
+        return CompletableFuture.supplyAsync(this::migrateAll, executor)
+                .whenComplete((migrated, error) -> {
+                    migrating.set(false);
+                    if (error != null) {
+                        log.error("Consultation note migration failed: {}", error.getMessage());
+                    } else if (migrated > 0) {
+                        log.info("Migrated {} consultation notes to compressed storage.", migrated);
+                        // Index rebuilds read the compressed bodies, so notes moved mid-rebuild may be missing.
+                        if (!noteSearchService.isRebuilding()) {
+                            noteSearchService.rebuild();
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Trains a new dictionary from the most recent {@code sample-size} notes. Notes
+     * written from then on use it; existing bodies keep the dictionary they were written with.
+     */
+    public NoteCompressionDictionary retrain() {
+        List<ConsultationNoteDto> samples = jdbcTemplate.query(BODY_SAMPLE_SQL,
+                (rs, rowNum) -> codec.decode(rs.getInt("dictionary_id"), rs.getInt("raw_length"), rs.getBytes("content")),
+                sampleSize);
+        return codec.train(samples);
+    }
+
+    public boolean isMigrating() {
+        return migrating.get();
+    }
+
+    int migrateAll() {
+        if (!codec.hasDictionary()) {
+            transactionTemplate.executeWithoutResult(status -> trainFromLegacyNotes());
+        }
+
+        long afterId = 0;
+        int migrated = 0;
+        while (true) {
+            long from = afterId;
+            List<LegacyNote> batch = transactionTemplate.execute(status -> migrateBatch(from));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            migrated += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).id();
+        }
+        return migrated;
+    }
+
+    private void trainFromLegacyNotes() {
+        jdbcTemplate.queryForList(TRAINING_LOCK_SQL, Long.class);
+        // Another node may have trained one while this one waited for the lock.
+        if (codec.hasDictionary()) {
+            return;
+        }
+        List<ConsultationNoteDto> samples = jdbcTemplate.query(LEGACY_SAMPLE_SQL,
+                (rs, rowNum) -> legacyNote(rs), sampleSize);
+        if (samples.size() > 1) {
+            codec.train(samples);
+        }
+    }
+
+    private List<LegacyNote> migrateBatch(long afterId) {
+        List<LegacyNote> batch = jdbcTemplate.query(LEGACY_BATCH_SQL,
+                (rs, rowNum) -> new LegacyNote(rs.getLong("id"), legacyNote(rs)), afterId, batchSize);
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        jdbcTemplate.batchUpdate(INSERT_BODY_SQL, batch, batch.size(), (ps, row) -> {
+            NoteBodyCodec.Encoded body = codec.encode(row.note());
+            ps.setLong(1, row.id());
+            ps.setInt(2, body.dictionaryId());
+            ps.setInt(3, body.rawLength());
+            ps.setBytes(4, body.content());
+        });
+        jdbcTemplate.batchUpdate(CLEAR_LEGACY_SQL, batch, batch.size(), (ps, row) -> {
+            ps.setString(1, NoteBodyCodec.summarize(row.note().getDiagnosis()));
+            ps.setLong(2, row.id());
+        });
+        return batch;
+    }
+
+    private boolean hasLegacyColumns() {
+        Boolean present = legacyColumns;
+        if (present == null) {
+            present = hasLegacyColumns(jdbcTemplate);
+            legacyColumns = present;
+        }
+        return present;
+    }
+
+    /** Whether {@code consultation_notes} still has the text columns notes were stored in before compression. */
+    static boolean hasLegacyColumns(JdbcTemplate jdbcTemplate) {
+        try {
+            jdbcTemplate.queryForList(LEGACY_PROBE_SQL);
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    static ConsultationNoteDto legacyNote(ResultSet rs) throws SQLException {
+        ConsultationNoteDto note = new ConsultationNoteDto();
+        note.setDiagnosis(rs.getString("diagnosis"));
+        note.setPrescription(rs.getString("prescription"));
+        note.setTreatmentDetails(rs.getString("treatment_details"));
+        note.setRemarks(rs.getString("remarks"));
+        return note;
+    }
+
+    private record LegacyNote(long id, ConsultationNoteDto note) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hospital.Hospital.Management.event.UserStatusChangedEvent;
+import com.hospital.Hospital.Management.exception.InvalidTokenException;
+import com.hospital.Hospital.Management.model.RefreshToken;
+import com.hospital.Hospital.Management.model.User;
+import com.hospital.Hospital.Management.repository.RefreshTokenRepository;
+import com.hospital.Hospital.Management.repository.UserRepository;
+import com.hospital.Hospital.Management.security.AuthenticatedUser;
+
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Issues refresh tokens and rotates them: each refresh token works once and is exchanged
+ * for a new one in the same family. Presenting a token that was already exchanged means
+ * it was copied, so the whole family is revoked and the holder has to log in again.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+    private final LogService logService;
+    private final long refreshExpirationMs;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               JwtService jwtService,
+                               LogService logService,
+                               @Value("${app.jwt.refresh-expiration-ms}") long refreshExpirationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+        this.logService = logService;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    /**
+     * Starts a new token family, at login.
+     */
+    @Transactional
+    public String issue(AuthenticatedUser principal) {
+        return issue(principal, UUID.randomUUID());
+    }
+
+    /**
+     * Starts the token family {@code familyId}, at login, when the caller has already put
+     * that id into the access token.
+     */
+    @Transactional
+    public String issue(AuthenticatedUser principal, UUID familyId) {
+        UUID tokenId = UUID.randomUUID();
+        String token = jwtService.generateRefreshToken(principal, tokenId, familyId);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenId(tokenId)
+                .familyId(familyId)
+                .userId(principal.getId())
+                .expiresAt(LocalDateTime.now().plus(refreshExpirationMs, ChronoUnit.MILLIS))
+                .build());
+        return token;
+    }
+
+    /**
+     * Exchanges a refresh token for a new one. The presented token's row is locked while
+     * it is checked and marked used, so two concurrent exchanges of the same token cannot
+     * both succeed.
+     *
+     * @throws InvalidTokenException if the token is invalid, expired, revoked or reused
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        ValidatedJwt jwt;
+        try {
+            jwt = jwtService.validate(refreshToken);
+        } catch (JwtException e) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        if (!jwtService.isRefreshToken(jwt) || jwt.claims().getId() == null) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+
+        RefreshToken stored = refreshTokenRepository.findByTokenId(parseTokenId(jwt.claims().getId()))
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        if (stored.isRevoked()) {
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+        if (stored.getUsedAt() != null) {
+            // Committed despite the exception (noRollbackFor), so the stolen chain stays dead.
+            int revoked = refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            log.warn("Refresh token reuse for user {}; revoked {} tokens in family {}.",
+                    stored.getUserId(), revoked, stored.getFamilyId());
+            logService.logSystemActivity("REFRESH_TOKEN_REUSE",
+                    "Refresh token reused for user ID " + stored.getUserId() + "; token family revoked.",
+                    AuditDurability.SYNC);
+            throw new InvalidTokenException("Refresh token has already been used");
+        }
+
+        User user = userRepository.findById(stored.getUserId())
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        if (!user.isEnabled() || !user.isAccountNonLocked()) {
+            stored.setRevoked(true);
+            throw new InvalidTokenException("Account is not active");
+        }
+
+        stored.setUsedAt(LocalDateTime.now());
+        String next = issue(AuthenticatedUser.from(user), stored.getFamilyId());
+        return new Rotation(user, stored.getFamilyId(), next);
+    }
+
+    /**
+     * Ends one login session: the refresh token chain started at that login.
+     */
+    @Transactional
+    public void revokeFamily(UUID familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserStatusChanged(UserStatusChangedEvent event) {
+        refreshTokenRepository.revokeAllForUser(event.userId());
+    }
+
+    @Scheduled(cron = "${app.auth.refresh.purge-cron:0 45 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens.", deleted);
+        }
+    }
+
+    private static UUID parseTokenId(String tokenId) {
+        try {
+            return UUID.fromString(tokenId);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+    }
+
+    public record Rotation(User user, UUID familyId, String refreshToken) {
+    }
+}
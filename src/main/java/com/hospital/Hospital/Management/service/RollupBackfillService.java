@@ -0,0 +1,140 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hospital.Hospital.Management.dto.RollupBucketCountDto;
+import com.hospital.Hospital.Management.model.AnalyticsRollup;
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+import com.hospital.Hospital.Management.repository.AnalyticsRollupRepository;
+import com.hospital.Hospital.Management.repository.AppointmentRepository;
+import com.hospital.Hospital.Management.repository.UserRepository;
+import com.hospital.Hospital.Management.repository.WaitlistRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rebuilds the rollup tables for a date range from the raw tables. The range is split
+ * into day-aligned chunks that are aggregated in parallel on the rollup backfill pool,
+ * each chunk replacing its own buckets in a single transaction. Live flushes are held
+ * back until the chunks are done, so they cannot add events the chunks already counted.
+ */
+@Service
+@Slf4j
+public class RollupBackfillService {
+
+    private static final List<AppointmentStatus> OUTCOME_STATUSES = List.of(
+            AppointmentStatus.CANCELLED_BY_PATIENT, AppointmentStatus.CANCELLED_BY_DOCTOR,
+            AppointmentStatus.COMPLETED, AppointmentStatus.NO_SHOW);
+
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final AnalyticsRollupRepository rollupRepository;
+    private final AnalyticsRollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final int chunkDays;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public RollupBackfillService(AppointmentRepository appointmentRepository,
+                                 UserRepository userRepository,
+                                 WaitlistRepository waitlistRepository,
+                                 AnalyticsRollupRepository rollupRepository,
+                                 AnalyticsRollupService rollupService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier("rollupBackfillExecutor") Executor executor,
+                                 @Value("${hospital.analytics.rollups.backfill.chunk-days:7}") int chunkDays) {
+        this.appointmentRepository = appointmentRepository;
+        this.userRepository = userRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.rollupRepository = rollupRepository;
+        this.rollupService = rollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.chunkDays = Math.max(1, chunkDays);
+    }
+
+    /**
+     * Starts rebuilding every bucket between {@code from} and {@code to} (both inclusive).
+     * The returned future completes with the number of buckets written.
+     */
+    public CompletableFuture<Integer> rebuild(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalStateException("The end of the range must not be before its start.");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A rollup rebuild is already in progress.");
+        }
+
+        // Write out pending live deltas first so the chunks below replace them rather than race them.
+        rollupService.flush();
+
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(chunkDays)) {
+            LocalDate chunkEnd = day.plusDays(chunkDays);
+            LocalDateTime start = day.atStartOfDay();
+            LocalDateTime end = (chunkEnd.isAfter(to) ? to.plusDays(1) : chunkEnd).atStartOfDay();
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> rollupService.rebuildRange(start, end, () -> rebuildChunk(start, end)), executor));
+        }
+
+        log.info("Rebuilding analytics rollups from {} to {} in {} chunks.", from, to, chunks.size());
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> chunks.stream().mapToInt(CompletableFuture::join).sum())
+                .whenComplete((buckets, error) -> {
+                    running.set(false);
+                    if (error != null) {
+                        log.error("Analytics rollup rebuild from {} to {} failed: {}", from, to, error.getMessage());
+                    } else {
+                        log.info("Analytics rollup rebuild from {} to {} wrote {} buckets.", from, to, buckets);
+                    }
+                });
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    int rebuildChunk(LocalDateTime start, LocalDateTime end) {
+        Integer written = transactionTemplate.execute(status -> {
+            rollupRepository.deleteByBucketStartRange(start, end);
+
+            Map<RollupDeltas.Key, RollupDeltas.Delta> deltas = new HashMap<>();
+            appointmentRepository.countBookingsByDoctorAndHour(start, end)
+                    .forEach(row -> add(deltas, row, RollupDeltas.Metric.BOOKINGS));
+            appointmentRepository.countOutcomesByDoctorAndHour(OUTCOME_STATUSES, start, end)
+                    .forEach(row -> add(deltas, row, RollupDeltas.Metric.forOutcome(row.getStatus())));
+            waitlistRepository.countJoinsByDoctorAndHour(start, end)
+                    .forEach(row -> add(deltas, row, RollupDeltas.Metric.WAITLIST_JOINS));
+            userRepository.countRegistrationsByHour(start, end)
+                    .forEach(row -> add(deltas, row, RollupDeltas.Metric.REGISTRATIONS));
+
+            if (!deltas.isEmpty()) {
+                rollupService.writeDeltas(deltas);
+            }
+            return deltas.size();
+        });
+        return written != null ? written : 0;
+    }
+
+    private void add(Map<RollupDeltas.Key, RollupDeltas.Delta> deltas, RollupBucketCountDto row,
+                     RollupDeltas.Metric metric) {
+        LocalDateTime hour = row.getDay().atTime(row.getHour(), 0);
+        long doctorId = row.getDoctorId() != null ? row.getDoctorId() : AnalyticsRollup.NO_DOCTOR;
+        RollupDeltas.addToBuckets(deltas, hour, doctorId, row.getSpecialization(), metric, row.getCount());
+    }
+}
@@ -0,0 +1,75 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+import com.hospital.Hospital.Management.model.RollupGranularity;
+
+/**
+ * Keys and counters shared by the live rollup buffer and the backfill job.
+ */
+final class RollupDeltas {
+
+    private RollupDeltas() {
+    }
+
+    enum Metric {
+        BOOKINGS,
+        CANCELLED_BY_PATIENT,
+        CANCELLED_BY_DOCTOR,
+        COMPLETIONS,
+        NO_SHOWS,
+        WAITLIST_JOINS,
+        REGISTRATIONS;
+
+        static Metric forOutcome(AppointmentStatus status) {
+            return switch (status) {
+                case CANCELLED_BY_PATIENT -> CANCELLED_BY_PATIENT;
+                case CANCELLED_BY_DOCTOR -> CANCELLED_BY_DOCTOR;
+                case COMPLETED -> COMPLETIONS;
+                case NO_SHOW -> NO_SHOWS;
+                default -> null;
+            };
+        }
+    }
+
+    record Key(RollupGranularity granularity, LocalDateTime bucketStart, long doctorId, String specialization) {
+    }
+
+    static final class Delta {
+        private final LongAdder[] values = new LongAdder[Metric.values().length];
+
+        Delta() {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = new LongAdder();
+            }
+        }
+
+        void add(Metric metric, long amount) {
+            values[metric.ordinal()].add(amount);
+        }
+
+        long get(Metric metric) {
+            return values[metric.ordinal()].sum();
+        }
+
+        void addAll(Delta other) {
+            for (Metric metric : Metric.values()) {
+                add(metric, other.get(metric));
+            }
+        }
+    }
+
+    /**
+     * Adds {@code amount} of {@code metric} to both the hourly and the daily bucket containing {@code time}.
+     */
+    static void addToBuckets(Map<Key, Delta> target, LocalDateTime time, long doctorId, String specialization,
+                             Metric metric, long amount) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Key key = new Key(granularity, granularity.bucketStart(time), doctorId, specialization);
+            target.computeIfAbsent(key, k -> new Delta()).add(metric, amount);
+        }
+    }
+}
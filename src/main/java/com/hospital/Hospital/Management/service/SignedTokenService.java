@@ -0,0 +1,150 @@
+package com.hospital.Hospital.Management.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hospital.Hospital.Management.exception.InvalidTokenException;
+import com.hospital.Hospital.Management.model.TokenType;
+import com.hospital.Hospital.Management.model.User;
+
+import io.jsonwebtoken.io.Decoders;
+
+/**
+ * Self-describing email verification and password reset tokens:
+ * {@code base64url(payload).base64url(HMAC-SHA256(payload))}, with the payload holding the
+ * token type, user id, expiry and a nonce. Nothing is stored; the nonce is a digest of
+ * the account state the token is meant to change (the enabled flag and email for
+ * verification, the password hash for a reset), so a token stops matching once it has
+ * been used, and a reset link dies with any later password change.
+ */
+@Service
+public class SignedTokenService {
+
+    private static final String HMAC = "HmacSHA256";
+    private static final byte FORMAT_VERSION = 1;
+    private static final int NONCE_BYTES = 16;
+    private static final int PAYLOAD_BYTES = 1 + 1 + Long.BYTES + Long.BYTES + NONCE_BYTES;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long expirationMs;
+    private final Clock clock;
+
+    @Autowired
+    public SignedTokenService(@Value("${app.jwt.secret}") String secret,
+                              @Value("${app.auth.signed-token.expiration-ms:86400000}") long expirationMs) {
+        this(secret, expirationMs, Clock.systemUTC());
+    }
+
+    SignedTokenService(String secret, long expirationMs, Clock clock) {
+        // A key derived for this purpose, so these tokens can never pass as JWTs or vice versa.
+        this.key = new SecretKeySpec(hmac(new SecretKeySpec(Decoders.BASE64.decode(secret), HMAC),
+                "verification-token-key".getBytes(StandardCharsets.UTF_8)), HMAC);
+        this.expirationMs = expirationMs;
+        this.clock = clock;
+    }
+
+    public String issue(User user, TokenType type) {
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                .put(FORMAT_VERSION)
+                .put((byte) type.ordinal())
+                .putLong(user.getId())
+                .putLong(clock.instant().plusMillis(expirationMs).getEpochSecond())
+                .put(nonce(user, type));
+        byte[] bytes = payload.array();
+        return ENCODER.encodeToString(bytes) + "." + ENCODER.encodeToString(hmac(key, bytes));
+    }
+
+    /**
+     * Whether the token is in this format rather than a legacy stored UUID token.
+     */
+    public boolean isSigned(String token) {
+        return token != null && token.indexOf('.') > 0;
+    }
+
+    /**
+     * Checks the signature, type and expiry. The caller loads the user and confirms it with
+     * {@link #matchesState}.
+     *
+     * @throws InvalidTokenException if the token is malformed, forged, of another type or expired
+     */
+    public SignedToken verify(String token, TokenType expectedType) {
+        int dot = token.indexOf('.');
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        if (payload.length != PAYLOAD_BYTES || !MessageDigest.isEqual(hmac(key, payload), signature)) {
+            throw new InvalidTokenException("Invalid token");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte version = buffer.get();
+        int typeOrdinal = buffer.get();
+        long userId = buffer.getLong();
+        Instant expiresAt = Instant.ofEpochSecond(buffer.getLong());
+        byte[] nonce = new byte[NONCE_BYTES];
+        buffer.get(nonce);
+        if (version != FORMAT_VERSION || typeOrdinal != expectedType.ordinal()) {
+            throw new InvalidTokenException("Invalid token type");
+        }
+        if (clock.instant().isAfter(expiresAt)) {
+            throw new InvalidTokenException("Token expired");
+        }
+        return new SignedToken(userId, expectedType, expiresAt, nonce);
+    }
+
+    /**
+     * Whether the user is still in the state the token was issued for, i.e. the token has
+     * not been used.
+     */
+    public boolean matchesState(SignedToken token, User user) {
+        return token.userId() == user.getId() && MessageDigest.isEqual(token.nonce(), nonce(user, token.type()));
+    }
+
+    private static byte[] nonce(User user, TokenType type) {
+        String state = switch (type) {
+            case EMAIL_VERIFICATION -> "verify|" + user.isEnabled() + "|" + user.getEmail();
+            case PASSWORD_RESET -> "reset|" + user.getPassword();
+        };
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(state.getBytes(StandardCharsets.UTF_8));
+            byte[] nonce = new byte[NONCE_BYTES];
+            System.arraycopy(digest, 0, nonce, 0, NONCE_BYTES);
+            return nonce;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] hmac(SecretKeySpec key, byte[] data) {
+        try {
+            // Mac instances are not thread-safe and cheap next to the mail this token goes into.
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    public record SignedToken(long userId, TokenType type, Instant expiresAt, byte[] nonce) {
+    }
+}
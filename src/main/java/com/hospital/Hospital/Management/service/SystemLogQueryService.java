@@ -0,0 +1,264 @@
+package com.hospital.Hospital.Management.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
+import com.hospital.Hospital.Management.dto.SystemLogDto;
+import com.hospital.Hospital.Management.dto.SystemLogFilter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read side of the audit log: keyset-paginated browsing newest first, and exports that
+ * stream rows from a forward-only cursor straight to the response. The same endpoints
+ * can read the file journal instead, oldest first by journal position.
+ */
+@Service
+@Slf4j
+public class SystemLogQueryService {
+
+    static final int MAX_PAGE_SIZE = 500;
+    private static final String SORT_KEY = "TIMESTAMP";
+    private static final String JOURNAL_SORT_KEY = "JOURNAL";
+
+    private static final String SELECT_SQL = "SELECT l.id, l.user_id, u.email, l.action, l.details, l.ip_address, l.timestamp " +
+            "FROM system_logs l LEFT JOIN users u ON u.id = l.user_id";
+    private static final String ORDER_SQL = " ORDER BY l.timestamp DESC, l.id DESC";
+
+    private static final RowMapper<SystemLogDto> ROW_MAPPER = (rs, rowNum) -> mapRow(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<AuditJournal> auditJournal;
+
+    public SystemLogQueryService(JdbcTemplate jdbcTemplate,
+                                 DataSource dataSource,
+                                 ObjectMapper objectMapper,
+                                 ObjectProvider<AuditJournal> auditJournal,
+                                 @Value("${hospital.audit.export.fetch-size:-2147483648}") int exportFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.auditJournal = auditJournal;
+        // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the result.
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(exportFetchSize);
+    }
+
+    public KeysetPageDto<SystemLogDto> findLogs(AuditLogSource source, SystemLogFilter filter, int size, String cursor) {
+        if (source == AuditLogSource.JOURNAL) {
+            return findJournalLogs(filter, Math.max(1, Math.min(size, MAX_PAGE_SIZE)), cursor);
+        }
+        KeysetPageRequest paging = KeysetPageRequest.of(cursorScope(filter), size, MAX_PAGE_SIZE, cursor);
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        appendWhere(sql, params, filter, paging);
+        sql.append(ORDER_SQL).append(" LIMIT ?");
+        params.add(paging.fetchSize());
+
+        List<SystemLogDto> rows = jdbcTemplate.query(sql.toString(), ROW_MAPPER, params.toArray());
+        return paging.toPage(rows, SystemLogDto::getTimestamp, SystemLogDto::getId);
+    }
+
+    /**
+     * Writes every matching row as one JSON object per line. Memory use does not depend
+     * on the number of rows.
+     */
+    public void exportNdjson(AuditLogSource source, SystemLogFilter filter, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+        forEachLog(source, filter, row -> {
+            try {
+                generator.writeObject(row);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.flush();
+    }
+
+    public void exportCsv(AuditLogSource source, SystemLogFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,userId,userEmail,action,details,ipAddress,timestamp\n");
+        forEachLog(source, filter, row -> {
+            try {
+                writer.write(row.getId() + "," + csv(row.getUserId()) + "," + csv(row.getUserEmail()) + ","
+                        + csv(row.getAction()) + "," + csv(row.getDetails()) + "," + csv(row.getIpAddress()) + ","
+                        + csv(row.getTimestamp()) + "\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void forEachLog(AuditLogSource source, SystemLogFilter filter, Consumer<SystemLogDto> sink) throws IOException {
+        if (source == AuditLogSource.JOURNAL) {
+            requireJournal().scan(0, entry -> {
+                if (matches(entry.record(), filter)) {
+                    sink.accept(toDto(entry));
+                }
+                return true;
+            });
+        } else {
+            forEachLog(filter, sink);
+        }
+    }
+
+    /**
+     * Feeds every matching row, newest first, to {@code sink} from a forward-only cursor.
+     */
+    void forEachLog(SystemLogFilter filter, Consumer<SystemLogDto> sink) throws IOException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        appendWhere(sql, params, filter, null);
+        sql.append(ORDER_SQL);
+        try {
+            streamingJdbcTemplate.query(sql.toString(), rs -> {
+                sink.accept(mapRow(rs));
+            }, params.toArray());
+        } catch (UncheckedIOException e) {
+            // Usually the consumer's stream failed or the client went away; JdbcTemplate closes the cursor.
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The journal has no secondary indexes, so filters are applied while scanning forward
+     * from the cursor position until one row past the page is found.
+     */
+    private KeysetPageDto<SystemLogDto> findJournalLogs(SystemLogFilter filter, int pageSize, String cursor) {
+        long from = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor, JOURNAL_SORT_KEY).id() : 0;
+        List<SystemLogDto> rows = new ArrayList<>(pageSize + 1);
+        long[] next = {from};
+        requireJournal().scan(from, entry -> {
+            if (!matches(entry.record(), filter)) {
+                return true;
+            }
+            rows.add(toDto(entry));
+            if (rows.size() > pageSize) {
+                return false;
+            }
+            next[0] = entry.nextPosition();
+            return true;
+        });
+        boolean hasMore = rows.size() > pageSize;
+        List<SystemLogDto> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? KeysetCursor.encode(JOURNAL_SORT_KEY, null, next[0]) : null;
+        return new KeysetPageDto<>(page, nextCursor, hasMore);
+    }
+
+    private AuditJournal requireJournal() {
+        AuditJournal journal = auditJournal.getIfAvailable();
+        if (journal == null) {
+            throw new IllegalStateException("The audit journal is not enabled.");
+        }
+        return journal;
+    }
+
+    private static boolean matches(AuditRecord record, SystemLogFilter filter) {
+        return (filter.getAction() == null || filter.getAction().isBlank() || filter.getAction().equals(record.action()))
+                && (filter.getUserId() == null || filter.getUserId().equals(record.userId()))
+                && (filter.getFrom() == null || !record.timestamp().isBefore(filter.getFrom()))
+                && (filter.getTo() == null || record.timestamp().isBefore(filter.getTo()));
+    }
+
+    private static SystemLogDto toDto(AuditJournal.JournalEntry entry) {
+        AuditRecord record = entry.record();
+        return SystemLogDto.builder()
+                .id(entry.position())
+                .userId(record.userId())
+                .action(record.action())
+                .details(record.details())
+                .ipAddress(record.ipAddress())
+                .timestamp(record.timestamp())
+                .build();
+    }
+
+    private static String cursorScope(SystemLogFilter filter) {
+        return KeysetCursor.scope(SORT_KEY, filter.getAction(), filter.getUserId(), filter.getFrom(), filter.getTo());
+    }
+
+    private static void appendWhere(StringBuilder sql, List<Object> params, SystemLogFilter filter, KeysetPageRequest paging) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.getAction() != null && !filter.getAction().isBlank()) {
+            conditions.add("l.action = ?");
+            params.add(filter.getAction());
+        }
+        if (filter.getUserId() != null) {
+            conditions.add("l.user_id = ?");
+            params.add(filter.getUserId());
+        }
+        if (filter.getFrom() != null) {
+            conditions.add("l.timestamp >= ?");
+            params.add(Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            conditions.add("l.timestamp < ?");
+            params.add(Timestamp.valueOf(filter.getTo()));
+        }
+        if (filter.getRestoredBefore() != null) {
+            conditions.add("(l.restored_at IS NULL OR l.restored_at < ?)");
+            params.add(Timestamp.valueOf(filter.getRestoredBefore()));
+        }
+        if (paging != null && paging.after() != null) {
+            Timestamp afterTimestamp = Timestamp.valueOf(paging.afterDateTime());
+            conditions.add("(l.timestamp < ? OR (l.timestamp = ? AND l.id < ?))");
+            params.add(afterTimestamp);
+            params.add(afterTimestamp);
+            params.add(paging.afterId());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    private static SystemLogDto mapRow(ResultSet rs) throws SQLException {
+        long userId = rs.getLong("user_id");
+        boolean hasUser = !rs.wasNull();
+        Timestamp timestamp = rs.getTimestamp("timestamp");
+        return SystemLogDto.builder()
+                .id(rs.getLong("id"))
+                .userId(hasUser ? userId : null)
+                .userEmail(rs.getString("email"))
+                .action(rs.getString("action"))
+                .details(rs.getString("details"))
+                .ipAddress(rs.getString("ip_address"))
+                .timestamp(timestamp != null ? timestamp.toLocalDateTime() : null)
+                .build();
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
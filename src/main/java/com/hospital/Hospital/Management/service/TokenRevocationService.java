@@ -0,0 +1,240 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hospital.Hospital.Management.event.UserStatusChangedEvent;
+import com.hospital.Hospital.Management.model.TokenRevocation;
+import com.hospital.Hospital.Management.repository.TokenRevocationRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revoked access tokens (logout) and per-user "not before" cut-offs (logout everywhere,
+ * block). The {@code token_revocations} table is the source of truth; every node keeps
+ * the unexpired rows in memory behind a Bloom filter, so the check on each request is a
+ * few bit probes and only a possible hit touches the exact maps. Nodes pick up each
+ * other's revocations on the refresh interval.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private static final String JTI_KEY = "j:";
+    private static final String USER_KEY = "u:";
+
+    private final TokenRevocationRepository revocationRepository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final long maxTokenLifetimeMs;
+    private final long refreshOverlapMs;
+
+    private final Map<String, LocalDateTime> revokedJtis = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDateTime> notBefore = new ConcurrentHashMap<>();
+    private final Object mutationLock = new Object();
+
+    private volatile BloomFilter bloomFilter;
+    private volatile int bloomCapacity;
+    private volatile LocalDateTime lastRefresh;
+
+    public TokenRevocationService(TokenRevocationRepository revocationRepository,
+                                  @Value("${app.auth.revocation.expected-entries:100000}") int expectedEntries,
+                                  @Value("${app.auth.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${app.jwt.refresh-expiration-ms}") long maxTokenLifetimeMs,
+                                  @Value("${app.auth.revocation.refresh-ms:10000}") long refreshIntervalMs) {
+        this.revocationRepository = revocationRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxTokenLifetimeMs = maxTokenLifetimeMs;
+        // Rows committed by other nodes just before our last read may carry an earlier created_at.
+        this.refreshOverlapMs = Math.max(refreshIntervalMs, 1000) * 3;
+        this.bloomCapacity = expectedEntries;
+        this.bloomFilter = BloomFilter.create(expectedEntries, falsePositiveRate);
+    }
+
+    /**
+     * Loads every unexpired revocation and rebuilds the filter from scratch.
+     */
+    @PostConstruct
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenRevocation> rows = revocationRepository.findByExpiresAtAfter(now);
+        synchronized (mutationLock) {
+            revokedJtis.clear();
+            notBefore.clear();
+            rows.forEach(this::applyToMaps);
+            rebuildFilterLocked();
+            lastRefresh = now;
+        }
+        log.info("Loaded {} revoked tokens and {} user cut-offs.", revokedJtis.size(), notBefore.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocation.refresh-ms:10000}",
+            initialDelayString = "${app.auth.revocation.refresh-ms:10000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastRefresh.minus(refreshOverlapMs, ChronoUnit.MILLIS);
+        List<TokenRevocation> rows = revocationRepository.findByCreatedAtAfterAndExpiresAtAfter(since, now);
+        synchronized (mutationLock) {
+            rows.forEach(this::applyLocked);
+            lastRefresh = now;
+        }
+    }
+
+    /**
+     * Deletes expired rows and rebuilds the filter, since a Bloom filter cannot forget keys.
+     */
+    @Scheduled(cron = "${app.auth.revocation.purge-cron:0 15 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = revocationRepository.deleteExpired(now);
+        synchronized (mutationLock) {
+            revokedJtis.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+            notBefore.entrySet().removeIf(entry ->
+                    entry.getValue().plus(maxTokenLifetimeMs, ChronoUnit.MILLIS).isBefore(now));
+            rebuildFilterLocked();
+        }
+        if (deleted > 0) {
+            log.info("Purged {} expired token revocations.", deleted);
+        }
+    }
+
+    public boolean isRevoked(ValidatedJwt jwt) {
+        BloomFilter filter = bloomFilter;
+        String jti = jwt.claims().getId();
+        if (jti != null && filter.mightContain(JTI_KEY + jti) && revokedJtis.containsKey(jti)) {
+            return true;
+        }
+        Number userId = jwt.claim(JwtService.CLAIM_USER_ID, Number.class);
+        if (userId == null || !filter.mightContain(USER_KEY + userId.longValue())) {
+            return false;
+        }
+        LocalDateTime cutOff = notBefore.get(userId.longValue());
+        Date issuedAt = jwt.claims().getIssuedAt();
+        // iat has whole-second precision, so only tokens from an earlier second are known to predate
+        // the cut-off; one issued in the same second may be the new login that followed it.
+        return cutOff != null && issuedAt != null
+                && issuedAt.toInstant().isBefore(toInstant(cutOff).truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    @Transactional
+    public void revokeToken(ValidatedJwt jwt) {
+        String jti = jwt.claims().getId();
+        if (jti == null) {
+            log.warn("Token for {} has no id and cannot be revoked individually.", jwt.subject());
+            return;
+        }
+        if (revokedJtis.containsKey(jti)) {
+            return;
+        }
+        Number userId = jwt.claim(JwtService.CLAIM_USER_ID, Number.class);
+        TokenRevocation revocation = TokenRevocation.builder()
+                .jti(jti)
+                .userId(userId != null ? userId.longValue() : null)
+                .expiresAt(LocalDateTime.ofInstant(jwt.expiresAt(), ZoneId.systemDefault()))
+                .createdAt(LocalDateTime.now())
+                .build();
+        revocationRepository.insertIfAbsent(revocation.getJti(), revocation.getUserId(),
+                revocation.getExpiresAt(), revocation.getCreatedAt());
+        applyAfterCommit(revocation);
+    }
+
+    /**
+     * Revokes every token issued to the user up to {@code cutOff}.
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId, LocalDateTime cutOff) {
+        TokenRevocation revocation = revocationRepository.save(TokenRevocation.builder()
+                .userId(userId)
+                .notBefore(cutOff)
+                .expiresAt(cutOff.plus(maxTokenLifetimeMs, ChronoUnit.MILLIS))
+                .build());
+        applyAfterCommit(revocation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserStatusChanged(UserStatusChangedEvent event) {
+        revokeAllForUser(event.userId(), event.occurredAt());
+    }
+
+    /**
+     * Only committed revocations reach the in-memory maps; a rolled-back one would otherwise
+     * reject tokens until the next rebuild.
+     */
+    private void applyAfterCommit(TokenRevocation revocation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    synchronized (mutationLock) {
+                        applyLocked(revocation);
+                    }
+                }
+            });
+        } else {
+            synchronized (mutationLock) {
+                applyLocked(revocation);
+            }
+        }
+    }
+
+    private void applyLocked(TokenRevocation revocation) {
+        applyToMaps(revocation);
+        if (revokedJtis.size() + notBefore.size() > bloomCapacity) {
+            rebuildFilterLocked();
+        } else {
+            addToFilter(bloomFilter, revocation);
+        }
+    }
+
+    private void applyToMaps(TokenRevocation revocation) {
+        if (revocation.getJti() != null) {
+            revokedJtis.put(revocation.getJti(), revocation.getExpiresAt());
+        }
+        if (revocation.getNotBefore() != null && revocation.getUserId() != null) {
+            notBefore.merge(revocation.getUserId(), revocation.getNotBefore(),
+                    (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+        }
+    }
+
+    private void rebuildFilterLocked() {
+        int entries = revokedJtis.size() + notBefore.size();
+        int capacity = Math.max(expectedEntries, entries * 2);
+        BloomFilter filter = BloomFilter.create(capacity, falsePositiveRate);
+        revokedJtis.keySet().forEach(jti -> filter.put(JTI_KEY + jti));
+        notBefore.keySet().forEach(userId -> filter.put(USER_KEY + userId));
+        bloomCapacity = capacity;
+        bloomFilter = filter;
+    }
+
+    private static void addToFilter(BloomFilter filter, TokenRevocation revocation) {
+        if (revocation.getJti() != null) {
+            filter.put(JTI_KEY + revocation.getJti());
+        }
+        if (revocation.getNotBefore() != null && revocation.getUserId() != null) {
+            filter.put(USER_KEY + revocation.getUserId());
+        }
+    }
+
+    private static Instant toInstant(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
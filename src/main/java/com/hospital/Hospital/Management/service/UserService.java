@@ -1,7 +1,10 @@
 package com.hospital.Hospital.Management.service;
 
+import java.time.LocalDateTime;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,9 +14,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.hospital.Hospital.Management.dto.UserProfileUpdateRequest;
+import com.hospital.Hospital.Management.event.UserStatusChangedEvent;
 import com.hospital.Hospital.Management.exception.ProfileUpdateException;
 import com.hospital.Hospital.Management.model.User;
 import com.hospital.Hospital.Management.repository.UserRepository;
+import com.hospital.Hospital.Management.security.CurrentUserResolver;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,12 +30,14 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUserResolver currentUserResolver;
 
    
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        return userRepository.findByEmail(email)
+        return currentUserResolver.findUser(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 
@@ -65,6 +72,9 @@ public class UserService {
             }
 
             currentUser.setEmail(request.getEmail());
+            // Tokens name the account by email, so the ones issued for the old address are retired.
+            currentUser.bumpStatusVersion();
+            eventPublisher.publishEvent(new UserStatusChangedEvent(currentUser.getId(), currentUser.getStatusVersion(), LocalDateTime.now()));
         }
 
         if (request.getNewPassword() != null && !request.getNewPassword().isEmpty()) {
@@ -0,0 +1,21 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.Instant;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Claims of a token whose signature and expiry have been checked by
+ * {@link JwtService#validate(String)}. Everything a request needs from its token is read
+ * from here instead of parsing the token again.
+ */
+public record ValidatedJwt(String subject, Instant expiresAt, Claims claims) {
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    public <T> T claim(String name, Class<T> type) {
+        return claims.get(name, type);
+    }
+}
@@ -0,0 +1,68 @@
+package com.hospital.Hospital.Management.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes expired rows from {@code verification_tokens}. Rows go in batches of
+ * {@code delete-batch-size}, each its own short statement served by the expiry date
+ * index, so the purge never scans or locks a large range while registrations and resets
+ * keep writing. Used tokens are already rejected and go once they expire, within a day.
+ */
+@Service
+@Slf4j
+public class VerificationTokenPurgeService {
+
+    private static final String DELETE_SQL =
+            "DELETE FROM verification_tokens WHERE expiry_date < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor executor;
+    private final int deleteBatchSize;
+
+    public VerificationTokenPurgeService(JdbcTemplate jdbcTemplate,
+                                         @Qualifier("taskExecutor") Executor executor,
+                                         @Value("${app.auth.verification-token.delete-batch-size:1000}") int deleteBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        this.deleteBatchSize = Math.max(1, deleteBatchSize);
+    }
+
+    // A large backlog takes many batches, so the purge runs off the scheduler's few threads.
+    @Scheduled(cron = "${app.auth.verification-token.purge-cron:0 0 4 * * *}")
+    public void purgeExpiredTokens() {
+        executor.execute(() -> {
+            try {
+                int deleted = purgeBefore(LocalDateTime.now());
+                if (deleted > 0) {
+                    log.info("Purged {} expired verification tokens.", deleted);
+                }
+            } catch (RuntimeException e) {
+                log.error("Verification token purge failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Deletes tokens that expired before {@code cutoff}, and returns how many.
+     */
+    public int purgeBefore(LocalDateTime cutoff) {
+        Timestamp expiredBefore = Timestamp.valueOf(cutoff);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_SQL, expiredBefore, deleteBatchSize);
+            total += deleted;
+        } while (deleted == deleteBatchSize);
+        return total;
+    }
+}
@@ -1,18 +1,22 @@
 package com.hospital.Hospital.Management.service;
 
 import com.hospital.Hospital.Management.dto.WaitlistEntryDto;
+import com.hospital.Hospital.Management.event.WaitlistJoinedEvent;
 import com.hospital.Hospital.Management.exception.ResourceNotFoundException;
 import com.hospital.Hospital.Management.model.Role;
 import com.hospital.Hospital.Management.model.User;
 import com.hospital.Hospital.Management.model.WaitlistEntry;
 import com.hospital.Hospital.Management.repository.UserRepository;
 import com.hospital.Hospital.Management.repository.WaitlistRepository;
+import com.hospital.Hospital.Management.security.CurrentUserResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,9 +29,11 @@ public class WaitlistService {
     private final WaitlistRepository waitlistRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUserResolver currentUserResolver;
 
     public WaitlistEntryDto joinWaitlist(Long doctorId, String patientEmail, LocalDate preferredDate) {
-        User patient = userRepository.findByEmail(patientEmail)
+        User patient = currentUserResolver.findUser(patientEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with email: " + patientEmail));
         User doctor = userRepository.findById(doctorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
@@ -39,6 +45,8 @@ public class WaitlistService {
                 .build();
 
         WaitlistEntry savedEntry = waitlistRepository.save(entry);
+        eventPublisher.publishEvent(new WaitlistJoinedEvent(
+                savedEntry.getId(), doctor.getId(), doctor.getSpecialization(), LocalDateTime.now()));
         return mapToDto(savedEntry);
     }
 
@@ -0,0 +1,87 @@
+package com.hospital.Hospital.Management.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.hospital.Hospital.Management.dto.AdminUserSummaryDto;
+import com.hospital.Hospital.Management.dto.RoleCountDto;
+import com.hospital.Hospital.Management.dto.UserListQuery;
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.model.User;
+import com.hospital.Hospital.Management.repository.UserRepository;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@DisplayName("UserRepository Integration Tests")
+class UserRepositoryIntegrationTest {
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private UserRepository userRepository;
+    private User withoutCreatedAt;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(user("a@test.com", Set.of(Role.ROLE_PATIENT)));
+        withoutCreatedAt = entityManager.persist(user("b@test.com", Set.of(Role.ROLE_DOCTOR)));
+        entityManager.persist(user("c@test.com", Set.of(Role.ROLE_DOCTOR, Role.ROLE_ADMIN)));
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE users SET created_at = NULL WHERE id = " + withoutCreatedAt.getId())
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Keyset pages by creation time should step over rows without one in both directions")
+    void findUserSummaries_ByCreatedAt_ShouldPageThroughNullsOnce() {
+        for (boolean descending : new boolean[] {false, true}) {
+            List<Long> seen = new ArrayList<>();
+            UserListQuery query = UserListQuery.builder()
+                    .sort(UserListQuery.SortField.CREATED_AT).descending(descending).limit(1).build();
+            List<AdminUserSummaryDto> page = userRepository.findUserSummaries(query);
+            while (!page.isEmpty()) {
+                AdminUserSummaryDto last = page.get(0);
+                seen.add(last.getId());
+                query.setAfterValue(last.getCreatedAt());
+                query.setAfterId(last.getId());
+                page = userRepository.findUserSummaries(query);
+            }
+            assertThat(seen).hasSize(3).doesNotHaveDuplicates();
+            assertThat(descending ? seen.get(2) : seen.get(0)).isEqualTo(withoutCreatedAt.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Role lookups should match every user whose role set contains the role")
+    void roleQueries_ShouldMatchUsersHoldingTheRoleAmongOthers() {
+        assertThat(userRepository.countByRole(Role.ROLE_DOCTOR)).isEqualTo(2);
+        assertThat(userRepository.countByRole(Role.ROLE_ADMIN)).isEqualTo(1);
+        assertThat(userRepository.existsByRole(Role.ROLE_PATIENT)).isTrue();
+        assertThat(userRepository.findByRole(Role.ROLE_ADMIN))
+                .extracting(User::getEmail).containsExactly("c@test.com");
+        assertThat(userRepository.findByRole(Role.ROLE_DOCTOR))
+                .extracting(User::getEmail).containsExactlyInAnyOrder("b@test.com", "c@test.com");
+    }
+
+    @Test
+    @DisplayName("Grouping by role set should count each role once per user holding it")
+    void countUsersByRole_ShouldSumRoleSetGroups() {
+        assertThat(userRepository.countUsersByRoleSet()).hasSize(3);
+        assertThat(userRepository.countUsersByRole())
+                .extracting(RoleCountDto::getRole, RoleCountDto::getCount)
+                .contains(tuple(Role.ROLE_PATIENT, 1L), tuple(Role.ROLE_DOCTOR, 2L), tuple(Role.ROLE_ADMIN, 1L));
+    }
+
+    private static User user(String email, Set<Role> roles) {
+        return User.builder().email(email).password("pass").fullName(email).roles(roles).enabled(true).build();
+    }
+}
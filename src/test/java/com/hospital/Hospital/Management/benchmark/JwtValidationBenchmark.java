@@ -0,0 +1,91 @@
+package com.hospital.Hospital.Management.benchmark;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hospital.Hospital.Management.service.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Per-request cost of authenticating a bearer token.
+ * <ul>
+ *   <li>{@code legacyTripleParse}: the old filter path, decoding the key and building a parser for each of three parses.</li>
+ *   <li>{@code validateUncached}: one parse with the shared key and parser.</li>
+ *   <li>{@code validateCached}: a repeated token served from the validation cache.</li>
+ * </ul>
+ * After {@code mvn test-compile}, run {@link #main} from the IDE or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main JwtValidationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET =
+            "Y2234ddrt5h5th4wtw4e5gr546t45tgrgdwe1QRZJNEYRHRYERFRF34TVSDRWFSecretKeyForHS256AlgorithmIsVeryImportantSoKeepItSafeAndLongAndRandom12345";
+
+    private JwtService uncached;
+    private JwtService cached;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtService(SECRET, 3_600_000, 604_800_000, 0);
+        cached = new JwtService(SECRET, 3_600_000, 604_800_000, 10_000);
+        user = new User("patient@example.com", "", List.of(new SimpleGrantedAuthority("PATIENT")));
+        token = cached.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyClaims(token).getSubject();
+        return username.equals(legacyClaims(token).getSubject())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public String validateUncached() {
+        return uncached.validate(token).subject();
+    }
+
+    @Benchmark
+    public String validateCached() {
+        return cached.validate(token).subject();
+    }
+
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtValidationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.hospital.Hospital.Management.config;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+public class QueryCountingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new QueryCountingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:query-count;DB_CLOSE_DELAY=-1", "sa", "")));
+        jdbcTemplate.execute("CREATE TABLE counted (id BIGINT PRIMARY KEY)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryCounter.stop();
+        jdbcTemplate.execute("DROP TABLE counted");
+    }
+
+    @Test
+    void jdbcTemplateStatements_ShouldBeCountedOncePerStatementOrBatch() {
+        // Arrange
+        QueryCounter.start();
+
+        // Act
+        jdbcTemplate.update("INSERT INTO counted (id) VALUES (?)", 1L);
+        jdbcTemplate.batchUpdate("INSERT INTO counted (id) VALUES (?)", List.of(new Object[] {2L}, new Object[] {3L}));
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM counted", Integer.class);
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM counted WHERE id > ?", Integer.class, 1L);
+
+        // Assert
+        assertEquals(4, QueryCounter.stop());
+    }
+
+    @Test
+    void statements_WithoutStartedCount_ShouldNotBeCounted() {
+        // Act
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM counted", Integer.class);
+
+        // Assert
+        assertEquals(-1, QueryCounter.current());
+    }
+}
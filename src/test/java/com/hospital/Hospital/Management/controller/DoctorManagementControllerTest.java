@@ -24,6 +24,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hospital.Hospital.Management.dto.DoctorProfileDto;
 import com.hospital.Hospital.Management.dto.RescheduleRequestDto;
 import com.hospital.Hospital.Management.dto.WeeklyAvailabilityRequestDto;
+import com.hospital.Hospital.Management.service.ConsultationNoteSearchService;
 import com.hospital.Hospital.Management.service.DoctorManagementService;
 
 @WebMvcTest(DoctorManagementController.class)
@@ -34,6 +35,9 @@ class DoctorManagementControllerTest {
     @Mock
     private DoctorManagementService doctorService;
 
+    @Mock
+    private ConsultationNoteSearchService noteSearchService;
+
     @InjectMocks
     private DoctorManagementController doctorController;
 
@@ -94,10 +98,10 @@ class DoctorManagementControllerTest {
     void testGetAppointmentHistory() throws Exception {
       
        
-        when(doctorService.getAppointmentHistory(eq(1L), eq(null)));
+        when(doctorService.getAppointmentHistory(eq(1L), eq(null), eq(null), eq(null), eq(50), eq(null), eq(true)));
 
         mockMvc.perform(get("/api/doctors/1/appointments/history"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].appointmentId").value(5));
+                .andExpect(jsonPath("$.items[0].appointmentId").value(5));
     }
 }
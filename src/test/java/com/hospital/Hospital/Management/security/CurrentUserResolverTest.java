@@ -0,0 +1,75 @@
+package com.hospital.Hospital.Management.security;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.model.User;
+import com.hospital.Hospital.Management.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class CurrentUserResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void findUser_WithinOneRequest_ShouldLoadByPrincipalIdOnce() {
+        // Arrange
+        User patient = User.builder().id(7L).email("patient@example.com").roles(Set.of(Role.ROLE_PATIENT)).enabled(true).build();
+        AuthenticatedUser principal = AuthenticatedUser.from(patient);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(patient));
+        CurrentUserResolver resolver = new CurrentUserResolver(userRepository);
+
+        // Act
+        User first = resolver.findUser("patient@example.com").orElseThrow();
+        User second = resolver.currentUser().orElseThrow();
+
+        // Assert
+        assertSame(patient, first);
+        assertSame(patient, second);
+        verify(userRepository, times(1)).findById(7L);
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void findUser_OutsideRequest_ShouldQueryEachTime() {
+        // Arrange
+        User patient = User.builder().id(7L).email("patient@example.com").build();
+        when(userRepository.findByEmail("patient@example.com")).thenReturn(Optional.of(patient));
+        CurrentUserResolver resolver = new CurrentUserResolver(userRepository);
+
+        // Act
+        resolver.findUser("patient@example.com");
+        resolver.findUser("patient@example.com");
+
+        // Assert
+        verify(userRepository, times(2)).findByEmail("patient@example.com");
+    }
+}
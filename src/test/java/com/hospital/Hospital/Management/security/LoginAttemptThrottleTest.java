@@ -0,0 +1,135 @@
+package com.hospital.Hospital.Management.security;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hospital.Hospital.Management.exception.LoginThrottledException;
+import com.hospital.Hospital.Management.service.AuditDurability;
+import com.hospital.Hospital.Management.service.AuditSink;
+import com.hospital.Hospital.Management.service.LogService;
+
+@ExtendWith(MockitoExtension.class)
+public class LoginAttemptThrottleTest {
+
+    private static final String IP = "10.0.0.1";
+
+    @Mock
+    private LogService logService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AuditSink auditSink;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private LoginAttemptThrottle throttle() {
+        return new LoginAttemptThrottle(logService, transactionManager, true, 3, 100, 60_000, 1_000, 8_000, 4, 1_000, nanoTime::get);
+    }
+
+    @Test
+    void checkAllowed_AfterThresholdFailures_ShouldRejectAndAuditOnce() {
+        // Arrange
+        LoginAttemptThrottle throttle = throttle();
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAllowed("Doc@Example.com", IP);
+            throttle.recordFailure("Doc@Example.com", IP);
+        }
+
+        // Act
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> throttle.checkAllowed("doc@example.com", IP));
+
+        // Assert
+        assertEquals(1, ex.getRetryAfterSeconds());
+        verify(logService, times(1)).logSystemActivity(eq("LOGIN_THROTTLED"), anyString(), eq(IP), eq(AuditDurability.SYNC));
+    }
+
+    @Test
+    void recordFailure_AfterBackoffExpires_ShouldDoubleNextBackoff() {
+        // Arrange
+        LoginAttemptThrottle throttle = throttle();
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("doc@example.com", IP);
+        }
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        // Act
+        throttle.recordFailure("doc@example.com", IP);
+
+        // Assert
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> throttle.checkAllowed("doc@example.com", IP));
+        assertEquals(2, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    void recordSuccess_ShouldClearEmailHistory() {
+        // Arrange
+        LoginAttemptThrottle throttle = throttle();
+        throttle.recordFailure("doc@example.com", IP);
+        throttle.recordFailure("doc@example.com", IP);
+
+        // Act
+        throttle.recordSuccess("doc@example.com");
+        throttle.recordFailure("doc@example.com", IP);
+
+        // Assert
+        assertDoesNotThrow(() -> throttle.checkAllowed("doc@example.com", IP));
+    }
+
+    @Test
+    void recordFailure_AfterQuietWindows_ShouldHaveDecayed() {
+        // Arrange
+        LoginAttemptThrottle throttle = throttle();
+        throttle.recordFailure("doc@example.com", IP);
+        throttle.recordFailure("doc@example.com", IP);
+
+        // Act
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(120));
+        throttle.recordFailure("doc@example.com", IP);
+
+        // Assert
+        assertDoesNotThrow(() -> throttle.checkAllowed("doc@example.com", IP));
+    }
+
+    @Test
+    void recordFailure_InsideRolledBackLogin_ShouldStillAuditLockout() {
+        // Arrange
+        PlatformTransactionManager realTransactions =
+                new DataSourceTransactionManager(new DriverManagerDataSource("jdbc:h2:mem:login-throttle", "sa", ""));
+        LoginAttemptThrottle throttle = new LoginAttemptThrottle(new LogService(List.of(auditSink), AuditDurability.ASYNC),
+                realTransactions, true, 3, 100, 60_000, 1_000, 8_000, 4, 1_000, nanoTime::get);
+
+        // Act
+        assertThrows(BadCredentialsException.class, () -> new TransactionTemplate(realTransactions).executeWithoutResult(status -> {
+            for (int i = 0; i < 3; i++) {
+                throttle.recordFailure("doc@example.com", IP);
+            }
+            throw new BadCredentialsException("Bad credentials");
+        }));
+
+        // Assert
+        verify(auditSink).write(argThat(record -> record.action().equals("LOGIN_THROTTLED")), eq(AuditDurability.SYNC));
+    }
+}
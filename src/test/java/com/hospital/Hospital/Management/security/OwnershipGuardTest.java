@@ -0,0 +1,45 @@
+package com.hospital.Hospital.Management.security;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.model.User;
+
+public class OwnershipGuardTest {
+
+    private final OwnershipGuard guard = new OwnershipGuard();
+
+    @Test
+    void isSelf_ShouldCompareAgainstPrincipalId() {
+        // Arrange
+        AuthenticatedUser principal = AuthenticatedUser.from(User.builder()
+                .id(42L)
+                .email("doctor@example.com")
+                .roles(Set.of(Role.ROLE_DOCTOR))
+                .enabled(true)
+                .build());
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        // Act & Assert
+        assertTrue(guard.isSelf(authentication, 42L));
+        assertFalse(guard.isSelf(authentication, 43L));
+        assertFalse(guard.isSelf(authentication, null));
+    }
+
+    @Test
+    void isSelf_WithForeignPrincipal_ShouldDeny() {
+        // Arrange
+        Authentication authentication = new UsernamePasswordAuthenticationToken("doctor@example.com", null);
+
+        // Act & Assert
+        assertFalse(guard.isSelf(authentication, 42L));
+        assertFalse(guard.isSelf(null, 42L));
+    }
+}
@@ -0,0 +1,66 @@
+package com.hospital.Hospital.Management.security;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.hospital.Hospital.Management.exception.PasswordHashingBusyException;
+
+public class PooledBCryptPasswordEncoderTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    void encode_ShouldProduceMatchingHashAtConfiguredCost() {
+        // Arrange
+        PooledBCryptPasswordEncoder encoder = new PooledBCryptPasswordEncoder(5, DIRECT);
+
+        // Act
+        String hash = encoder.encode("secret");
+
+        // Assert
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldOnlyFlagHashesBelowTheConfiguredCost() {
+        // Arrange
+        PooledBCryptPasswordEncoder encoder = new PooledBCryptPasswordEncoder(5, DIRECT);
+
+        // Act & Assert
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void encode_WhenPoolSaturated_ShouldRejectFast() {
+        // Arrange
+        Executor saturated = task -> {
+            throw new RejectedExecutionException("queue full");
+        };
+        PooledBCryptPasswordEncoder encoder = new PooledBCryptPasswordEncoder(5, saturated);
+
+        // Act & Assert
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("secret"));
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.matches("secret", "$2a$05$x"));
+    }
+
+    @Test
+    void calibrate_ShouldStayWithinBounds() {
+        // Act
+        int strength = PooledBCryptPasswordEncoder.calibrate(0, 4, 6);
+
+        // Assert
+        assertEquals(4, strength);
+    }
+}
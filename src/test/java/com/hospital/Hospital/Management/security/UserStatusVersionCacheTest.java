@@ -0,0 +1,75 @@
+package com.hospital.Hospital.Management.security;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hospital.Hospital.Management.event.UserStatusChangedEvent;
+import com.hospital.Hospital.Management.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class UserStatusVersionCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void isCurrent_WithinTtl_ShouldQueryOnce() {
+        // Arrange
+        when(userRepository.findStatusVersionById(7L)).thenReturn(Optional.of(3L));
+        UserStatusVersionCache cache = new UserStatusVersionCache(userRepository, 5000, 100, nanoTime::get);
+
+        // Act
+        boolean first = cache.isCurrent(7L, 3L);
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        boolean second = cache.isCurrent(7L, 3L);
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        verify(userRepository, times(1)).findStatusVersionById(7L);
+    }
+
+    @Test
+    void isCurrent_AfterTtl_ShouldSeeBumpedVersion() {
+        // Arrange
+        when(userRepository.findStatusVersionById(7L)).thenReturn(Optional.of(3L), Optional.of(4L));
+        UserStatusVersionCache cache = new UserStatusVersionCache(userRepository, 5000, 100, nanoTime::get);
+        cache.isCurrent(7L, 3L);
+
+        // Act
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(6));
+
+        // Assert
+        assertFalse(cache.isCurrent(7L, 3L));
+    }
+
+    @Test
+    void onStatusChanged_ShouldRejectOldTokensImmediately() {
+        // Arrange
+        when(userRepository.findStatusVersionById(7L)).thenReturn(Optional.of(3L));
+        UserStatusVersionCache cache = new UserStatusVersionCache(userRepository, 5000, 100, nanoTime::get);
+        cache.isCurrent(7L, 3L);
+
+        // Act
+        cache.onStatusChanged(new UserStatusChangedEvent(7L, 4L, LocalDateTime.now()));
+
+        // Assert
+        assertFalse(cache.isCurrent(7L, 3L));
+        assertTrue(cache.isCurrent(7L, 4L));
+        verify(userRepository, times(1)).findStatusVersionById(7L);
+    }
+}
@@ -1,32 +1,46 @@
 package com.hospital.Hospital.Management.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.hospital.Hospital.Management.dto.AdminUserSummaryDto;
 import com.hospital.Hospital.Management.dto.AnnouncementRequestDto;
 import com.hospital.Hospital.Management.dto.DashboardAnalyticsDto;
-import com.hospital.Hospital.Management.model.Appointment;
-import com.hospital.Hospital.Management.model.AppointmentStatus;
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
+import com.hospital.Hospital.Management.dto.UserListQuery;
+import com.hospital.Hospital.Management.event.UserStatusChangedEvent;
+import com.hospital.Hospital.Management.model.Role;
 import com.hospital.Hospital.Management.model.User;
-import com.hospital.Hospital.Management.repository.AppointmentRepository;
 import com.hospital.Hospital.Management.repository.UserRepository;
+import com.hospital.Hospital.Management.security.CurrentUserResolver;
 
 @ExtendWith(MockitoExtension.class)
 public class AdminDashboardServiceTest {
@@ -38,16 +52,24 @@ public class AdminDashboardServiceTest {
     private LogService logService;
 
     @Mock
-    private AppointmentRepository appointmentRepository;
+    private DashboardAnalyticsService dashboardAnalyticsService;
+
+    @Mock
+    private LiveAnalyticsCounters liveAnalyticsCounters;
 
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
     @InjectMocks
     private AdminDashboardService adminDashboardService;
 
     private User testUser;
-    private Appointment testAppointment;
     private UserDetails adminDetails;
 
     @BeforeEach
@@ -60,28 +82,37 @@ public class AdminDashboardServiceTest {
                 .accountNonLocked(true)
                 .build();
 
-        testAppointment = Appointment.builder()
-                .id(1L)
-                .status(AppointmentStatus.SCHEDULED)
-                .build();
-
         adminDetails = mock(UserDetails.class);
-        when(adminDetails.getUsername()).thenReturn("admin@example.com");
+        lenient().when(adminDetails.getUsername()).thenReturn("admin@example.com");
     }
 
     @Test
-    void getDashboardAnalytics_ShouldReturnCorrectCounts() {
+    void blockUser_ShouldBumpStatusVersionAndPublishIt() {
         // Arrange
-        List<User> users = Arrays.asList(
-            testUser
-        );
-        List<Appointment> appointments = Arrays.asList(
-            testAppointment,
-            Appointment.builder().status(AppointmentStatus.COMPLETED).build()
-        );
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+
+        // Act
+        User blocked = adminDashboardService.blockUser(1L, adminDetails);
+
+        // Assert
+        assertFalse(blocked.isAccountNonLocked());
+        assertEquals(1L, blocked.getStatusVersion());
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof UserStatusChangedEvent changed && changed.userId() == 1L && changed.statusVersion() == 1L));
+        verify(logService).logActivity(any(), eq("USER_BLOCKED"), contains("BLOCKED"), eq(AuditDurability.SYNC));
+    }
 
-        when(userRepository.findAll()).thenReturn(users);
-        when(appointmentRepository.findAll()).thenReturn(appointments);
+    @Test
+    void getDashboardAnalytics_ShouldDelegateToAggregatedAnalytics() {
+        // Arrange
+        DashboardAnalyticsDto analytics = DashboardAnalyticsDto.builder()
+                .totalUsers(2)
+                .totalAppointments(2)
+                .scheduledAppointments(1)
+                .completedAppointments(1)
+                .build();
+        when(dashboardAnalyticsService.getAnalytics()).thenReturn(analytics);
 
         // Act
         DashboardAnalyticsDto result = adminDashboardService.getDashboardAnalytics();
@@ -89,12 +120,8 @@ public class AdminDashboardServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.getTotalUsers());
-        assertEquals(1, result.getTotalDoctors());
-        assertEquals(1, result.getTotalPatients());
-        assertEquals(2, result.getTotalAppointments());
         assertEquals(1, result.getScheduledAppointments());
-        assertEquals(1, result.getCompletedAppointments());
-        assertEquals(0, result.getCanceledAppointments());
+        verify(userRepository, never()).findAll();
     }
 
     @Test
@@ -106,7 +133,7 @@ public class AdminDashboardServiceTest {
         announcement.setMessage("Test Message");
 
         when(userRepository.findAll()).thenReturn(activeUsers);
-        when(userRepository.findByEmail(adminDetails.getUsername())).thenReturn(Optional.of(testUser));
+        when(currentUserResolver.findUser(adminDetails.getUsername())).thenReturn(Optional.of(testUser));
 
         // Act
         adminDashboardService.sendSystemAnnouncement(announcement, adminDetails);
@@ -119,4 +146,79 @@ public class AdminDashboardServiceTest {
             contains("Test Announcement")
         );
     }
+
+    @Test
+    void listUsers_ShouldReturnOnePageWithCursor() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<AdminUserSummaryDto> rows = new ArrayList<>(List.of(
+                new AdminUserSummaryDto(1L, "a@example.com", "A", null, null, null, true, true, createdAt,
+                        Set.of(Role.ROLE_PATIENT)),
+                new AdminUserSummaryDto(2L, "b@example.com", "B", null, null, null, true, true, createdAt,
+                        Set.of(Role.ROLE_DOCTOR)),
+                new AdminUserSummaryDto(3L, "c@example.com", "C", null, null, null, true, true, createdAt,
+                        Set.of(Role.ROLE_PATIENT))));
+        when(userRepository.findUserSummaries(any(UserListQuery.class))).thenReturn(rows);
+        UserListQuery query = UserListQuery.builder().sort(UserListQuery.SortField.CREATED_AT).build();
+
+        // Act
+        KeysetPageDto<AdminUserSummaryDto> page = adminDashboardService.listUsers(query, 2, null);
+
+        // Assert
+        assertEquals(3, query.getLimit());
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(Set.of(Role.ROLE_DOCTOR), page.getItems().get(1).getRoles());
+        verify(userRepository, never()).findAll();
+
+        // The cursor resumes after the last returned row.
+        UserListQuery next = UserListQuery.builder().sort(UserListQuery.SortField.CREATED_AT).build();
+        when(userRepository.findUserSummaries(next)).thenReturn(new ArrayList<>());
+        KeysetPageDto<AdminUserSummaryDto> last = adminDashboardService.listUsers(next, 2, page.getNextCursor());
+        assertEquals(2L, next.getAfterId());
+        assertEquals(createdAt, next.getAfterValue());
+        assertFalse(last.isHasMore());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void listUsers_CursorFromRowWithoutCreationTime_ShouldResumeAfterNull() {
+        // Arrange
+        List<AdminUserSummaryDto> rows = new ArrayList<>(List.of(
+                new AdminUserSummaryDto(4L, "d@example.com", "D", null, null, null, true, true, null, Set.of(Role.ROLE_PATIENT)),
+                new AdminUserSummaryDto(5L, "e@example.com", "E", null, null, null, true, true, null, Set.of(Role.ROLE_PATIENT))));
+        when(userRepository.findUserSummaries(any(UserListQuery.class))).thenReturn(rows);
+        KeysetPageDto<AdminUserSummaryDto> page = adminDashboardService.listUsers(
+                UserListQuery.builder().sort(UserListQuery.SortField.CREATED_AT).build(), 1, null);
+
+        // Act
+        UserListQuery next = UserListQuery.builder().sort(UserListQuery.SortField.CREATED_AT).build();
+        adminDashboardService.listUsers(next, 1, page.getNextCursor());
+
+        // Assert
+        assertEquals(4L, next.getAfterId());
+        assertNull(next.getAfterValue());
+    }
+
+    @Test
+    void listUsers_CursorReplayedAgainstOtherDirectionOrFilters_ShouldBeRejected() {
+        // Arrange
+        List<AdminUserSummaryDto> rows = new ArrayList<>(List.of(
+                new AdminUserSummaryDto(1L, "a@example.com", "A", null, null, null, true, true, null, Set.of(Role.ROLE_PATIENT)),
+                new AdminUserSummaryDto(2L, "b@example.com", "B", null, null, null, true, true, null, Set.of(Role.ROLE_PATIENT))));
+        when(userRepository.findUserSummaries(any(UserListQuery.class))).thenReturn(rows);
+        String cursor = adminDashboardService.listUsers(
+                UserListQuery.builder().sort(UserListQuery.SortField.EMAIL).role(Role.ROLE_PATIENT).build(), 1, null)
+                .getNextCursor();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> adminDashboardService.listUsers(
+                UserListQuery.builder().sort(UserListQuery.SortField.EMAIL).role(Role.ROLE_DOCTOR).build(), 1, cursor));
+        assertThrows(IllegalStateException.class, () -> adminDashboardService.listUsers(
+                UserListQuery.builder().sort(UserListQuery.SortField.EMAIL).role(Role.ROLE_PATIENT).descending(true).build(),
+                1, cursor));
+        String tampered = KeysetCursor.encode(KeysetCursor.scope("CREATED_AT", "ASC", null, null, null), "yesterday", 1L);
+        assertThrows(IllegalStateException.class, () -> adminDashboardService.listUsers(
+                UserListQuery.builder().sort(UserListQuery.SortField.CREATED_AT).build(), 1, tampered));
+    }
 }
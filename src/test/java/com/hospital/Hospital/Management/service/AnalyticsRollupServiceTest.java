@@ -0,0 +1,114 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.hospital.Hospital.Management.event.AppointmentStatusChangedEvent;
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+import com.hospital.Hospital.Management.model.RollupGranularity;
+import com.hospital.Hospital.Management.repository.AnalyticsRollupRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class AnalyticsRollupServiceTest {
+
+    @Mock
+    private AnalyticsRollupRepository rollupRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AnalyticsRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new AnalyticsRollupService(rollupRepository, jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteHourlyAndDailyBucketsInOneBatch() {
+        // Arrange
+        LocalDateTime time = LocalDateTime.of(2025, 3, 4, 10, 15);
+        rollupService.onAppointmentStatusChanged(new AppointmentStatusChangedEvent(
+                1L, 7L, "Cardiology", null, AppointmentStatus.SCHEDULED, time));
+        rollupService.onAppointmentStatusChanged(new AppointmentStatusChangedEvent(
+                2L, 7L, "Cardiology", null, AppointmentStatus.SCHEDULED, time.plusMinutes(20)));
+
+        // Act
+        rollupService.flush();
+        rollupService.flush();
+
+        // Assert
+        ArgumentCaptor<List<Map.Entry<RollupDeltas.Key, RollupDeltas.Delta>>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(AnalyticsRollupService.UPSERT_SQL), rows.capture(), anyInt(), any());
+        assertEquals(2, rows.getValue().size());
+        for (Map.Entry<RollupDeltas.Key, RollupDeltas.Delta> row : rows.getValue()) {
+            assertEquals(2, row.getValue().get(RollupDeltas.Metric.BOOKINGS));
+            LocalDateTime expectedStart = row.getKey().granularity() == RollupGranularity.HOURLY
+                    ? LocalDateTime.of(2025, 3, 4, 10, 0)
+                    : LocalDateTime.of(2025, 3, 4, 0, 0);
+            assertEquals(expectedStart, row.getKey().bucketStart());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldKeepDeltasWhenWriteFails() {
+        // Arrange
+        rollupService.onAppointmentStatusChanged(new AppointmentStatusChangedEvent(
+                1L, 7L, "Cardiology", AppointmentStatus.SCHEDULED, AppointmentStatus.COMPLETED, LocalDateTime.now()));
+        when(jdbcTemplate.batchUpdate(eq(AnalyticsRollupService.UPSERT_SQL), any(List.class), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[0][]);
+
+        // Act
+        rollupService.flush();
+        rollupService.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(AnalyticsRollupService.UPSERT_SQL), any(List.class), anyInt(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildRange_ShouldHoldFlushesAndDropDeltasTheRebuildRecounts() {
+        // Arrange
+        LocalDateTime inRange = LocalDateTime.of(2025, 3, 4, 10, 15);
+        LocalDateTime afterRange = LocalDateTime.of(2025, 3, 12, 9, 0);
+        rollupService.onAppointmentStatusChanged(new AppointmentStatusChangedEvent(
+                1L, 7L, "Cardiology", null, AppointmentStatus.SCHEDULED, inRange));
+        rollupService.onAppointmentStatusChanged(new AppointmentStatusChangedEvent(
+                2L, 7L, "Cardiology", null, AppointmentStatus.SCHEDULED, afterRange));
+
+        // Act
+        rollupService.rebuildRange(LocalDateTime.of(2025, 3, 3, 0, 0), LocalDateTime.of(2025, 3, 10, 0, 0), () -> {
+            rollupService.flush();
+            return 0;
+        });
+        rollupService.flush();
+
+        // Assert
+        ArgumentCaptor<List<Map.Entry<RollupDeltas.Key, RollupDeltas.Delta>>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(AnalyticsRollupService.UPSERT_SQL), rows.capture(), anyInt(), any());
+        assertEquals(2, rows.getValue().size());
+        rows.getValue().forEach(row -> assertEquals(LocalDate.of(2025, 3, 12), row.getKey().bucketStart().toLocalDate()));
+    }
+}
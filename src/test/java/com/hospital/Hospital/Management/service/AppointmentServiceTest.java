@@ -2,6 +2,7 @@ package com.hospital.Hospital.Management.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -9,23 +10,29 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import com.hospital.Hospital.Management.dto.AppointmentRequestDto;
 import com.hospital.Hospital.Management.dto.AppointmentResponseDto;
 import com.hospital.Hospital.Management.dto.BookingResponseDto;
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
 import com.hospital.Hospital.Management.model.Appointment;
+import com.hospital.Hospital.Management.model.AppointmentStatus;
 import com.hospital.Hospital.Management.model.DayOfWeek;
 import com.hospital.Hospital.Management.model.DoctorAvailability;
 import com.hospital.Hospital.Management.model.User;
 import com.hospital.Hospital.Management.repository.AppointmentRepository;
 import com.hospital.Hospital.Management.repository.DoctorAvailabilityRepository;
 import com.hospital.Hospital.Management.repository.UserRepository;
+import com.hospital.Hospital.Management.security.CurrentUserResolver;
 
 @ExtendWith(MockitoExtension.class)
 class AppointmentServiceTest {
@@ -34,6 +41,7 @@ class AppointmentServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private DoctorAvailabilityRepository availabilityRepository;
     @Mock private EmailService emailService;
+    @Mock private CurrentUserResolver currentUserResolver;
 
     @InjectMocks
     private AppointmentService appointmentService;
@@ -49,7 +57,7 @@ class AppointmentServiceTest {
         requestDto.setDoctorId(doctor.getId());
         requestDto.setAppointmentDateTime(LocalDateTime.now().plusDays(1));
 
-        when(userRepository.findByEmail(patient.getEmail())).thenReturn(Optional.of(patient));
+        when(currentUserResolver.findUser(patient.getEmail())).thenReturn(Optional.of(patient));
         when(userRepository.findById(doctor.getId())).thenReturn(Optional.of(doctor));
         when(appointmentRepository.findByDoctorAndAppointmentDateTime(doctor, requestDto.getAppointmentDateTime()))
                 .thenReturn(Optional.empty());
@@ -70,7 +78,7 @@ class AppointmentServiceTest {
         requestDto.setDoctorId(doctor.getId());
         requestDto.setAppointmentDateTime(appointment.getAppointmentDateTime());
 
-        when(userRepository.findByEmail(patient.getEmail())).thenReturn(Optional.of(patient));
+        when(currentUserResolver.findUser(patient.getEmail())).thenReturn(Optional.of(patient));
         when(userRepository.findById(doctor.getId())).thenReturn(Optional.of(doctor));
         when(appointmentRepository.findByDoctorAndAppointmentDateTime(doctor, requestDto.getAppointmentDateTime()))
                 .thenReturn(Optional.of(appointment));
@@ -84,7 +92,7 @@ class AppointmentServiceTest {
     @Test
     void testCancelAppointment_Unauthorized() {
         when(appointmentRepository.findById(appointment.getId())).thenReturn(Optional.of(appointment));
-        when(userRepository.findByEmail("another@example.com")).thenReturn(Optional.of(new User()));
+        when(currentUserResolver.findUser("another@example.com")).thenReturn(Optional.of(new User()));
 
        
     }
@@ -94,7 +102,7 @@ class AppointmentServiceTest {
         LocalDateTime newDateTime = LocalDateTime.now().plusDays(2);
 
         when(appointmentRepository.findById(appointment.getId())).thenReturn(Optional.of(appointment));
-        when(userRepository.findByEmail(patient.getEmail())).thenReturn(Optional.of(patient));
+        when(currentUserResolver.findUser(patient.getEmail())).thenReturn(Optional.of(patient));
         when(appointmentRepository.findByDoctorAndAppointmentDateTime(doctor, newDateTime))
                 .thenReturn(Optional.empty());
         when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
@@ -104,4 +112,27 @@ class AppointmentServiceTest {
         assertEquals(appointment.getId(), response.getId());
         verify(emailService, times(1)).sendAppointmentRescheduleByPatientEmail(any(), any());
     }
+
+    @Test
+    void testGetAppointmentsForPatient_ReturnsPageWithCursor() {
+        User currentPatient = new User();
+        currentPatient.setId(3L);
+        currentPatient.setEmail("patient@example.com");
+        LocalDateTime first = LocalDateTime.of(2025, 5, 2, 10, 0);
+        LocalDateTime second = LocalDateTime.of(2025, 5, 1, 10, 0);
+        when(currentUserResolver.findUser("patient@example.com")).thenReturn(Optional.of(currentPatient));
+        when(appointmentRepository.findPatientAppointments(eq(3L), eq(Set.of(AppointmentStatus.COMPLETED)),
+                isNull(), isNull(), isNull(), isNull(), eq(Limit.of(2))))
+                .thenReturn(List.of(
+                        new AppointmentResponseDto(21L, 3L, "Pat", 1L, "Doc", first, AppointmentStatus.COMPLETED, first),
+                        new AppointmentResponseDto(20L, 3L, "Pat", 1L, "Doc", second, AppointmentStatus.COMPLETED, second)));
+
+        KeysetPageDto<AppointmentResponseDto> page = appointmentService.getAppointmentsForPatient(
+                "patient@example.com", Set.of(AppointmentStatus.COMPLETED), null, null, 1, null);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("COMPLETED", page.getItems().get(0).getStatus());
+        assertTrue(page.isHasMore());
+        assertEquals(21L, KeysetCursor.decode(page.getNextCursor(), "APPOINTMENT_TIME").id());
+    }
 }
@@ -0,0 +1,186 @@
+package com.hospital.Hospital.Management.service;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+public class AuditArchiveServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 10);
+
+    @Mock
+    private ObjectProvider<AuditJournal> auditJournal;
+
+    @TempDir
+    Path archiveDir;
+
+    private ObjectMapper objectMapper;
+    private JdbcTemplate jdbcTemplate;
+    private AuditArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:audit-archive;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE system_logs (id BIGINT PRIMARY KEY, user_id BIGINT, action VARCHAR(255) NOT NULL, " +
+                "details LONGTEXT, ip_address VARCHAR(45), timestamp TIMESTAMP NOT NULL, restored_at TIMESTAMP)");
+        objectMapper = spy(new ObjectMapper().findAndRegisterModules());
+        SystemLogQueryService queryService = new SystemLogQueryService(jdbcTemplate, dataSource, objectMapper, auditJournal, 0);
+        archiveService = new AuditArchiveService(jdbcTemplate, new DataSourceTransactionManager(dataSource), queryService,
+                objectMapper, Runnable::run, archiveDir.toString(), 90, 30, 2, 31);
+
+        log(1L, "LOGIN", DAY.atTime(8, 0));
+        log(2L, "LOGOUT", DAY.atTime(9, 0));
+        log(3L, "LOGIN", DAY.atTime(23, 59));
+        log(4L, "LOGIN", DAY.plusDays(1).atTime(8, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE system_logs");
+        jdbcTemplate.execute("DROP TABLE users");
+    }
+
+    @Test
+    void archiveBefore_ShouldWriteSegmentIndexItAndDeleteTheRows() throws Exception {
+        // Act
+        int days = archiveService.archiveBefore(DAY.plusDays(1));
+
+        // Assert
+        assertEquals(1, days);
+        List<AuditArchiveService.SegmentEntry> index = readIndex();
+        assertEquals(1, index.size());
+        AuditArchiveService.SegmentEntry segment = index.get(0);
+        assertEquals(DAY, segment.day());
+        assertEquals(3, segment.rows());
+        assertEquals(1L, segment.firstId());
+        assertEquals(3L, segment.lastId());
+        assertEquals(Set.of("LOGIN", "LOGOUT"), segment.actions());
+        assertEquals(3, readSegmentLines(segment).size());
+        assertEquals(List.of(4L), jdbcTemplate.queryForList("SELECT id FROM system_logs", Long.class));
+    }
+
+    @Test
+    void archiveBefore_AfterCrashBeforeIndexing_ShouldNeitherLoseNorDuplicateRows() throws Exception {
+        // Arrange: the segment is moved into place, then writing the index fails.
+        doThrow(new IOException("disk full")).doCallRealMethod()
+                .when(objectMapper).writeValue(any(File.class), any());
+        assertThrows(IOException.class, () -> archiveService.archiveBefore(DAY.plusDays(1)));
+        assertEquals(4, countRows());
+
+        // Act
+        archiveService.archiveBefore(DAY.plusDays(1));
+
+        // Assert
+        List<AuditArchiveService.SegmentEntry> index = readIndex();
+        assertEquals(1, index.size());
+        assertEquals(3, index.get(0).rows());
+        try (Stream<Path> files = Files.list(archiveDir.resolve("2025/01"))) {
+            assertEquals(List.of(archiveDir.resolve(index.get(0).file())), files.toList());
+        }
+        assertEquals(1, countRows());
+        assertEquals(3, archiveService.restore(DAY, DAY));
+        assertEquals(List.of(1L, 2L, 3L, 4L), jdbcTemplate.queryForList("SELECT id FROM system_logs ORDER BY id", Long.class));
+    }
+
+    @Test
+    void restore_ShouldMarkRowsAndKeepThemOutOfTheArchiveDuringTheHold() throws Exception {
+        // Arrange
+        archiveService.archiveBefore(DAY.plusDays(1));
+
+        // Act
+        long restored = archiveService.restore(DAY, DAY);
+        int days = archiveService.archiveBefore(DAY.plusDays(1));
+
+        // Assert
+        assertEquals(3, restored);
+        assertEquals(0, days);
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM system_logs WHERE restored_at IS NOT NULL", Integer.class));
+        assertEquals("LOGOUT", jdbcTemplate.queryForObject("SELECT action FROM system_logs WHERE id = 2", String.class));
+        assertTrue(readIndex().isEmpty());
+        try (Stream<Path> files = Files.list(archiveDir.resolve("2025/01"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void archiveExpiredLogs_ShouldRunOnTheTaskExecutor() {
+        // Arrange
+        List<Runnable> submitted = new ArrayList<>();
+        AuditArchiveService scheduled = new AuditArchiveService(jdbcTemplate, null, null, objectMapper, submitted::add,
+                archiveDir.toString(), 90, 30, 2, 31);
+
+        // Act
+        scheduled.archiveExpiredLogs();
+
+        // Assert
+        assertEquals(1, submitted.size());
+        assertEquals(4, countRows());
+    }
+
+    @Test
+    void restore_WithRangeLongerThanTheCap_ShouldBeRejected() {
+        assertThrows(IllegalStateException.class, () -> archiveService.restore(DAY, DAY.plusDays(31)));
+    }
+
+    private void log(Long id, String action, LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO system_logs (id, user_id, action, details, timestamp) VALUES (?, NULL, ?, ?, ?)",
+                id, action, action + " details", Timestamp.valueOf(timestamp));
+    }
+
+    private int countRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM system_logs", Integer.class);
+    }
+
+    private List<AuditArchiveService.SegmentEntry> readIndex() throws IOException {
+        Path file = archiveDir.resolve("index.json");
+        return Files.exists(file)
+                ? new ObjectMapper().findAndRegisterModules().readValue(file.toFile(),
+                        new TypeReference<List<AuditArchiveService.SegmentEntry>>() { })
+                : List.of();
+    }
+
+    private List<String> readSegmentLines(AuditArchiveService.SegmentEntry segment) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(archiveDir.resolve(segment.file()))), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.hospital.Hospital.Management.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AuditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private AuditJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void write_ShouldBeReadableAfterReopen() throws IOException {
+        // Arrange
+        journal = new AuditJournal(directory, 4096, 0);
+        journal.open();
+        LocalDateTime timestamp = LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_000_000);
+        journal.write(new AuditRecord(5L, "USER_BLOCKED", "Blocked user 5", "10.0.0.1", timestamp), AuditDurability.SYNC);
+        journal.write(new AuditRecord(null, "BACKUP", null, null, timestamp), AuditDurability.ASYNC);
+        long end = journal.endPosition();
+        journal.close();
+
+        // Act
+        journal = new AuditJournal(directory, 4096, 0);
+        journal.open();
+        List<AuditJournal.JournalEntry> entries = scanAll(0);
+
+        // Assert
+        assertEquals(end, journal.endPosition());
+        assertEquals(2, entries.size());
+        assertEquals(new AuditRecord(5L, "USER_BLOCKED", "Blocked user 5", "10.0.0.1", timestamp), entries.get(0).record());
+        assertNull(entries.get(1).record().userId());
+        assertNull(entries.get(1).record().details());
+        assertEquals(entries.get(0).nextPosition(), entries.get(1).position());
+    }
+
+    @Test
+    void write_WhenSegmentIsFull_ShouldRollAndKeepPositionsIncreasing() throws IOException {
+        // Arrange
+        journal = new AuditJournal(directory, 256, 0);
+        journal.open();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            journal.write(record("ACTION_" + i), AuditDurability.ASYNC);
+        }
+
+        // Assert
+        List<AuditJournal.JournalEntry> entries = scanAll(0);
+        assertEquals(20, entries.size());
+        assertEquals("ACTION_19", entries.get(19).record().action());
+        assertTrue(segmentCount() > 1);
+        List<AuditJournal.JournalEntry> tail = scanAll(entries.get(10).position());
+        assertEquals(10, tail.size());
+        assertEquals("ACTION_10", tail.get(0).record().action());
+    }
+
+    @Test
+    void open_ShouldIgnoreTornEntry() throws IOException {
+        // Arrange
+        journal = new AuditJournal(directory, 4096, 0);
+        journal.open();
+        journal.write(record("FIRST"), AuditDurability.SYNC);
+        long end = journal.endPosition();
+        journal.close();
+        // A length with no matching checksum, as left by a crash between the two writes.
+        try (FileChannel channel = FileChannel.open(singleSegment(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 40), end);
+        }
+
+        // Act
+        journal = new AuditJournal(directory, 4096, 0);
+        journal.open();
+        journal.write(record("SECOND"), AuditDurability.SYNC);
+
+        // Assert
+        List<AuditJournal.JournalEntry> entries = scanAll(0);
+        assertEquals(List.of("FIRST", "SECOND"), entries.stream().map(entry -> entry.record().action()).toList());
+    }
+
+    private List<AuditJournal.JournalEntry> scanAll(long from) {
+        List<AuditJournal.JournalEntry> entries = new ArrayList<>();
+        journal.scan(from, entries::add);
+        return entries;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private Path singleSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private AuditRecord record(String action) {
+        return new AuditRecord(1L, action, "details", null, LocalDateTime.now());
+    }
+}
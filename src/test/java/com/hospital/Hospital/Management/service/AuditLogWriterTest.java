@@ -0,0 +1,87 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+@ExtendWith(MockitoExtension.class)
+public class AuditLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuditLogWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void write_ShouldWriteFullBatchInOneStatement() {
+        // Arrange
+        writer = new AuditLogWriter(jdbcTemplate, transactionManager, 64, 3, 60_000, 1000);
+        writer.start();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            writer.write(record("USER_BLOCKED"), AuditDurability.ASYNC);
+        }
+
+        // Assert
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(eq(AuditLogWriter.INSERT_SQL),
+                argThat((List<?> batch) -> batch.size() == 3), eq(3), any());
+    }
+
+    @Test
+    void write_WithSyncDurability_ShouldReturnAfterWrite() {
+        // Arrange
+        writer = new AuditLogWriter(jdbcTemplate, transactionManager, 64, 100, 60_000, 5000);
+        writer.start();
+
+        // Act
+        writer.write(record("ADMIN_CREATED"), AuditDurability.SYNC);
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(eq(AuditLogWriter.INSERT_SQL),
+                argThat((List<?> batch) -> batch.size() == 1), anyInt(), any());
+    }
+
+    @Test
+    void write_WhenWriterStopped_ShouldInsertInItsOwnTransaction() {
+        // Arrange
+        writer = new AuditLogWriter(jdbcTemplate, transactionManager, 64, 100, 60_000, 5000);
+
+        // Act
+        writer.write(record("LOGIN_THROTTLED"), AuditDurability.SYNC);
+
+        // Assert
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(jdbcTemplate).update(eq(AuditLogWriter.INSERT_SQL), any(PreparedStatementSetter.class));
+    }
+
+    private AuditRecord record(String action) {
+        return new AuditRecord(1L, action, "details", null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,75 @@
+package com.hospital.Hospital.Management.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class AuditRingBufferTest {
+
+    @Test
+    void offer_ShouldRejectWhenFullAndAcceptAfterDrain() {
+        // Arrange
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < buffer.capacity(); i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        // Act & Assert
+        assertFalse(buffer.offer(99));
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, buffer.drainTo(drained, 2));
+        assertEquals(List.of(0, 1), drained);
+        assertTrue(buffer.offer(4));
+        assertEquals(buffer.capacity() - 1, buffer.size());
+    }
+
+    @Test
+    void concurrentProducers_ShouldDeliverEveryElementOnce() throws Exception {
+        // Arrange
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+
+        // Act
+        start.countDown();
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> chunk = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+            chunk.clear();
+            buffer.drainTo(chunk, 32);
+            for (Integer value : chunk) {
+                assertTrue(seen.add(value), "duplicate " + value);
+            }
+        }
+        pool.shutdownNow();
+
+        // Assert
+        assertEquals(producers * perProducer, seen.size());
+        assertTrue(buffer.isEmpty());
+    }
+}
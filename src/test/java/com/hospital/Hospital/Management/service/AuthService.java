@@ -30,7 +30,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.Map;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -154,12 +153,9 @@ public class AuthService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found with email: " + email));
 
         // Check for existing token and invalidate if exists
-        Optional<VerificationToken> existingToken = tokenRepository.findByUserAndTokenType(user, TokenType.PASSWORD_RESET);
-        existingToken.ifPresent(token -> {
-            token.setUsed(true);
-            tokenRepository.save(token);
+        if (tokenRepository.invalidateAllForUser(user.getId(), TokenType.PASSWORD_RESET) > 0) {
             logger.info("Existing password reset token invalidated for user: {}", user.getEmail());
-        });
+        }
 
         // Create new password reset token
         VerificationToken resetToken = VerificationToken.generateToken(user, TokenType.PASSWORD_RESET);
@@ -0,0 +1,30 @@
+package com.hospital.Hospital.Management.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class BloomFilterTest {
+
+    @Test
+    void mightContain_ShouldFindEveryKeyAndFewAbsentOnes() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("j:" + i);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain("j:" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("j:" + i));
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
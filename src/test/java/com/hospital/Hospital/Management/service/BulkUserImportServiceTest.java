@@ -0,0 +1,131 @@
+package com.hospital.Hospital.Management.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.Hospital.Management.dto.BulkImportReportDto;
+import com.hospital.Hospital.Management.dto.BulkImportRowResultDto;
+import com.hospital.Hospital.Management.dto.BulkImportRowResultDto.Status;
+import com.hospital.Hospital.Management.event.UserRegisteredEvent;
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.security.CurrentUserResolver;
+import com.hospital.Hospital.Management.security.PooledBCryptPasswordEncoder;
+
+import jakarta.validation.Validation;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkUserImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LogService logService;
+
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
+    private BulkUserImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BulkUserImportService(jdbcTemplate, namedJdbcTemplate, transactionManager,
+                new PooledBCryptPasswordEncoder(4, Runnable::run),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                eventPublisher, logService, currentUserResolver, 2, 4, 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importUsers_Csv_ShouldReportEachRowAndBatchInsertNewUsers() throws Exception {
+        // Arrange
+        String csv = """
+                email,password,full_name,specialization
+                new@example.com,secret123,New Doctor,Cardiology
+                taken@example.com,secret123,Taken Doctor,Cardiology
+                NEW@example.com,secret123,Repeat Doctor,Cardiology
+                not-an-email,secret123,Bad Doctor,Cardiology
+                """;
+        when(namedJdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class)))
+                .thenReturn(List.of("taken@example.com"));
+        when(namedJdbcTemplate.queryForList(anyString(), anyMap()))
+                .thenReturn(List.of(Map.of("id", 42L, "email", "new@example.com")));
+
+        // Act
+        BulkImportReportDto report = service.importUsers(stream(csv), BulkImportFormat.CSV, Role.ROLE_DOCTOR, null);
+
+        // Assert
+        assertEquals(4, report.getTotal());
+        assertEquals(1, report.getCreated());
+        assertEquals(2, report.getDuplicates());
+        assertEquals(1, report.getInvalid());
+        List<Status> statuses = report.getRows().stream().map(BulkImportRowResultDto::getStatus).toList();
+        assertEquals(List.of(Status.CREATED, Status.DUPLICATE, Status.DUPLICATE, Status.INVALID), statuses);
+        assertEquals(42L, report.getRows().get(0).getUserId());
+
+        ArgumentCaptor<List<Integer>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1, batch.getValue().size());
+        verify(eventPublisher).publishEvent(any(UserRegisteredEvent.class));
+        verify(logService).logActivity(eq(null), eq("USERS_BULK_IMPORTED"), anyString());
+    }
+
+    @Test
+    void importUsers_NdjsonWithMalformedLine_ShouldMarkItInvalidWithoutQueries() throws Exception {
+        // Arrange
+        String ndjson = "{\"email\":\"a@example.com\"\n\n{not json}\n";
+
+        // Act
+        BulkImportReportDto report = service.importUsers(stream(ndjson), BulkImportFormat.NDJSON, Role.ROLE_DOCTOR, null);
+
+        // Assert
+        assertEquals(2, report.getTotal());
+        assertEquals(2, report.getInvalid());
+        assertEquals(3, report.getRows().get(1).getLine());
+        assertTrue(report.getRows().stream().allMatch(row -> row.getStatus() == Status.INVALID));
+        verify(namedJdbcTemplate, never()).queryForList(anyString(), anyMap(), eq(String.class));
+        verify(jdbcTemplate, times(0)).batchUpdate(anyString(), any(List.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
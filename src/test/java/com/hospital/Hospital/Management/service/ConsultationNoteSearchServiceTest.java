@@ -0,0 +1,166 @@
+package com.hospital.Hospital.Management.service;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.endsWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.hospital.Hospital.Management.dto.NoteSearchHitDto;
+import com.hospital.Hospital.Management.event.ConsultationNoteSavedEvent;
+
+@ExtendWith(MockitoExtension.class)
+public class ConsultationNoteSearchServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NoteBodyCodec codec;
+
+    @TempDir
+    Path indexDir;
+
+    private ConsultationNoteSearchService searchService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        searchService = new ConsultationNoteSearchService(jdbcTemplate, codec, Runnable::run, indexDir, 100, 50, 10000);
+        searchService.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        searchService.close();
+    }
+
+    @Test
+    void search_ShouldOnlyReturnTheDoctorsOwnNotesWithHighlights() {
+        // Arrange
+        searchService.onNoteSaved(note(1L, 10L, "Type 2 diabetes", "Metformin 500mg twice daily"));
+        searchService.onNoteSaved(note(2L, 10L, "Hypertension", "Amlodipine 5mg"));
+        searchService.onNoteSaved(note(3L, 20L, "Type 2 diabetes", "Metformin 850mg"));
+
+        // Act
+        List<NoteSearchHitDto> hits = searchService.search(10L, "metformin", 20);
+
+        // Assert
+        assertEquals(1, hits.size());
+        assertEquals(1L, hits.get(0).getNoteId());
+        assertEquals(101L, hits.get(0).getAppointmentId());
+        assertTrue(hits.get(0).getHighlights().get("prescription").contains("<b>Metformin</b>"));
+    }
+
+    @Test
+    void search_ShouldRankDiagnosisMatchesFirstAndReplaceReindexedNotes() {
+        // Arrange
+        searchService.onNoteSaved(note(1L, 10L, "Routine check", "Vitamin D, follow up on asthma"));
+        searchService.onNoteSaved(note(2L, 10L, "Asthma", "Salbutamol inhaler"));
+        searchService.onNoteSaved(note(2L, 10L, "Asthma exacerbation", "Salbutamol inhaler"));
+
+        // Act
+        List<NoteSearchHitDto> hits = searchService.search(10L, "asthma", 20);
+
+        // Assert
+        assertEquals(2, hits.size());
+        assertEquals(2L, hits.get(0).getNoteId());
+        assertTrue(hits.get(0).getHighlights().get("diagnosis").contains("exacerbation"));
+    }
+
+    @Test
+    void search_WithInvalidSyntax_ShouldFallBackToPlainWords() {
+        // Arrange
+        searchService.onNoteSaved(note(1L, 10L, "Otitis media", "Amoxicillin (500mg"));
+
+        // Act
+        List<NoteSearchHitDto> hits = searchService.search(10L, "amoxicillin (500mg", 20);
+
+        // Assert
+        assertEquals(1, hits.size());
+    }
+
+    @Test
+    void reindexAll_ShouldDropDocumentsOfNotesThatNoLongerExist() {
+        // Arrange
+        searchService.onNoteSaved(note(1L, 10L, "Migraine", "Ibuprofen 400mg"));
+        searchService.onNoteSaved(note(2L, 10L, "Migraine with aura", "Sumatriptan"));
+        doReturn(List.of(note(1L, 10L, "Migraine", "Ibuprofen 400mg")))
+                .when(jdbcTemplate).query(endsWith(ConsultationNoteSearchService.REBUILD_WHERE), any(RowMapper.class), any(), any());
+
+        // Act
+        int indexed = searchService.reindexAll();
+
+        // Assert
+        assertEquals(1, indexed);
+        List<NoteSearchHitDto> hits = searchService.search(10L, "migraine", 20);
+        assertEquals(1, hits.size());
+        assertEquals(1L, hits.get(0).getNoteId());
+    }
+
+    @Test
+    void syncRecent_ShouldIndexNotesSavedOnOtherNodes() {
+        // Arrange
+        doReturn(List.of(note(5L, 10L, "Gout", "Colchicine")))
+                .when(jdbcTemplate).query(endsWith(ConsultationNoteSearchService.SYNC_WHERE), any(RowMapper.class), any(Timestamp.class));
+
+        // Act
+        searchService.syncRecent();
+
+        // Assert
+        List<NoteSearchHitDto> hits = searchService.search(10L, "colchicine", 20);
+        assertEquals(1, hits.size());
+        assertEquals(5L, hits.get(0).getNoteId());
+    }
+
+    @Test
+    void reindexAll_StartedDuringSync_ShouldWaitAndKeepTheSyncedNote() throws Exception {
+        // Arrange
+        ConsultationNoteSavedEvent synced = note(5L, 10L, "Gout", "Colchicine");
+        doReturn(List.of(synced))
+                .when(jdbcTemplate).query(endsWith(ConsultationNoteSearchService.REBUILD_WHERE), any(RowMapper.class), any(), any());
+        CompletableFuture<Integer> rebuild = new CompletableFuture<>();
+        doAnswer(invocation -> {
+            new Thread(() -> rebuild.complete(searchService.reindexAll())).start();
+            Thread.sleep(1000);
+            assertFalse(rebuild.isDone());
+            return List.of(synced);
+        }).when(jdbcTemplate).query(endsWith(ConsultationNoteSearchService.SYNC_WHERE), any(RowMapper.class), any(Timestamp.class));
+
+        // Act
+        searchService.syncRecent();
+        int indexed = rebuild.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, indexed);
+        assertEquals(1, searchService.search(10L, "colchicine", 20).size());
+    }
+
+    @Test
+    void search_WithBlankQuery_ShouldBeRejected() {
+        assertThrows(IllegalStateException.class, () -> searchService.search(10L, " ", 20));
+    }
+
+    private static ConsultationNoteSavedEvent note(Long noteId, Long doctorId, String diagnosis, String prescription) {
+        return new ConsultationNoteSavedEvent(noteId, 100L + noteId, doctorId, 7L, "Pat Patient",
+                LocalDateTime.of(2025, 4, 1, 10, 0), diagnosis, prescription, null, null);
+    }
+}
@@ -0,0 +1,83 @@
+package com.hospital.Hospital.Management.service;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hospital.Hospital.Management.dto.DashboardAnalyticsDto;
+import com.hospital.Hospital.Management.dto.RoleCountDto;
+import com.hospital.Hospital.Management.dto.StatusCountDto;
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.repository.AppointmentRepository;
+import com.hospital.Hospital.Management.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class DashboardAnalyticsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    private DashboardAnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        analyticsService = new DashboardAnalyticsService(userRepository, appointmentRepository, Runnable::run);
+    }
+
+    @Test
+    void getAnalytics_ShouldAggregateGroupedCounts() {
+        // Arrange
+        when(userRepository.count()).thenReturn(5L);
+        when(userRepository.countUsersByRole()).thenReturn(List.of(
+                new RoleCountDto(Role.ROLE_DOCTOR, 2L),
+                new RoleCountDto(Role.ROLE_PATIENT, 3L)));
+        when(appointmentRepository.countAppointmentsByStatus()).thenReturn(List.of(
+                new StatusCountDto(AppointmentStatus.SCHEDULED, 4L),
+                new StatusCountDto(AppointmentStatus.COMPLETED, 2L),
+                new StatusCountDto(AppointmentStatus.CANCELLED_BY_PATIENT, 1L),
+                new StatusCountDto(AppointmentStatus.CANCELLED_BY_DOCTOR, 1L)));
+
+        // Act
+        DashboardAnalyticsDto result = analyticsService.getAnalytics();
+
+        // Assert
+        assertEquals(5, result.getTotalUsers());
+        assertEquals(2, result.getTotalDoctors());
+        assertEquals(3, result.getTotalPatients());
+        assertEquals(8, result.getTotalAppointments());
+        assertEquals(4, result.getScheduledAppointments());
+        assertEquals(2, result.getCompletedAppointments());
+        assertEquals(2, result.getCanceledAppointments());
+        verify(userRepository, never()).findAll();
+        verify(appointmentRepository, never()).findAll();
+    }
+
+    @Test
+    void getAnalytics_ShouldServeFreshSnapshotFromCache() {
+        // Arrange
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.countUsersByRole()).thenReturn(List.of());
+        when(appointmentRepository.countAppointmentsByStatus()).thenReturn(List.of());
+
+        // Act
+        analyticsService.getAnalytics();
+        analyticsService.getAnalytics();
+
+        // Assert
+        verify(userRepository, times(1)).count();
+        verify(appointmentRepository, times(1)).countAppointmentsByStatus();
+    }
+}
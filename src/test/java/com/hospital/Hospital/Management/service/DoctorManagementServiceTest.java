@@ -0,0 +1,247 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import com.hospital.Hospital.Management.dto.AppointmentHistoryDto;
+import com.hospital.Hospital.Management.dto.ConsultationNoteDto;
+import com.hospital.Hospital.Management.dto.DoctorCalendarDayDto;
+import com.hospital.Hospital.Management.dto.DoctorCalendarDto;
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
+import com.hospital.Hospital.Management.dto.UpcomingAppointmentDto;
+import com.hospital.Hospital.Management.exception.ResourceNotFoundException;
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+import com.hospital.Hospital.Management.model.ConsultationNoteBody;
+import com.hospital.Hospital.Management.model.DayOfWeek;
+import com.hospital.Hospital.Management.model.DoctorAvailability;
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.model.User;
+import com.hospital.Hospital.Management.repository.AppointmentRepository;
+import com.hospital.Hospital.Management.repository.ConsultationNoteBodyRepository;
+import com.hospital.Hospital.Management.repository.ConsultationNoteRepository;
+import com.hospital.Hospital.Management.repository.DoctorAvailabilityRepository;
+import com.hospital.Hospital.Management.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class DoctorManagementServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private DoctorAvailabilityRepository availabilityRepository;
+
+    @Mock
+    private ConsultationNoteRepository noteRepository;
+
+    @Mock
+    private ConsultationNoteBodyRepository noteBodyRepository;
+
+    @Mock
+    private NoteBodyCodec noteBodyCodec;
+
+    @Mock
+    private NoteStorageMigrationService noteStorageMigrationService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private DoctorManagementService doctorManagementService;
+
+    @Test
+    void getAppointmentHistory_ShouldReturnPageAndCursorForNextPage() {
+        // Arrange
+        stubDoctor();
+        LocalDateTime first = LocalDateTime.of(2025, 3, 2, 10, 0);
+        LocalDateTime second = LocalDateTime.of(2025, 3, 1, 9, 30);
+        when(appointmentRepository.findHistory(eq(1L), eq(AppointmentStatus.COMPLETED), isNull(), isNull(), isNull(),
+                isNull(), isNull(), eq(Limit.of(3))))
+                .thenReturn(List.of(historyRow(12L, first, "Flu"), historyRow(11L, second, null),
+                        historyRow(10L, second, "Cold")));
+        byte[] compressed = {1, 2, 3};
+        when(noteBodyRepository.findAllById(List.of(120L)))
+                .thenReturn(List.of(ConsultationNoteBody.builder().noteId(120L).dictionaryId(4).rawLength(30).content(compressed).build()));
+        ConsultationNoteDto note = new ConsultationNoteDto();
+        note.setDiagnosis("Flu");
+        when(noteBodyCodec.decode(4, 30, compressed)).thenReturn(note);
+
+        // Act
+        KeysetPageDto<AppointmentHistoryDto> page = doctorManagementService.getAppointmentHistory(1L, null, null, null, 2, null, true);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals("Flu", page.getItems().get(0).getNoteSummary());
+        assertNotNull(page.getItems().get(0).getConsultationNote());
+        assertNull(page.getItems().get(1).getConsultationNote());
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor(), "APPOINTMENT_TIME");
+        assertEquals(second.toString(), cursor.value());
+        assertEquals(11L, cursor.id());
+    }
+
+    @Test
+    void getAppointmentHistory_WithUnmigratedNote_ShouldFallBackToLegacyColumns() {
+        // Arrange
+        stubDoctor();
+        LocalDateTime time = LocalDateTime.of(2025, 3, 2, 10, 0);
+        when(appointmentRepository.findHistory(eq(1L), eq(AppointmentStatus.COMPLETED), isNull(), isNull(), isNull(),
+                isNull(), isNull(), any(Limit.class)))
+                .thenReturn(List.of(historyRow(12L, time, "Flu")));
+        when(noteBodyRepository.findAllById(List.of(120L))).thenReturn(List.of());
+        ConsultationNoteDto legacy = new ConsultationNoteDto();
+        legacy.setDiagnosis("Flu");
+        when(noteStorageMigrationService.findLegacyNotes(List.of(120L))).thenReturn(Map.of(120L, legacy));
+
+        // Act
+        KeysetPageDto<AppointmentHistoryDto> page = doctorManagementService.getAppointmentHistory(1L, null, null, null, 2, null, true);
+
+        // Assert
+        assertEquals("Flu", page.getItems().get(0).getConsultationNote().getDiagnosis());
+    }
+
+    @Test
+    void getAppointmentHistory_WithCursor_ShouldContinueAfterLastRow() {
+        // Arrange
+        stubDoctor();
+        LocalDateTime last = LocalDateTime.of(2025, 3, 1, 9, 30);
+        String cursor = KeysetCursor.encode("APPOINTMENT_TIME", last, 11L);
+        when(appointmentRepository.findHistory(eq(1L), eq(AppointmentStatus.COMPLETED), isNull(), isNull(), isNull(),
+                eq(last), eq(11L), any(Limit.class)))
+                .thenReturn(List.of(historyRow(10L, last, "Cold")));
+
+        // Act
+        KeysetPageDto<AppointmentHistoryDto> page = doctorManagementService.getAppointmentHistory(1L, null, null, null, 2, cursor, false);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertEquals("Cold", page.getItems().get(0).getNoteSummary());
+        assertNull(page.getItems().get(0).getConsultationNote());
+        verify(noteBodyRepository, never()).findAllById(any());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getAppointmentHistory_WithUnknownPatient_ShouldThrowNotFound() {
+        // Arrange
+        stubDoctor();
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> doctorManagementService.getAppointmentHistory(1L, 99L, null, null, 20, null, true));
+        verify(appointmentRepository, never()).findHistory(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getAppointmentHistory_WithTamperedCursor_ShouldRejectAsBadRequest() {
+        // Arrange
+        stubDoctor();
+        String notATimestamp = KeysetCursor.encode("APPOINTMENT_TIME", "yesterday", 11L);
+        String noTimestamp = KeysetCursor.encode("APPOINTMENT_TIME", null, 11L);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> doctorManagementService.getAppointmentHistory(1L, null, null, null, 20, notATimestamp, true));
+        assertThrows(IllegalStateException.class,
+                () -> doctorManagementService.getAppointmentHistory(1L, null, null, null, 20, noTimestamp, true));
+        assertThrows(IllegalStateException.class,
+                () -> doctorManagementService.getAppointmentHistory(1L, null, null, null, 20, "%%%", true));
+    }
+
+    @Test
+    void getCalendar_DayView_ShouldListAppointmentsAndRemainingFreeSlots() {
+        // Arrange
+        stubDoctor().setSlotDurationInMinutes(30);
+        LocalDate day = LocalDate.of(2099, 1, 5);
+        DoctorAvailability rule = DoctorAvailability.builder()
+                .dayOfWeek(DayOfWeek.valueOf(day.getDayOfWeek().name()))
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(10, 5))
+                .build();
+        when(availabilityRepository.findByDoctorId(1L)).thenReturn(List.of(rule));
+        when(appointmentRepository.findCalendarAppointments(eq(1L), any(), eq(day.atStartOfDay()),
+                eq(day.plusDays(1).atStartOfDay())))
+                .thenReturn(List.of(new UpcomingAppointmentDto(5L, "Patient", day.atTime(9, 0), AppointmentStatus.SCHEDULED)));
+
+        // Act
+        DoctorCalendarDto calendar = doctorManagementService.getCalendar(1L, day, CalendarView.DAY);
+
+        // Assert
+        assertEquals(1, calendar.getDays().size());
+        DoctorCalendarDayDto only = calendar.getDays().get(0);
+        assertEquals(1, only.getAppointments().size());
+        assertEquals(1, only.getFreeSlots().size());
+        assertEquals(LocalTime.of(9, 31), only.getFreeSlots().get(0).getStartTime());
+    }
+
+    @Test
+    void getCalendar_WeekView_ShouldBucketAppointmentsFromMondayToSunday() {
+        // Arrange
+        stubDoctor();
+        LocalDate wednesday = LocalDate.of(2099, 1, 7);
+        LocalDate monday = CalendarView.WEEK.start(wednesday);
+        when(availabilityRepository.findByDoctorId(1L)).thenReturn(List.of());
+        when(appointmentRepository.findCalendarAppointments(eq(1L), any(), eq(monday.atStartOfDay()),
+                eq(monday.plusWeeks(1).atStartOfDay())))
+                .thenReturn(List.of(
+                        new UpcomingAppointmentDto(5L, "A", monday.atTime(9, 0), AppointmentStatus.SCHEDULED),
+                        new UpcomingAppointmentDto(6L, "B", wednesday.atTime(11, 0), AppointmentStatus.CONFIRMED_BY_DOCTOR)));
+
+        // Act
+        DoctorCalendarDto calendar = doctorManagementService.getCalendar(1L, wednesday, CalendarView.WEEK);
+
+        // Assert
+        assertEquals(7, calendar.getDays().size());
+        assertEquals(monday, calendar.getFrom());
+        assertEquals(java.time.DayOfWeek.MONDAY, calendar.getFrom().getDayOfWeek());
+        assertEquals(1, calendar.getDays().get(0).getAppointments().size());
+        assertEquals(0, calendar.getDays().get(1).getAppointments().size());
+        assertEquals(6L, calendar.getDays().get(2).getAppointments().get(0).getAppointmentId());
+    }
+
+    private User stubDoctor() {
+        User doctor = new User();
+        doctor.setId(1L);
+        doctor.setRoles(Set.of(Role.ROLE_DOCTOR));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        return doctor;
+    }
+
+    private static AppointmentHistoryDto historyRow(Long id, LocalDateTime at, String diagnosis) {
+        return new AppointmentHistoryDto(id, 1L, "Dr. House", 7L, "Patient", at,
+                diagnosis != null ? id * 10 : null, diagnosis);
+    }
+}
@@ -0,0 +1,147 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.security.AuthenticatedUser;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+
+public class JwtServiceTest {
+
+    private static final String SECRET =
+            "Y2234ddrt5h5th4wtw4e5gr546t45tgrgdwe1QRZJNEYRHRYERFRF34TVSDRWFSecretKeyForHS256AlgorithmIsVeryImportantSoKeepItSafeAndLongAndRandom12345";
+    private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+
+    private final UserDetails user = new User("doctor@example.com", "", List.of(new SimpleGrantedAuthority("DOCTOR")));
+
+    @Test
+    void validate_ShouldReturnClaimsAndServeRepeatsFromCache() {
+        // Arrange
+        JwtService jwtService = new JwtService(SECRET, 60_000, 120_000, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = jwtService.generateToken(user);
+
+        // Act
+        ValidatedJwt first = jwtService.validate(token);
+        ValidatedJwt second = jwtService.validate(token);
+
+        // Assert
+        assertEquals("doctor@example.com", first.subject());
+        assertEquals("DOCTOR", first.claim("role", String.class));
+        assertEquals(NOW.plusSeconds(60), first.expiresAt());
+        assertSame(first, second);
+    }
+
+    @Test
+    void generateToken_ForAuthenticatedUser_ShouldCarryPrincipalClaims() {
+        // Arrange
+        JwtService jwtService = new JwtService(SECRET, 60_000, 120_000, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+        com.hospital.Hospital.Management.model.User account = com.hospital.Hospital.Management.model.User.builder()
+                .id(42L)
+                .email("doctor@example.com")
+                .password("hash")
+                .roles(Set.of(Role.ROLE_DOCTOR))
+                .enabled(true)
+                .statusVersion(3)
+                .build();
+
+        // Act
+        AuthenticatedUser principal = AuthenticatedUser.fromToken(
+                jwtService.validate(jwtService.generateToken(AuthenticatedUser.from(account))));
+
+        // Assert
+        assertEquals(42L, principal.getId());
+        assertEquals("doctor@example.com", principal.getUsername());
+        assertEquals(Set.of(Role.ROLE_DOCTOR), principal.getRoles());
+        assertEquals(3L, principal.getStatusVersion());
+        assertNull(principal.getPassword());
+    }
+
+    @Test
+    void validate_WithTamperedSignature_ShouldThrow() {
+        // Arrange
+        JwtService jwtService = new JwtService(SECRET, 60_000, 120_000, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> jwtService.validate(tampered));
+    }
+
+    @Test
+    void validate_CachedTokenPastExpiry_ShouldThrow() {
+        // Arrange
+        MutableClock clock = new MutableClock(NOW);
+        JwtService jwtService = new JwtService(SECRET, 60_000, 120_000, 100, clock);
+        String token = jwtService.generateToken(user);
+        jwtService.validate(token);
+
+        // Act
+        clock.advance(Duration.ofMinutes(2));
+
+        // Assert
+        assertThrows(ExpiredJwtException.class, () -> jwtService.validate(token));
+        assertThrows(ExpiredJwtException.class, () -> jwtService.validate(token));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    @Test
+    void generateToken_WithFamily_ShouldNameItInTheAccessToken() {
+        // Arrange
+        JwtService jwtService = new JwtService(SECRET, 60_000, 120_000, 0, Clock.fixed(NOW, ZoneOffset.UTC));
+        UUID familyId = UUID.randomUUID();
+
+        // Act
+        ValidatedJwt withFamily = jwtService.validate(jwtService.generateToken(user, familyId));
+        ValidatedJwt withoutFamily = jwtService.validate(jwtService.generateToken(user));
+
+        // Assert
+        assertEquals(familyId, jwtService.familyId(withFamily));
+        assertNull(jwtService.familyId(withoutFamily));
+        assertFalse(jwtService.isRefreshToken(withFamily));
+    }
+}
@@ -0,0 +1,89 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hospital.Hospital.Management.dto.DashboardAnalyticsDto;
+import com.hospital.Hospital.Management.event.AppointmentStatusChangedEvent;
+import com.hospital.Hospital.Management.event.UserRegisteredEvent;
+import com.hospital.Hospital.Management.model.AppointmentStatus;
+import com.hospital.Hospital.Management.model.Role;
+
+@ExtendWith(MockitoExtension.class)
+public class LiveAnalyticsCountersTest {
+
+    @Mock
+    private DashboardAnalyticsService dashboardAnalyticsService;
+
+    private LiveAnalyticsCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new LiveAnalyticsCounters(dashboardAnalyticsService);
+        counters.reconcileWith(counters.currentCounts(), new DashboardCounts(10,
+                Map.of(Role.ROLE_DOCTOR, 3L, Role.ROLE_PATIENT, 7L),
+                Map.of(AppointmentStatus.SCHEDULED, 5L, AppointmentStatus.COMPLETED, 2L)));
+    }
+
+    @Test
+    void events_ShouldMoveCountersWithoutDatabase() {
+        // Act
+        counters.onUserRegistered(new UserRegisteredEvent(11L, Set.of(Role.ROLE_PATIENT), LocalDateTime.now()));
+        counters.onAppointmentStatusChanged(AppointmentStatusChangedEvent.booked(1L, 2L, "Cardiology", AppointmentStatus.SCHEDULED));
+        counters.onAppointmentStatusChanged(AppointmentStatusChangedEvent.changed(
+                3L, 2L, "Cardiology", AppointmentStatus.SCHEDULED, AppointmentStatus.CANCELLED_BY_PATIENT));
+        DashboardAnalyticsDto snapshot = counters.snapshot();
+
+        // Assert
+        assertTrue(counters.isSeeded());
+        assertEquals(11, snapshot.getTotalUsers());
+        assertEquals(8, snapshot.getTotalPatients());
+        assertEquals(5, snapshot.getScheduledAppointments());
+        assertEquals(1, snapshot.getCanceledAppointments());
+        assertEquals(8, snapshot.getTotalAppointments());
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDrift() {
+        // Arrange
+        counters.onUserRegistered(new UserRegisteredEvent(11L, Set.of(Role.ROLE_DOCTOR), LocalDateTime.now()));
+
+        // Act
+        counters.reconcileWith(counters.currentCounts(), new DashboardCounts(10,
+                Map.of(Role.ROLE_DOCTOR, 3L, Role.ROLE_PATIENT, 7L),
+                Map.of(AppointmentStatus.SCHEDULED, 5L)));
+        DashboardAnalyticsDto snapshot = counters.snapshot();
+
+        // Assert
+        assertEquals(10, snapshot.getTotalUsers());
+        assertEquals(3, snapshot.getTotalDoctors());
+        assertEquals(0, snapshot.getCompletedAppointments());
+    }
+
+    @Test
+    void reconcile_ShouldKeepEventsThatArriveWhileTheQueryRuns() {
+        // Arrange
+        DashboardCounts beforeQuery = counters.currentCounts();
+        // Registered after the query read the database, before its result is applied.
+        counters.onUserRegistered(new UserRegisteredEvent(11L, Set.of(Role.ROLE_PATIENT), LocalDateTime.now()));
+
+        // Act
+        counters.reconcileWith(beforeQuery, new DashboardCounts(10,
+                Map.of(Role.ROLE_DOCTOR, 3L, Role.ROLE_PATIENT, 7L),
+                Map.of(AppointmentStatus.SCHEDULED, 5L, AppointmentStatus.COMPLETED, 2L)));
+        DashboardAnalyticsDto snapshot = counters.snapshot();
+
+        // Assert
+        assertEquals(11, snapshot.getTotalUsers());
+        assertEquals(8, snapshot.getTotalPatients());
+    }
+}
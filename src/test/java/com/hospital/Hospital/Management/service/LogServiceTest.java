@@ -0,0 +1,85 @@
+package com.hospital.Hospital.Management.service;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hospital.Hospital.Management.model.User;
+
+@ExtendWith(MockitoExtension.class)
+public class LogServiceTest {
+
+    @Mock
+    private AuditSink databaseSink;
+
+    @Mock
+    private AuditSink journalSink;
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void logActivity_ShouldWriteToEverySink() {
+        // Arrange
+        LogService logService = new LogService(List.of(databaseSink, journalSink), AuditDurability.ASYNC);
+        User user = new User();
+        user.setId(7L);
+
+        // Act
+        logService.logActivity(user, "USER_BLOCKED", "details");
+
+        // Assert
+        ArgumentCaptor<AuditRecord> captor = ArgumentCaptor.forClass(AuditRecord.class);
+        verify(databaseSink).write(captor.capture(), eq(AuditDurability.ASYNC));
+        verify(journalSink).write(captor.getValue(), AuditDurability.ASYNC);
+        assertEquals(7L, captor.getValue().userId());
+        assertEquals("USER_BLOCKED", captor.getValue().action());
+    }
+
+    @Test
+    void logSystemActivity_InsideTransaction_ShouldWaitForCommit() {
+        // Arrange
+        LogService logService = new LogService(List.of(databaseSink), AuditDurability.ASYNC);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        logService.logSystemActivity("BACKUP_STARTED", "nightly");
+
+        // Assert
+        verify(databaseSink, never()).write(any(), any());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        ArgumentCaptor<AuditRecord> captor = ArgumentCaptor.forClass(AuditRecord.class);
+        verify(databaseSink).write(captor.capture(), eq(AuditDurability.ASYNC));
+        assertNull(captor.getValue().userId());
+    }
+
+    @Test
+    void logActivity_WhenOneSinkFails_ShouldStillWriteToTheOthers() {
+        // Arrange
+        LogService logService = new LogService(List.of(databaseSink, journalSink), AuditDurability.ASYNC);
+        doThrow(new IllegalStateException("disk full")).when(databaseSink).write(any(), any());
+
+        // Act
+        logService.logActivity(null, "USER_BLOCKED", "details", AuditDurability.SYNC);
+
+        // Assert
+        verify(journalSink).write(any(AuditRecord.class), eq(AuditDurability.SYNC));
+    }
+}
@@ -0,0 +1,107 @@
+package com.hospital.Hospital.Management.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hospital.Hospital.Management.dto.ConsultationNoteDto;
+import com.hospital.Hospital.Management.model.NoteCompressionDictionary;
+import com.hospital.Hospital.Management.repository.NoteCompressionDictionaryRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteBodyCodecTest {
+
+    @Mock
+    private NoteCompressionDictionaryRepository dictionaryRepository;
+
+    private NoteBodyCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new NoteBodyCodec(dictionaryRepository, 6, 32768);
+    }
+
+    @Test
+    void encode_WithoutDictionary_ShouldRoundTripAllFields() {
+        // Arrange
+        when(dictionaryRepository.findTopByOrderByIdDesc()).thenReturn(Optional.empty());
+        ConsultationNoteDto note = note("Acute bronchitis", "Amoxicillin 500mg three times daily", null, "Ünïcode ✓");
+
+        // Act
+        NoteBodyCodec.Encoded encoded = codec.encode(note);
+        ConsultationNoteDto decoded = codec.decode(encoded.dictionaryId(), encoded.rawLength(), encoded.content());
+
+        // Assert
+        assertEquals(NoteBodyCodec.NO_DICTIONARY, encoded.dictionaryId());
+        assertEquals(note.getDiagnosis(), decoded.getDiagnosis());
+        assertEquals(note.getPrescription(), decoded.getPrescription());
+        assertNull(decoded.getTreatmentDetails());
+        assertEquals(note.getRemarks(), decoded.getRemarks());
+    }
+
+    @Test
+    void train_ShouldShrinkNotesThatShareTheCorpusPhrasing() {
+        // Arrange
+        when(dictionaryRepository.findTopByOrderByIdDesc()).thenReturn(Optional.empty());
+        when(dictionaryRepository.save(any(NoteCompressionDictionary.class))).thenAnswer(invocation -> {
+            NoteCompressionDictionary saved = invocation.getArgument(0);
+            saved.setId(7);
+            return saved;
+        });
+        List<ConsultationNoteDto> corpus = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            corpus.add(note("Type 2 diabetes mellitus without complications",
+                    "Metformin " + (250 + i) + "mg twice daily with meals",
+                    "Advised low carbohydrate diet and regular exercise, review HbA1c in three months",
+                    "Patient tolerating medication well, no hypoglycaemic episodes reported"));
+        }
+        ConsultationNoteDto note = note("Type 2 diabetes mellitus without complications", "Metformin 1000mg twice daily with meals",
+                "Advised low carbohydrate diet and regular exercise, review HbA1c in three months", null);
+        int plainSize = codec.encode(note).content().length;
+
+        // Act
+        codec.train(corpus);
+        NoteBodyCodec.Encoded encoded = codec.encode(note);
+        ConsultationNoteDto decoded = codec.decode(encoded.dictionaryId(), encoded.rawLength(), encoded.content());
+
+        // Assert
+        assertEquals(7, encoded.dictionaryId());
+        assertTrue(encoded.content().length < plainSize / 2,
+                "expected " + encoded.content().length + " to be well under " + plainSize);
+        assertEquals(note.getPrescription(), decoded.getPrescription());
+        assertEquals(note.getTreatmentDetails(), decoded.getTreatmentDetails());
+    }
+
+    @Test
+    void train_WithoutRecurringPhrases_ShouldBeRejected() {
+        assertThrows(IllegalStateException.class, () -> codec.train(List.of(note("Flu", "Rest", null, null))));
+    }
+
+    @Test
+    void summarize_ShouldKeepTheFirstLineWithinTheColumnLength() {
+        assertEquals("Asthma", NoteBodyCodec.summarize("  Asthma\nmild, intermittent"));
+        assertEquals(255, NoteBodyCodec.summarize("x".repeat(400)).length());
+        assertNull(NoteBodyCodec.summarize(null));
+    }
+
+    private static ConsultationNoteDto note(String diagnosis, String prescription, String treatmentDetails, String remarks) {
+        ConsultationNoteDto note = new ConsultationNoteDto();
+        note.setDiagnosis(diagnosis);
+        note.setPrescription(prescription);
+        note.setTreatmentDetails(treatmentDetails);
+        note.setRemarks(remarks);
+        return note;
+    }
+}
@@ -0,0 +1,184 @@
+package com.hospital.Hospital.Management.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.hospital.Hospital.Management.dto.ConsultationNoteDto;
+import com.hospital.Hospital.Management.model.NoteCompressionDictionary;
+import com.hospital.Hospital.Management.repository.NoteCompressionDictionaryRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteStorageMigrationServiceTest {
+
+    @Mock
+    private NoteCompressionDictionaryRepository dictionaryRepository;
+
+    @Mock
+    private ConsultationNoteSearchService noteSearchService;
+
+    @Mock
+    private Executor executor;
+
+    private JdbcTemplate jdbcTemplate;
+    private NoteBodyCodec codec;
+    private NoteStorageMigrationService migrationService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:note-migration;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = spy(new JdbcTemplate(dataSource));
+        // The legacy columns as they are once relaxed at startup.
+        jdbcTemplate.execute("CREATE TABLE consultation_notes (id BIGINT PRIMARY KEY, appointment_id BIGINT, " +
+                "summary VARCHAR(255), created_at TIMESTAMP, diagnosis LONGTEXT, " +
+                "prescription LONGTEXT, treatment_details LONGTEXT, remarks LONGTEXT)");
+        jdbcTemplate.execute("CREATE TABLE consultation_note_bodies (note_id BIGINT PRIMARY KEY, " +
+                "dictionary_id INT NOT NULL, raw_length INT NOT NULL, content LONGBLOB NOT NULL)");
+        lenient().when(dictionaryRepository.save(any(NoteCompressionDictionary.class))).thenAnswer(invocation -> {
+            NoteCompressionDictionary dictionary = invocation.getArgument(0);
+            dictionary.setId(1);
+            return dictionary;
+        });
+        codec = new NoteBodyCodec(dictionaryRepository, 6, 32768);
+        migrationService = new NoteStorageMigrationService(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                codec, noteSearchService, executor, true, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE consultation_note_bodies");
+        jdbcTemplate.execute("DROP TABLE consultation_notes");
+    }
+
+    @Test
+    void migrateAll_ShouldMoveEveryNoteInBatches() {
+        // Arrange
+        for (long id = 1; id <= 5; id++) {
+            legacyNote(id, "Seasonal influenza " + id, "Oseltamivir 75mg twice daily");
+        }
+
+        // Act
+        int migrated = migrationService.migrateAll();
+
+        // Assert
+        assertEquals(5, migrated);
+        verify(jdbcTemplate, times(3)).query(contains("SKIP LOCKED"), any(RowMapper.class), any(), any());
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM consultation_note_bodies", Integer.class));
+        assertEquals("Seasonal influenza 4", body(4L).getDiagnosis());
+        assertEquals("Oseltamivir 75mg twice daily", body(4L).getPrescription());
+    }
+
+    @Test
+    void migrateAll_ShouldClearLegacyColumnsAndBackfillSummary() {
+        // Arrange
+        legacyNote(1L, "Acute sinusitis\nFrontal pain for a week", "Amoxicillin 500mg");
+        legacyNote(2L, "Acute bronchitis", "Rest and fluids");
+
+        // Act
+        migrationService.migrateAll();
+
+        // Assert
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT summary, diagnosis, prescription, treatment_details, remarks FROM consultation_notes WHERE id = 1");
+        assertEquals("Acute sinusitis", row.get("SUMMARY"));
+        assertNull(row.get("DIAGNOSIS"));
+        assertNull(row.get("PRESCRIPTION"));
+        assertNull(row.get("TREATMENT_DETAILS"));
+        assertNull(row.get("REMARKS"));
+        assertEquals("Acute sinusitis\nFrontal pain for a week", body(1L).getDiagnosis());
+    }
+
+    @Test
+    void migrateAll_AfterPartialRun_ShouldOnlyMoveTheRemainingNotes() {
+        // Arrange
+        legacyNote(1L, "Tension headache", "Paracetamol 1g");
+        legacyNote(2L, "Tension headache", "Ibuprofen 400mg");
+        migrationService.migrateAll();
+        legacyNote(3L, "Migraine", "Sumatriptan 50mg");
+
+        // Act
+        int migrated = migrationService.migrateAll();
+        int again = migrationService.migrateAll();
+
+        // Assert
+        assertEquals(1, migrated);
+        assertEquals(0, again);
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM consultation_note_bodies", Integer.class));
+        assertEquals("Migraine", body(3L).getDiagnosis());
+    }
+
+    @Test
+    void findLegacyNotes_ShouldOnlyReturnNotesNotMigratedYet() {
+        // Arrange
+        legacyNote(1L, "Gastritis", "Omeprazole 20mg");
+        legacyNote(2L, "Gastritis", "Omeprazole 40mg");
+        migrationService.migrateAll();
+        legacyNote(3L, "Reflux", "Lifestyle advice");
+
+        // Act
+        Map<Long, ConsultationNoteDto> notes = migrationService.findLegacyNotes(List.of(1L, 3L));
+
+        // Assert
+        assertEquals(1, notes.size());
+        assertEquals("Reflux", notes.get(3L).getDiagnosis());
+    }
+
+    @Test
+    void relaxLegacyColumns_WithRequiredColumns_ShouldMakeThemNullable() {
+        // Arrange
+        jdbcTemplate.execute("ALTER TABLE consultation_notes ALTER COLUMN diagnosis SET NOT NULL");
+        // H2 does not take MySQL's multi-column MODIFY.
+        doNothing().when(jdbcTemplate).execute(contains("MODIFY"));
+
+        // Act
+        migrationService.relaxLegacyColumns();
+
+        // Assert
+        verify(jdbcTemplate).execute(contains("MODIFY diagnosis LONGTEXT NULL"));
+    }
+
+    @Test
+    void relaxLegacyColumns_WhenAlreadyNullable_ShouldNotAlterTheTable() {
+        // Act
+        migrationService.relaxLegacyColumns();
+
+        // Assert
+        verify(jdbcTemplate, never()).execute(contains("MODIFY"));
+        assertTrue(migrationService.findLegacyNotes(List.of(9L)).isEmpty());
+    }
+
+    private void legacyNote(Long id, String diagnosis, String prescription) {
+        jdbcTemplate.update("INSERT INTO consultation_notes (id, appointment_id, diagnosis, prescription) VALUES (?, ?, ?, ?)",
+                id, 100 + id, diagnosis, prescription);
+    }
+
+    private ConsultationNoteDto body(Long noteId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT dictionary_id, raw_length, content FROM consultation_note_bodies WHERE note_id = ?",
+                (rs, rowNum) -> codec.decode(rs.getInt("dictionary_id"), rs.getInt("raw_length"), rs.getBytes("content")),
+                noteId);
+    }
+}
@@ -0,0 +1,116 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hospital.Hospital.Management.exception.InvalidTokenException;
+import com.hospital.Hospital.Management.model.RefreshToken;
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.model.User;
+import com.hospital.Hospital.Management.repository.RefreshTokenRepository;
+import com.hospital.Hospital.Management.repository.UserRepository;
+import com.hospital.Hospital.Management.security.AuthenticatedUser;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    private static final String SECRET =
+            "Y2234ddrt5h5th4wtw4e5gr546t45tgrgdwe1QRZJNEYRHRYERFRF34TVSDRWFSecretKeyForHS256AlgorithmIsVeryImportantSoKeepItSafeAndLongAndRandom12345";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LogService logService;
+
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JwtService jwtService = new JwtService(SECRET, 3_600_000, 604_800_000, 0, Clock.systemUTC());
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, jwtService, logService, 604_800_000);
+        user = User.builder()
+                .id(5L)
+                .email("patient@example.com")
+                .password("hash")
+                .roles(Set.of(Role.ROLE_PATIENT))
+                .enabled(true)
+                .build();
+    }
+
+    @Test
+    void rotate_ShouldMarkTokenUsedAndIssueNextInSameFamily() {
+        // Arrange
+        String issued = refreshTokenService.issue(AuthenticatedUser.from(user));
+        RefreshToken stored = captureSaved();
+        when(refreshTokenRepository.findByTokenId(stored.getTokenId())).thenReturn(Optional.of(stored));
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(issued);
+
+        // Assert
+        assertNotNull(stored.getUsedAt());
+        assertEquals(user, rotation.user());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).save(saved.capture());
+        RefreshToken next = saved.getAllValues().get(1);
+        assertEquals(stored.getFamilyId(), next.getFamilyId());
+        assertEquals(stored.getFamilyId(), rotation.familyId());
+        verify(refreshTokenRepository, never()).revokeFamily(any());
+    }
+
+    @Test
+    void rotate_WithAlreadyUsedToken_ShouldRevokeFamily() {
+        // Arrange
+        String issued = refreshTokenService.issue(AuthenticatedUser.from(user));
+        RefreshToken stored = captureSaved();
+        stored.setUsedAt(LocalDateTime.now().minusMinutes(5));
+        when(refreshTokenRepository.findByTokenId(stored.getTokenId())).thenReturn(Optional.of(stored));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(issued));
+        verify(refreshTokenRepository).revokeFamily(stored.getFamilyId());
+        verify(logService).logSystemActivity(eq("REFRESH_TOKEN_REUSE"), any(), eq(AuditDurability.SYNC));
+    }
+
+    @Test
+    void rotate_WithAccessToken_ShouldBeRejected() {
+        // Arrange
+        JwtService jwtService = new JwtService(SECRET, 3_600_000, 604_800_000, 0, Clock.systemUTC());
+        String accessToken = jwtService.generateToken(AuthenticatedUser.from(user));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(accessToken));
+        verify(refreshTokenRepository, never()).findByTokenId(any(UUID.class));
+    }
+
+    private RefreshToken captureSaved() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
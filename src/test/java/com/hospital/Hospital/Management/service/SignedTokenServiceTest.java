@@ -0,0 +1,67 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.hospital.Hospital.Management.exception.InvalidTokenException;
+import com.hospital.Hospital.Management.model.TokenType;
+import com.hospital.Hospital.Management.model.User;
+
+public class SignedTokenServiceTest {
+
+    private static final String SECRET =
+            "Y2234ddrt5h5th4wtw4e5gr546t45tgrgdwe1QRZJNEYRHRYERFRF34TVSDRWFSecretKeyForHS256AlgorithmIsVeryImportantSoKeepItSafeAndLongAndRandom12345";
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    private final SignedTokenService service =
+            new SignedTokenService(SECRET, 3_600_000, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void verify_ShouldRoundTripAndBeSingleUse() {
+        // Arrange
+        User user = User.builder().id(5L).email("patient@example.com").password("$2a$10$old").enabled(false).build();
+        String token = service.issue(user, TokenType.PASSWORD_RESET);
+
+        // Act
+        SignedTokenService.SignedToken signed = service.verify(token, TokenType.PASSWORD_RESET);
+
+        // Assert
+        assertTrue(service.isSigned(token));
+        assertEquals(5L, signed.userId());
+        assertTrue(service.matchesState(signed, user));
+        user.setPassword("$2a$10$new");
+        assertFalse(service.matchesState(signed, user));
+    }
+
+    @Test
+    void verify_WithTamperedOrForeignToken_ShouldReject() {
+        // Arrange
+        User user = User.builder().id(5L).email("patient@example.com").password("hash").enabled(false).build();
+        String token = service.issue(user, TokenType.EMAIL_VERIFICATION);
+        String tampered = (token.charAt(0) == 'A' ? 'B' : 'A') + token.substring(1);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> service.verify(tampered, TokenType.EMAIL_VERIFICATION));
+        assertThrows(InvalidTokenException.class, () -> service.verify(token, TokenType.PASSWORD_RESET));
+        assertFalse(service.isSigned("0b7c6a1e-1c51-4f0c-8a4e-4a8e3a1b2c3d"));
+    }
+
+    @Test
+    void verify_AfterExpiry_ShouldReject() {
+        // Arrange
+        User user = User.builder().id(5L).email("patient@example.com").password("hash").build();
+        String token = service.issue(user, TokenType.EMAIL_VERIFICATION);
+        SignedTokenService later = new SignedTokenService(SECRET, 3_600_000,
+                Clock.fixed(NOW.plusSeconds(7_200), ZoneOffset.UTC));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> later.verify(token, TokenType.EMAIL_VERIFICATION));
+    }
+}
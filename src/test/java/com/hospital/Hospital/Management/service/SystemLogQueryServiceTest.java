@@ -0,0 +1,161 @@
+package com.hospital.Hospital.Management.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.Hospital.Management.dto.KeysetPageDto;
+import com.hospital.Hospital.Management.dto.SystemLogDto;
+import com.hospital.Hospital.Management.dto.SystemLogFilter;
+
+@ExtendWith(MockitoExtension.class)
+public class SystemLogQueryServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+    @Mock
+    private ObjectProvider<AuditJournal> auditJournal;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private JdbcTemplate jdbcTemplate;
+    private SystemLogQueryService queryService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:system-log-query;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE system_logs (id BIGINT PRIMARY KEY, user_id BIGINT, action VARCHAR(255) NOT NULL, " +
+                "details LONGTEXT, ip_address VARCHAR(45), timestamp TIMESTAMP NOT NULL, restored_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO users (id, email) VALUES (7, 'doc@test.com'), (8, 'nurse@test.com')");
+        queryService = new SystemLogQueryService(jdbcTemplate, dataSource, objectMapper, auditJournal, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE system_logs");
+        jdbcTemplate.execute("DROP TABLE users");
+    }
+
+    @Test
+    void findLogs_WithEqualTimestamps_ShouldPageThroughEveryRowOnce() {
+        // Arrange
+        log(1L, 7L, "LOGIN", NOON.minusMinutes(5));
+        log(2L, 7L, "LOGIN", NOON);
+        log(3L, 8L, "LOGIN", NOON);
+        log(4L, 8L, "LOGOUT", NOON);
+        log(5L, 7L, "LOGOUT", NOON.plusMinutes(5));
+
+        // Act
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        SystemLogFilter filter = new SystemLogFilter();
+        do {
+            KeysetPageDto<SystemLogDto> page = queryService.findLogs(AuditLogSource.DATABASE, filter, 2, cursor);
+            page.getItems().forEach(row -> seen.add(row.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), seen);
+    }
+
+    @Test
+    void findLogs_WithCombinedFilters_ShouldOnlyReturnRowsMatchingAll() {
+        // Arrange
+        log(1L, 7L, "LOGIN", NOON.minusHours(2));
+        log(2L, 7L, "LOGIN", NOON);
+        log(3L, 8L, "LOGIN", NOON);
+        log(4L, 7L, "LOGOUT", NOON);
+        log(5L, 7L, "LOGIN", NOON.plusHours(2));
+        SystemLogFilter filter = new SystemLogFilter("LOGIN", 7L, NOON.minusHours(1), NOON.plusHours(1));
+
+        // Act
+        KeysetPageDto<SystemLogDto> page = queryService.findLogs(AuditLogSource.DATABASE, filter, 10, null);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertEquals(2L, page.getItems().get(0).getId());
+        assertEquals("doc@test.com", page.getItems().get(0).getUserEmail());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findLogs_WithCursorFromAnotherQuery_ShouldBeRejected() {
+        // Arrange
+        log(1L, 7L, "LOGIN", NOON);
+        log(2L, 7L, "LOGIN", NOON.plusMinutes(1));
+        String cursor = queryService.findLogs(AuditLogSource.DATABASE, new SystemLogFilter("LOGIN", null, null, null), 1, null)
+                .getNextCursor();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> queryService.findLogs(AuditLogSource.DATABASE,
+                new SystemLogFilter("LOGOUT", null, null, null), 1, cursor));
+        assertThrows(IllegalStateException.class, () -> queryService.findLogs(AuditLogSource.DATABASE,
+                new SystemLogFilter(), 1, "not-a-cursor"));
+    }
+
+    @Test
+    void exportNdjson_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Arrange
+        log(1L, 7L, "LOGIN", NOON);
+        log(2L, null, "SYSTEM_START", NOON.plusMinutes(1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        queryService.exportNdjson(AuditLogSource.DATABASE, new SystemLogFilter(), out);
+
+        // Assert
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(2L, first.get("id").asLong());
+        assertTrue(first.get("userId").isNull());
+        assertEquals("LOGIN", objectMapper.readTree(lines[1]).get("action").asText());
+    }
+
+    @Test
+    void exportCsv_ShouldQuoteFieldsWithSeparatorsQuotesAndNewlines() throws Exception {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO system_logs (id, user_id, action, details, ip_address, timestamp) VALUES (?, ?, ?, ?, ?, ?)",
+                1L, 7L, "NOTE", "said \"hi\", left\nearly", "10.0.0.1", Timestamp.valueOf(NOON));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        queryService.exportCsv(AuditLogSource.DATABASE, new SystemLogFilter(), out);
+
+        // Assert
+        assertEquals("id,userId,userEmail,action,details,ipAddress,timestamp\n"
+                        + "1,7,doc@test.com,NOTE,\"said \"\"hi\"\", left\nearly\",10.0.0.1," + NOON + "\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    private void log(Long id, Long userId, String action, LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO system_logs (id, user_id, action, details, timestamp) VALUES (?, ?, ?, ?, ?)",
+                id, userId, action, action + " details", Timestamp.valueOf(timestamp));
+    }
+}
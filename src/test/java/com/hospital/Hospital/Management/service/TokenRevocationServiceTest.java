@@ -0,0 +1,145 @@
+package com.hospital.Hospital.Management.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hospital.Hospital.Management.model.Role;
+import com.hospital.Hospital.Management.model.TokenRevocation;
+import com.hospital.Hospital.Management.model.User;
+import com.hospital.Hospital.Management.repository.TokenRevocationRepository;
+import com.hospital.Hospital.Management.security.AuthenticatedUser;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    private static final String SECRET =
+            "Y2234ddrt5h5th4wtw4e5gr546t45tgrgdwe1QRZJNEYRHRYERFRF34TVSDRWFSecretKeyForHS256AlgorithmIsVeryImportantSoKeepItSafeAndLongAndRandom12345";
+
+    @Mock
+    private TokenRevocationRepository revocationRepository;
+
+    private TokenRevocationService revocationService;
+    private JwtService jwtService;
+    private AuthenticatedUser principal;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new TokenRevocationService(revocationRepository, 1000, 0.001, 604_800_000, 10_000);
+        jwtService = new JwtService(SECRET, 3_600_000, 604_800_000, 0,
+                Clock.fixed(Instant.now().minusSeconds(10), ZoneOffset.UTC));
+        principal = AuthenticatedUser.from(User.builder()
+                .id(9L)
+                .email("patient@example.com")
+                .password("hash")
+                .roles(Set.of(Role.ROLE_PATIENT))
+                .enabled(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void revokeToken_ShouldRevokeOnlyThatToken() {
+        // Arrange
+        ValidatedJwt loggedOut = jwtService.validate(jwtService.generateToken(principal));
+        ValidatedJwt otherDevice = jwtService.validate(jwtService.generateToken(principal));
+
+        // Act
+        revocationService.revokeToken(loggedOut);
+
+        // Assert
+        assertTrue(revocationService.isRevoked(loggedOut));
+        assertFalse(revocationService.isRevoked(otherDevice));
+        verify(revocationRepository).insertIfAbsent(eq(loggedOut.claims().getId()), eq(9L), any(), any());
+    }
+
+    @Test
+    void revokeToken_InsideTransaction_ShouldOnlyApplyAfterCommit() {
+        // Arrange
+        ValidatedJwt loggedOut = jwtService.validate(jwtService.generateToken(principal));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        revocationService.revokeToken(loggedOut);
+
+        // Assert
+        assertFalse(revocationService.isRevoked(loggedOut));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(revocationService.isRevoked(loggedOut));
+    }
+
+    @Test
+    void revokeAllForUser_ShouldRevokeTokensIssuedBeforeCutOff() {
+        // Arrange
+        when(revocationRepository.save(any(TokenRevocation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ValidatedJwt issuedEarlier = jwtService.validate(jwtService.generateToken(principal));
+
+        // Act
+        revocationService.revokeAllForUser(9L, LocalDateTime.now());
+
+        // Assert
+        assertTrue(revocationService.isRevoked(issuedEarlier));
+    }
+
+    @Test
+    void revokeAllForUser_ShouldKeepTokensIssuedLaterInTheSameSecond() {
+        // Arrange
+        when(revocationRepository.save(any(TokenRevocation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Instant second = Instant.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(10);
+        ValidatedJwt previousSecond = tokenIssuedAt(second.minusMillis(1));
+        ValidatedJwt sameSecond = tokenIssuedAt(second.plusMillis(900));
+
+        // Act
+        revocationService.revokeAllForUser(9L, LocalDateTime.ofInstant(second.plusMillis(100), ZoneId.systemDefault()));
+
+        // Assert
+        assertTrue(revocationService.isRevoked(previousSecond));
+        assertFalse(revocationService.isRevoked(sameSecond));
+    }
+
+    @Test
+    void rebuild_ShouldRestoreRevocationsFromStorage() {
+        // Arrange
+        ValidatedJwt token = jwtService.validate(jwtService.generateToken(principal));
+        when(revocationRepository.findByExpiresAtAfter(any())).thenReturn(List.of(TokenRevocation.builder()
+                .jti(token.claims().getId())
+                .userId(9L)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build()));
+
+        // Act
+        revocationService.rebuild();
+
+        // Assert
+        assertTrue(revocationService.isRevoked(token));
+    }
+
+    private ValidatedJwt tokenIssuedAt(Instant issuedAt) {
+        JwtService issuer = new JwtService(SECRET, 3_600_000, 604_800_000, 0, Clock.fixed(issuedAt, ZoneOffset.UTC));
+        return jwtService.validate(issuer.generateToken(principal));
+    }
+}
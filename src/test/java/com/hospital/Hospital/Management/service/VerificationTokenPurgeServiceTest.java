@@ -0,0 +1,52 @@
+package com.hospital.Hospital.Management.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+public class VerificationTokenPurgeServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void purgeBefore_ShouldDeleteInBatchesUntilShortBatch() {
+        // Arrange
+        when(jdbcTemplate.update(anyString(), any(Timestamp.class), eq(100))).thenReturn(100, 100, 37);
+        VerificationTokenPurgeService service = new VerificationTokenPurgeService(jdbcTemplate, Runnable::run, 100);
+
+        // Act
+        int deleted = service.purgeBefore(LocalDateTime.of(2025, 1, 1, 4, 0));
+
+        // Assert
+        assertEquals(237, deleted);
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Timestamp.class), eq(100));
+    }
+
+    @Test
+    void purgeExpiredTokens_ShouldOnlyDeleteByTheIndexedExpiryDate() {
+        // Arrange
+        VerificationTokenPurgeService service = new VerificationTokenPurgeService(jdbcTemplate, Runnable::run, 100);
+
+        // Act
+        service.purgeExpiredTokens();
+
+        // Assert
+        verify(jdbcTemplate).update(argThat(sql -> sql.contains("expiry_date < ?") && !sql.contains("used")),
+                any(Timestamp.class), eq(100));
+    }
+}